@@ -0,0 +1,81 @@
+package br.edu.unifalmg.benchmark;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.repository.ChoreRepository;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic chores shared by the benchmarks.
+ * <p>
+ * Chore i is described as "Chore #i", is due 1 to 365 days from today and is completed when
+ * i % 100 falls below the completed ratio, so the completed chores are spread over the list.
+ */
+final class BenchmarkChores {
+
+    static final LocalDate TODAY = LocalDate.now();
+
+    /**
+     * Fixed on {@link #TODAY}, so the validations of the service do not depend on when the benchmark runs.
+     */
+    static final Clock CLOCK = Clock.fixed(TODAY.atStartOfDay(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+
+    private BenchmarkChores() {
+    }
+
+    static String description(int i) {
+        return "Chore #" + i;
+    }
+
+    static LocalDate deadline(int i) {
+        return TODAY.plusDays(1 + i % 365);
+    }
+
+    static boolean completed(int i, double completedRatio) {
+        return i % 100 < completedRatio * 100;
+    }
+
+    static Chore chore(int i, double completedRatio) {
+        return new Chore(description(i), completed(i, completedRatio), deadline(i));
+    }
+
+    static List<Chore> chores(int count, double completedRatio) {
+        List<Chore> chores = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            chores.add(chore(i, completedRatio));
+        }
+        return chores;
+    }
+
+    /**
+     * Repository that stores nothing, so the service benchmarks only measure the service.
+     */
+    static class NoOpChoreRepository implements ChoreRepository {
+
+        @Override
+        public List<Chore> load() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public boolean save(Chore chore) {
+            return true;
+        }
+
+        @Override
+        public boolean saveAll(List<Chore> chores) {
+            return true;
+        }
+
+        @Override
+        public boolean update(Chore chore) {
+            return true;
+        }
+
+    }
+
+}
@@ -0,0 +1,139 @@
+package br.edu.unifalmg.benchmark;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.enumerator.ChoreFilter;
+import br.edu.unifalmg.exception.DuplicatedChoreException;
+import br.edu.unifalmg.service.ChoreService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static br.edu.unifalmg.benchmark.BenchmarkChores.*;
+
+/**
+ * Operations of {@link ChoreService} on a list of chores already in memory.
+ */
+public class ChoreServiceBenchmark {
+
+    @State(Scope.Thread)
+    public static class Populated {
+
+        @Param({"1000", "10000", "100000", "1000000", "10000000"})
+        public int count;
+
+        /**
+         * Share of completed chores, i.e. the selectivity of the completed filter.
+         */
+        @Param({"0.01", "0.5", "0.99"})
+        public double selectivity;
+
+        ChoreService service;
+
+        /**
+         * Indexes of the uncompleted chores, the only ones that can be edited.
+         */
+        int[] uncompleted;
+
+        boolean[] edited;
+
+        long added;
+
+        final SplittableRandom random = new SplittableRandom(42);
+
+        @Setup(Level.Trial)
+        public void setup() {
+            service = new ChoreService(new NoOpChoreRepository(), CLOCK);
+            List<Chore> chores = service.getChores();
+            int uncompletedCount = 0;
+            for (int i = 0; i < count; i++) {
+                chores.add(chore(i, selectivity));
+                if (!completed(i, selectivity)) {
+                    uncompletedCount++;
+                }
+            }
+            uncompleted = new int[uncompletedCount];
+            for (int i = 0, j = 0; i < count; i++) {
+                if (!completed(i, selectivity)) {
+                    uncompleted[j++] = i;
+                }
+            }
+            edited = new boolean[count];
+        }
+
+    }
+
+    @State(Scope.Thread)
+    public static class Duplicates {
+
+        /**
+         * Share of added chores that already exist and are rejected.
+         */
+        @Param({"0.0", "0.1", "0.5"})
+        public double ratio;
+
+    }
+
+    /**
+     * Add a chore, or try to add an existing one. New chores are deleted right away,
+     * so the list keeps the same size during the whole benchmark.
+     */
+    @Benchmark
+    public Chore addChore(Populated state, Duplicates duplicates) {
+        if (state.random.nextDouble() < duplicates.ratio) {
+            int i = state.random.nextInt(state.count);
+            try {
+                return state.service.addChore(description(i), deadline(i));
+            } catch (DuplicatedChoreException e) {
+                return null;
+            }
+        }
+        String description = "New chore #" + state.added++;
+        Chore chore = state.service.addChore(description, TODAY.plusDays(1));
+        state.service.deleteChore(description, TODAY.plusDays(1));
+        return chore;
+    }
+
+    @Benchmark
+    public void toggleChore(Populated state) {
+        int i = state.random.nextInt(state.count);
+        state.service.toggleChore(description(i), deadline(i));
+    }
+
+    @Benchmark
+    public void editChore(Populated state) {
+        if (state.uncompleted.length == 0) {
+            return;
+        }
+        int i = state.uncompleted[state.random.nextInt(state.uncompleted.length)];
+        String original = description(i);
+        String renamed = original + " (edited)";
+        if (state.edited[i]) {
+            state.service.editChore(renamed, deadline(i), original);
+        } else {
+            state.service.editChore(original, deadline(i), renamed);
+        }
+        state.edited[i] = !state.edited[i];
+    }
+
+    @Benchmark
+    public List<Chore> filterCompleted(Populated state) {
+        return state.service.filterChores(ChoreFilter.COMPLETED);
+    }
+
+    @Benchmark
+    public List<Chore> filterUncompleted(Populated state) {
+        return state.service.filterChores(ChoreFilter.UNCOMPLETED);
+    }
+
+    @Benchmark
+    public List<Chore> filterDueWithinAMonth(Populated state) {
+        return state.service.filterChoresDueBefore(TODAY.plusDays(30));
+    }
+
+}
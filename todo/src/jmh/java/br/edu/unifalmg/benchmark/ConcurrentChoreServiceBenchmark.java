@@ -0,0 +1,118 @@
+package br.edu.unifalmg.benchmark;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.enumerator.ChoreFilter;
+import br.edu.unifalmg.service.ChoreService;
+import br.edu.unifalmg.service.ConcurrentChoreService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static br.edu.unifalmg.benchmark.BenchmarkChores.*;
+
+/**
+ * {@link ConcurrentChoreService} against {@link ChoreService} shared by several threads. The
+ * latter is not thread-safe, so its operations run under a single lock, like a caller sharing
+ * it would do. Every thread of a benchmark runs the same operation on the same services.
+ */
+@Threads(8)
+public class ConcurrentChoreServiceBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Services {
+
+        @Param({"10000", "1000000"})
+        public int count;
+
+        ChoreService service;
+
+        ConcurrentChoreService concurrent;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            service = new ChoreService(new NoOpChoreRepository(), CLOCK);
+            concurrent = new ConcurrentChoreService(new NoOpChoreRepository(), 64, CLOCK);
+            List<Chore> chores = service.getChores();
+            for (int i = 0; i < count; i++) {
+                chores.add(chore(i, 0.5));
+                concurrent.addChore(description(i), deadline(i));
+                if (completed(i, 0.5)) {
+                    concurrent.toggleChore(description(i), deadline(i));
+                }
+            }
+        }
+
+    }
+
+    @State(Scope.Thread)
+    public static class Worker {
+
+        private static final AtomicInteger THREADS = new AtomicInteger();
+
+        /**
+         * Keeps the chores added by each thread apart.
+         */
+        final int thread = THREADS.incrementAndGet();
+
+        final SplittableRandom random = new SplittableRandom(42 + thread);
+
+        long added;
+
+    }
+
+    @Benchmark
+    public Chore toggleChoreLocked(Services services, Worker worker) {
+        int i = worker.random.nextInt(services.count);
+        synchronized (services.service) {
+            return services.service.toggleChore(description(i), deadline(i));
+        }
+    }
+
+    @Benchmark
+    public Chore toggleChoreConcurrent(Services services, Worker worker) {
+        int i = worker.random.nextInt(services.count);
+        return services.concurrent.toggleChore(description(i), deadline(i));
+    }
+
+    /**
+     * Add a new chore and delete it right away, so the services keep the same size.
+     */
+    @Benchmark
+    public Chore addChoreLocked(Services services, Worker worker) {
+        String description = "New chore #" + worker.thread + "-" + worker.added++;
+        synchronized (services.service) {
+            Chore chore = services.service.addChore(description, TODAY.plusDays(1));
+            services.service.deleteChore(description, TODAY.plusDays(1));
+            return chore;
+        }
+    }
+
+    @Benchmark
+    public Chore addChoreConcurrent(Services services, Worker worker) {
+        String description = "New chore #" + worker.thread + "-" + worker.added++;
+        Chore chore = services.concurrent.addChore(description, TODAY.plusDays(1));
+        services.concurrent.deleteChore(description, TODAY.plusDays(1));
+        return chore;
+    }
+
+    @Benchmark
+    public List<Chore> filterCompletedLocked(Services services) {
+        synchronized (services.service) {
+            return services.service.filterChores(ChoreFilter.COMPLETED);
+        }
+    }
+
+    @Benchmark
+    public List<Chore> filterCompletedConcurrent(Services services) {
+        return services.concurrent.filterChores(ChoreFilter.COMPLETED);
+    }
+
+}
@@ -0,0 +1,84 @@
+package br.edu.unifalmg.benchmark;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.repository.ChoreRepository;
+import br.edu.unifalmg.repository.impl.BinaryChoreRepository;
+import br.edu.unifalmg.repository.impl.FileChoreRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static br.edu.unifalmg.benchmark.BenchmarkChores.chores;
+
+/**
+ * Reading and writing the chores file: JSON with the default (whole file) and the streaming
+ * modes, and the binary format.
+ * Ten million chores make a file of about a gigabyte; add the count with -p when needed.
+ */
+@State(Scope.Thread)
+public class FileChoreRepositoryBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int count;
+
+    @Param({"default", "streaming", "binary"})
+    public String mode;
+
+    private Path directory;
+
+    private List<Chore> chores;
+
+    private ChoreRepository source;
+
+    private ChoreRepository target;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("chores-benchmark");
+        chores = chores(count, 0.5);
+        File sourceFile = directory.resolve("source").toFile();
+        File targetFile = directory.resolve("target").toFile();
+        switch (mode) {
+            case "streaming":
+                source = FileChoreRepository.streaming(sourceFile);
+                target = FileChoreRepository.streaming(targetFile);
+                break;
+            case "binary":
+                source = new BinaryChoreRepository(sourceFile);
+                target = new BinaryChoreRepository(targetFile);
+                break;
+            default:
+                source = FileChoreRepository.of(sourceFile);
+                target = FileChoreRepository.of(targetFile);
+        }
+        source.saveAll(chores);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(directory.resolve("source"));
+        Files.deleteIfExists(directory.resolve("target"));
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public List<Chore> load() {
+        return source.load();
+    }
+
+    @Benchmark
+    public boolean saveAll() {
+        return target.saveAll(chores);
+    }
+
+}
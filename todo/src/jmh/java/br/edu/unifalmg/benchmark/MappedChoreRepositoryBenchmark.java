@@ -0,0 +1,78 @@
+package br.edu.unifalmg.benchmark;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.repository.impl.MappedChoreRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import static br.edu.unifalmg.benchmark.BenchmarkChores.chores;
+
+/**
+ * In-place writes of {@link MappedChoreRepository}: their cost should not depend on the number of chores.
+ */
+@State(Scope.Thread)
+public class MappedChoreRepositoryBenchmark {
+
+    @Param({"1000", "1000000", "10000000"})
+    public int count;
+
+    private Path directory;
+
+    private MappedChoreRepository repository;
+
+    private List<Chore> chores;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("chores-benchmark");
+        File file = directory.resolve("chores.map").toFile();
+        chores = chores(count, 0.5);
+        repository = new MappedChoreRepository(file);
+        repository.saveAll(chores);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        repository.close();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) files::iterator) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public boolean setCompleted() {
+        Chore chore = chores.get(random.nextInt(count));
+        return repository.setCompleted(chore.getId(), random.nextBoolean());
+    }
+
+    @Benchmark
+    public boolean update() {
+        Chore chore = chores.get(random.nextInt(count));
+        chore.setDeadline(chore.getDeadline().plusDays(1));
+        return repository.update(chore);
+    }
+
+    @Benchmark
+    public Chore loadOne() {
+        return repository.load().get(random.nextInt(count));
+    }
+
+}
@@ -0,0 +1,107 @@
+package br.edu.unifalmg.benchmark;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.repository.impl.MySQLChoreRepository;
+import br.edu.unifalmg.repository.pool.ConnectionPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static br.edu.unifalmg.benchmark.BenchmarkChores.*;
+
+/**
+ * Round trips of {@link MySQLChoreRepository} against an in-memory H2 database in MySQL mode.
+ * The numbers leave the network out, so they show the cost of the repository and the driver,
+ * not of a real server.
+ */
+@State(Scope.Thread)
+public class MySQLChoreRepositoryBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    private static final int BATCH_SIZE = 1_000;
+
+    @Param({"1000", "10000", "100000"})
+    public int count;
+
+    private String url;
+
+    private ConnectionPool pool;
+
+    private MySQLChoreRepository repository;
+
+    private List<Chore> chores;
+
+    private List<Chore> batch;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        url = "jdbc:h2:mem:" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1";
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SCHEMA lifecycle");
+            statement.execute("CREATE TABLE lifecycle.chores (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "description VARCHAR(255) NOT NULL, isCompleted BOOLEAN NOT NULL, deadline DATE NOT NULL)");
+        }
+        pool = new ConnectionPool(() -> DriverManager.getConnection(url), 4);
+        repository = new MySQLChoreRepository(pool, BATCH_SIZE, PAGE_SIZE);
+        chores = chores(count, 0.5);
+        repository.saveAll(chores);
+        batch = chores.subList(0, Math.min(BATCH_SIZE, count));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        }
+        pool.close();
+    }
+
+    @Benchmark
+    public boolean save() {
+        return repository.save(new Chore("Saved chore", false, TODAY.plusDays(1)));
+    }
+
+    @Benchmark
+    public boolean update() {
+        Chore chore = chores.get(random.nextInt(count));
+        chore.setIsCompleted(!chore.getIsCompleted());
+        return repository.update(chore);
+    }
+
+    @Benchmark
+    public List<Chore> loadPage() {
+        return repository.load(chores.get(random.nextInt(count)).getId(), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Chore> load() {
+        return repository.load();
+    }
+
+    /**
+     * Upsert a batch of existing chores in one transaction.
+     */
+    @Benchmark
+    public boolean saveAll() {
+        return repository.saveAll(batch);
+    }
+
+}
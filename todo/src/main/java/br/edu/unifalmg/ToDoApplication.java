@@ -20,8 +20,7 @@ public class ToDoApplication {
         service.loadChores();
         service.printChores();
 
-        service.toggleChore("Limpar a caixa de areia dos gatos", LocalDate.now());
-        service.updateChore(service.getChores().get(1));
+        service.updateChore(service.toggleChore("Limpar a caixa de areia dos gatos", LocalDate.now()));
         service.loadChores();
         service.printChores();
 
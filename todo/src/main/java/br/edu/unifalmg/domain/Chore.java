@@ -2,17 +2,19 @@ package br.edu.unifalmg.domain;
 
 import lombok.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Objects;
 
 @Getter
 @Setter
-@Builder
 @NoArgsConstructor
-@AllArgsConstructor
 public class Chore {
 
+    private static final DateTimeFormatter DEADLINE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
     private Long id;
 
     private String description;
@@ -21,21 +23,151 @@ public class Chore {
 
     private LocalDate deadline;
 
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient ChoreObserver observer;
+
+    @Builder
+    public Chore (Long id, String description, Boolean isCompleted, LocalDate deadline) {
+        this.id = id;
+        this.description = description;
+        this.isCompleted = isCompleted;
+        this.deadline = deadline;
+    }
+
     public Chore (String description, boolean isCompleted, LocalDate deadline) {
         this.description = description;
         this.isCompleted = isCompleted;
         this.deadline = deadline;
     }
+
+    /**
+     * Copy the values of the chore, read through its getters. The copy has no observer.
+     *
+     * @param chore The chore to be copied
+     */
+    public Chore (Chore chore) {
+        this(chore.getId(), chore.getDescription(), chore.getIsCompleted(), chore.getDeadline());
+    }
+
+    public void setId (Long id) {
+        Long previousId = getId();
+        writeId(id);
+        if (Objects.nonNull(observer)) {
+            observer.idChanged(this, previousId);
+        }
+    }
+
+    public void setDescription (String description) {
+        String previousDescription = getDescription();
+        writeDescription(description);
+        if (Objects.nonNull(observer)) {
+            observer.keyChanged(this, previousDescription, getDeadline());
+        }
+    }
+
+    public void setIsCompleted (Boolean isCompleted) {
+        Boolean previousStatus = getIsCompleted();
+        writeIsCompleted(isCompleted);
+        if (Objects.nonNull(observer)) {
+            observer.statusChanged(this, previousStatus);
+        }
+    }
+
+    public void setDeadline (LocalDate deadline) {
+        LocalDate previousDeadline = getDeadline();
+        writeDeadline(deadline);
+        if (Objects.nonNull(observer)) {
+            observer.keyChanged(this, getDescription(), previousDeadline);
+        }
+    }
+
+    /*
+     * Where the setters store the values. Chores whose values live elsewhere
+     * (e.g. the rows of a ChoreTable) override them along with the getters.
+     */
+
+    protected void writeId (Long id) {
+        this.id = id;
+    }
+
+    protected void writeDescription (String description) {
+        this.description = description;
+    }
+
+    protected void writeIsCompleted (Boolean isCompleted) {
+        this.isCompleted = isCompleted;
+    }
+
+    protected void writeDeadline (LocalDate deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Attach the structure that indexes this chore. Only one observer is kept.
+     *
+     * @param observer The observer to be notified on changes
+     */
+    public void attach (ChoreObserver observer) {
+        this.observer = observer;
+    }
+
+    /**
+     * Detach the given observer, if it is the one currently attached.
+     *
+     * @param observer The observer to be detached
+     */
+    public void detach (ChoreObserver observer) {
+        if (this.observer == observer) {
+            this.observer = null;
+        }
+    }
+
     @Override
     public String toString () {
+        StringBuilder builder = new StringBuilder(64);
+        try {
+            appendTo(builder);
+        } catch (IOException exception) {
+            // A StringBuilder does not throw
+            throw new UncheckedIOException(exception);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Write the same text as {@link #toString()} to the output, without building it first.
+     * Deadlines between the years 1 and 9999 are written digit by digit, without allocations.
+     *
+     * @param out Where the text is written
+     */
+    public void appendTo (Appendable out) throws IOException {
         String choreStatus = "Not completed";
 
-           if (isCompleted)
+           if (getIsCompleted())
            {
                choreStatus = "Completed";
            }
 
-        return "Description: " + description +  " Deadline: " + deadline.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")) + " Status: " + choreStatus;
+        out.append("Description: ").append(getDescription()).append(" Deadline: ");
+        LocalDate deadline = getDeadline();
+        int year = deadline.getYear();
+        if (year >= 1 && year <= 9999) {
+            appendDigits(out, deadline.getDayOfMonth(), 2);
+            out.append('/');
+            appendDigits(out, deadline.getMonthValue(), 2);
+            out.append('/');
+            appendDigits(out, year, 4);
+        } else {
+            DEADLINE_FORMAT.formatTo(deadline, out);
+        }
+        out.append(" Status: ").append(choreStatus);
+    }
+
+    private static void appendDigits (Appendable out, int value, int digits) throws IOException {
+        for (int divisor = digits == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + value / divisor % 10));
+        }
     }
 
 }
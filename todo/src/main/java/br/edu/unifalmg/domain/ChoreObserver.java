@@ -0,0 +1,36 @@
+package br.edu.unifalmg.domain;
+
+import java.time.LocalDate;
+
+/**
+ * Callback used by the structures that index chores (e.g. the service's store)
+ * to keep their indexes in sync when a chore is changed through its setters.
+ */
+public interface ChoreObserver {
+
+    /**
+     * Called after the description or the deadline of the chore changed.
+     *
+     * @param chore The changed chore
+     * @param previousDescription The description before the change
+     * @param previousDeadline The deadline before the change
+     */
+    void keyChanged(Chore chore, String previousDescription, LocalDate previousDeadline);
+
+    /**
+     * Called after the id of the chore changed (e.g. when the database generates it).
+     *
+     * @param chore The changed chore
+     * @param previousId The id before the change
+     */
+    void idChanged(Chore chore, Long previousId);
+
+    /**
+     * Called after the completion status of the chore changed.
+     *
+     * @param chore The changed chore
+     * @param previousStatus The status before the change
+     */
+    void statusChanged(Chore chore, Boolean previousStatus);
+
+}
@@ -0,0 +1,573 @@
+package br.edu.unifalmg.domain;
+
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Columnar storage of chores.
+ * <p>
+ * Each attribute is kept in its own primitive column: ids in a long[], deadlines as epoch days
+ * in an int[], the completion status in a {@link BitSet} and the descriptions as codes of a
+ * dictionary, so a repeated description is stored once. The rows are also found by description
+ * and deadline through an open addressing hash table of row numbers, so a row takes 16 bytes in
+ * the columns and 8 to 16 bytes in the key index, besides the bits and its description.
+ * <p>
+ * Rows are read and changed through flyweight views: a view is a {@link Chore} holding only the
+ * table and the row number, whose getters and setters go to the columns. The views are created
+ * when they are asked for, so the table holds no object per row. The filters (e.g.
+ * {@link #findByStatus(boolean)}) read the columns and only create views of the rows found.
+ * <p>
+ * A removed row is reused by the next chore added, so a view of a removed row reads the chore
+ * added in its place. The dictionary keeps the descriptions of removed rows.
+ */
+public final class ChoreTable {
+
+    private static final int NO_DEADLINE = Integer.MIN_VALUE;
+
+    private static final int NO_DESCRIPTION = -1;
+
+    private static final int INITIAL_KEY_SLOTS = 16;
+
+    private long[] ids;
+
+    private final BitSet hasId = new BitSet();
+
+    private int[] deadlines;
+
+    private final BitSet completed = new BitSet();
+
+    /**
+     * Rows whose completion status is not null.
+     */
+    private final BitSet hasStatus = new BitSet();
+
+    private int[] descriptions;
+
+    private final List<String> dictionary = new ArrayList<>();
+
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    /**
+     * Rows used so far, removed ones included.
+     */
+    private int rows;
+
+    /**
+     * Removed rows, to be reused by the next chores added.
+     */
+    private final BitSet free = new BitSet();
+
+    private int freeRows;
+
+    /**
+     * Row + 1 of the chores by description and deadline, 0 for an empty slot (linear probing).
+     * The length is a power of two and at least twice the number of indexed rows.
+     */
+    private int[] keys = new int[INITIAL_KEY_SLOTS];
+
+    private int indexedRows;
+
+    /**
+     * Rows left out of the key index because another row has the same description and deadline.
+     */
+    private int shadowedRows;
+
+    public ChoreTable() {
+        this(16);
+    }
+
+    /**
+     * @param capacity Number of rows to allocate up front
+     */
+    public ChoreTable(int capacity) {
+        ids = new long[Math.max(capacity, 1)];
+        deadlines = new int[ids.length];
+        descriptions = new int[ids.length];
+    }
+
+    /**
+     * Create a table holding a copy of the chores, in the same order.
+     */
+    public static ChoreTable of(Collection<Chore> chores) {
+        ChoreTable table = new ChoreTable(chores.size());
+        for (Chore chore : chores) {
+            table.add(chore);
+        }
+        return table;
+    }
+
+    /**
+     * Store a copy of the chore in the first removed row, or in a new row after the others.
+     *
+     * @return The view of the row
+     */
+    public Chore add(Chore chore) {
+        int row;
+        if (freeRows > 0) {
+            row = free.nextSetBit(0);
+            free.clear(row);
+            freeRows--;
+        } else {
+            if (rows == ids.length) {
+                int capacity = ids.length + (ids.length >> 1) + 1;
+                ids = Arrays.copyOf(ids, capacity);
+                deadlines = Arrays.copyOf(deadlines, capacity);
+                descriptions = Arrays.copyOf(descriptions, capacity);
+            }
+            row = rows++;
+        }
+        writeId(row, chore.getId());
+        writeDescription(row, chore.getDescription());
+        writeIsCompleted(row, chore.getIsCompleted());
+        writeDeadline(row, chore.getDeadline());
+        indexKey(row);
+        return new Row(this, row);
+    }
+
+    /**
+     * Remove the row of the view. The row is reused by the next chore added.
+     *
+     * @return TRUE, if the chore is a view of a row of this table and FALSE otherwise
+     */
+    public boolean remove(Chore chore) {
+        if (!(chore instanceof Row) || ((Row) chore).table != this || free.get(((Row) chore).row)) {
+            return false;
+        }
+        int row = ((Row) chore).row;
+        unindexKey(row);
+        writeId(row, null);
+        writeDescription(row, null);
+        writeIsCompleted(row, null);
+        writeDeadline(row, null);
+        free.set(row);
+        freeRows++;
+        return true;
+    }
+
+    /**
+     * Find the row with the description and deadline. When several rows have them, the same one
+     * is found until it is removed or changed.
+     *
+     * @return Chore A view of the row or NULL when there is none
+     */
+    public Chore find(String description, LocalDate deadline) {
+        int code;
+        if (Objects.isNull(description)) {
+            code = NO_DESCRIPTION;
+        } else {
+            Integer known = codes.get(description);
+            if (Objects.isNull(known)) {
+                return null;
+            }
+            code = known;
+        }
+        int slot = slotOf(code, Objects.isNull(deadline) ? NO_DEADLINE : Math.toIntExact(deadline.toEpochDay()));
+        return slot < 0 ? null : new Row(this, keys[slot] - 1);
+    }
+
+    public boolean contains(String description, LocalDate deadline) {
+        return Objects.nonNull(find(description, deadline));
+    }
+
+    /**
+     * Number of chores stored, removed rows excluded.
+     */
+    public int size() {
+        return rows - freeRows;
+    }
+
+    /**
+     * Get a new view of the row.
+     *
+     * @throws IllegalArgumentException When the row was removed
+     */
+    public Chore get(int row) {
+        Objects.checkIndex(row, rows);
+        if (free.get(row)) {
+            throw new IllegalArgumentException("The row " + row + " was removed");
+        }
+        return new Row(this, row);
+    }
+
+    /**
+     * Get the chores as a list of views, in row order, created when they are accessed.
+     * The list holds the rows stored when it was created; rows added or removed afterwards are
+     * not followed once the table has removed rows.
+     */
+    public List<Chore> asList() {
+        if (freeRows == 0) {
+            return new RowList(null);
+        }
+        int[] live = new int[size()];
+        for (int row = free.nextClearBit(0), i = 0; row < rows; row = free.nextClearBit(row + 1)) {
+            live[i++] = row;
+        }
+        return new RowList(live);
+    }
+
+    /**
+     * Number of distinct descriptions stored.
+     */
+    public int dictionarySize() {
+        return dictionary.size();
+    }
+
+    /**
+     * Count the rows with the status. Rows without status count as uncompleted.
+     */
+    public int countByStatus(boolean isCompleted) {
+        int completedRows = completed.cardinality();
+        return isCompleted ? completedRows : size() - completedRows;
+    }
+
+    /**
+     * Get views of the rows with the status, in row order. Rows without status count as uncompleted.
+     */
+    public List<Chore> findByStatus(boolean isCompleted) {
+        List<Chore> found = new ArrayList<>(countByStatus(isCompleted));
+        if (isCompleted) {
+            for (int row = completed.nextSetBit(0); row >= 0 && row < rows; row = completed.nextSetBit(row + 1)) {
+                found.add(new Row(this, row));
+            }
+        } else {
+            for (int row = completed.nextClearBit(0); row < rows; row = completed.nextClearBit(row + 1)) {
+                if (!free.get(row)) {
+                    found.add(new Row(this, row));
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Get views of the rows due strictly before the date, in row order.
+     */
+    public List<Chore> findDueBefore(LocalDate date) {
+        return findDueBefore(date, null);
+    }
+
+    /**
+     * Get views of the rows with the status due strictly before the date, in row order.
+     * Rows without status count as uncompleted.
+     */
+    public List<Chore> findDueBefore(LocalDate date, Boolean isCompleted) {
+        long limit = date.toEpochDay();
+        List<Chore> found = new ArrayList<>();
+        for (int row = 0; row < rows; row++) {
+            if (isDueBefore(row, limit, isCompleted)) {
+                found.add(new Row(this, row));
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Count the rows with the status due strictly before the date, without creating views.
+     * Rows without status count as uncompleted.
+     *
+     * @param isCompleted The status of the rows. NULL for any status.
+     */
+    public int countDueBefore(LocalDate date, Boolean isCompleted) {
+        long limit = date.toEpochDay();
+        int count = 0;
+        for (int row = 0; row < rows; row++) {
+            if (isDueBefore(row, limit, isCompleted)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Count the rows by deadline, for the days with rows in the given range.
+     * Rows without status count as uncompleted.
+     *
+     * @param from The first day (inclusive). NULL for no lower bound.
+     * @param to The end of the range (exclusive). NULL for no upper bound.
+     * @param isCompleted The status of the rows. NULL for any status.
+     */
+    public SortedMap<LocalDate, Integer> countDueByDay(LocalDate from, LocalDate to, Boolean isCompleted) {
+        long first = Objects.isNull(from) ? Long.MIN_VALUE : from.toEpochDay();
+        long limit = Objects.isNull(to) ? Long.MAX_VALUE : to.toEpochDay();
+        int[] days = new int[rows];
+        int found = 0;
+        for (int row = 0; row < rows; row++) {
+            if (deadlines[row] >= first && isDueBefore(row, limit, isCompleted)) {
+                days[found++] = deadlines[row];
+            }
+        }
+        Arrays.sort(days, 0, found);
+        SortedMap<LocalDate, Integer> histogram = new TreeMap<>();
+        for (int i = 0, end; i < found; i = end) {
+            end = i + 1;
+            while (end < found && days[end] == days[i]) {
+                end++;
+            }
+            histogram.put(LocalDate.ofEpochDay(days[i]), end - i);
+        }
+        return histogram;
+    }
+
+    /**
+     * Removed rows have no deadline, so they are never due.
+     */
+    private boolean isDueBefore(int row, long limit, Boolean isCompleted) {
+        return deadlines[row] != NO_DEADLINE && deadlines[row] < limit
+                && (Objects.isNull(isCompleted) || completed.get(row) == isCompleted);
+    }
+
+    private Long readId(int row) {
+        return hasId.get(row) ? ids[row] : null;
+    }
+
+    private String readDescription(int row) {
+        return descriptions[row] == NO_DESCRIPTION ? null : dictionary.get(descriptions[row]);
+    }
+
+    private Boolean readIsCompleted(int row) {
+        return hasStatus.get(row) ? completed.get(row) : null;
+    }
+
+    private LocalDate readDeadline(int row) {
+        return deadlines[row] == NO_DEADLINE ? null : LocalDate.ofEpochDay(deadlines[row]);
+    }
+
+    private void writeId(int row, Long id) {
+        ids[row] = Objects.isNull(id) ? 0L : id;
+        hasId.set(row, Objects.nonNull(id));
+    }
+
+    private void writeDescription(int row, String description) {
+        if (Objects.isNull(description)) {
+            descriptions[row] = NO_DESCRIPTION;
+            return;
+        }
+        Integer code = codes.get(description);
+        if (Objects.isNull(code)) {
+            code = dictionary.size();
+            dictionary.add(description);
+            codes.put(description, code);
+        }
+        descriptions[row] = code;
+    }
+
+    private void writeIsCompleted(int row, Boolean isCompleted) {
+        hasStatus.set(row, Objects.nonNull(isCompleted));
+        completed.set(row, Boolean.TRUE.equals(isCompleted));
+    }
+
+    private void writeDeadline(int row, LocalDate deadline) {
+        deadlines[row] = Objects.isNull(deadline) ? NO_DEADLINE : Math.toIntExact(deadline.toEpochDay());
+    }
+
+    /*
+     * Key index. A row is hashed on its description code and deadline, so it must be
+     * unindexed before either of them changes and indexed again afterwards.
+     */
+
+    private void changeDescription(int row, String description) {
+        unindexKey(row);
+        writeDescription(row, description);
+        indexKey(row);
+    }
+
+    private void changeDeadline(int row, LocalDate deadline) {
+        unindexKey(row);
+        writeDeadline(row, deadline);
+        indexKey(row);
+    }
+
+    private static int hash(int description, int deadline) {
+        int hash = description * 31 + deadline;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * @return The slot of the row with the key, or -(empty slot) - 1 when there is none
+     */
+    private int slotOf(int description, int deadline) {
+        int mask = keys.length - 1;
+        for (int slot = hash(description, deadline) & mask; ; slot = (slot + 1) & mask) {
+            if (keys[slot] == 0) {
+                return -slot - 1;
+            }
+            int row = keys[slot] - 1;
+            if (descriptions[row] == description && deadlines[row] == deadline) {
+                return slot;
+            }
+        }
+    }
+
+    private void indexKey(int row) {
+        int slot = slotOf(descriptions[row], deadlines[row]);
+        if (slot >= 0) {
+            shadowedRows++;
+            return;
+        }
+        keys[-slot - 1] = row + 1;
+        if (++indexedRows * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    /**
+     * Remove the row from the key index. When it was indexed and other rows have the same key,
+     * the first of them takes its place.
+     */
+    private void unindexKey(int row) {
+        int slot = slotOf(descriptions[row], deadlines[row]);
+        if (keys[slot] != row + 1) {
+            shadowedRows--;
+            return;
+        }
+        clearSlot(slot);
+        indexedRows--;
+        if (shadowedRows == 0) {
+            return;
+        }
+        for (int other = free.nextClearBit(0); other < rows; other = free.nextClearBit(other + 1)) {
+            if (other != row && descriptions[other] == descriptions[row] && deadlines[other] == deadlines[row]) {
+                shadowedRows--;
+                indexKey(other);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Empty the slot, moving back the following entries of the probe sequence that would no
+     * longer be found past the hole.
+     */
+    private void clearSlot(int slot) {
+        int mask = keys.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != 0; next = (next + 1) & mask) {
+            int row = keys[next] - 1;
+            int home = hash(descriptions[row], deadlines[row]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                hole = next;
+            }
+        }
+        keys[hole] = 0;
+    }
+
+    private void rehash(int capacity) {
+        int[] previous = keys;
+        keys = new int[capacity];
+        int mask = capacity - 1;
+        for (int entry : previous) {
+            if (entry != 0) {
+                int slot = hash(descriptions[entry - 1], deadlines[entry - 1]) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = entry;
+            }
+        }
+    }
+
+    /**
+     * Flyweight view of a row. Two views of the same row are equal.
+     */
+    private static final class Row extends Chore {
+
+        private final ChoreTable table;
+
+        private final int row;
+
+        private Row(ChoreTable table, int row) {
+            this.table = table;
+            this.row = row;
+        }
+
+        @Override
+        public Long getId() {
+            return table.readId(row);
+        }
+
+        @Override
+        public String getDescription() {
+            return table.readDescription(row);
+        }
+
+        @Override
+        public Boolean getIsCompleted() {
+            return table.readIsCompleted(row);
+        }
+
+        @Override
+        public LocalDate getDeadline() {
+            return table.readDeadline(row);
+        }
+
+        @Override
+        protected void writeId(Long id) {
+            table.writeId(row, id);
+        }
+
+        @Override
+        protected void writeDescription(String description) {
+            table.changeDescription(row, description);
+        }
+
+        @Override
+        protected void writeIsCompleted(Boolean isCompleted) {
+            table.writeIsCompleted(row, isCompleted);
+        }
+
+        @Override
+        protected void writeDeadline(LocalDate deadline) {
+            table.changeDeadline(row, deadline);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Row && ((Row) other).table == table && ((Row) other).row == row;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(table) * 31 + row;
+        }
+
+    }
+
+    private final class RowList extends AbstractList<Chore> implements RandomAccess {
+
+        /**
+         * The rows of the list, NULL when they are every row of the table.
+         */
+        private final int[] live;
+
+        private RowList(int[] live) {
+            this.live = live;
+        }
+
+        @Override
+        public Chore get(int index) {
+            if (Objects.isNull(live)) {
+                return ChoreTable.this.get(index);
+            }
+            return new Row(ChoreTable.this, live[Objects.checkIndex(index, live.length)]);
+        }
+
+        @Override
+        public int size() {
+            return Objects.isNull(live) ? rows - freeRows : live.length;
+        }
+
+    }
+
+}
@@ -12,7 +12,8 @@ public enum ChoreFilter {
 
     ALL(1L, "All Chores"),
     COMPLETED(2L, "Only completed chores"),
-    UNCOMPLETED(3L, "Only uncompleted Chores");
+    UNCOMPLETED(3L, "Only uncompleted Chores"),
+    OVERDUE(4L, "Only uncompleted chores with a past deadline");
 
     private Long identifier;
     private String description;
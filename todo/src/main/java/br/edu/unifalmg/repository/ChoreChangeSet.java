@@ -0,0 +1,44 @@
+package br.edu.unifalmg.repository;
+
+import br.edu.unifalmg.domain.Chore;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The chores added, updated and deleted since the last save, to be written together
+ * through {@link ChoreRepository#apply(ChoreChangeSet)}.
+ * <p>
+ * A chore appears in at most one of the lists: a chore added and then changed is only added,
+ * and a chore added and then deleted does not appear at all.
+ */
+@Getter
+public final class ChoreChangeSet {
+
+    private final List<Chore> added;
+
+    private final List<Chore> updated;
+
+    private final List<Chore> deleted;
+
+    public ChoreChangeSet(Collection<Chore> added, Collection<Chore> updated, Collection<Chore> deleted) {
+        this.added = Collections.unmodifiableList(new ArrayList<>(added));
+        this.updated = Collections.unmodifiableList(new ArrayList<>(updated));
+        this.deleted = Collections.unmodifiableList(new ArrayList<>(deleted));
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && updated.isEmpty() && deleted.isEmpty();
+    }
+
+    /**
+     * Number of changed chores.
+     */
+    public int size() {
+        return added.size() + updated.size() + deleted.size();
+    }
+
+}
@@ -1,11 +1,163 @@
 package br.edu.unifalmg.repository;
 import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.store.ChoreQuery;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 public interface ChoreRepository {
     List <Chore> load ();
     boolean save (Chore chore);
     boolean saveAll (List<Chore> chores);
     boolean update(Chore chore);
 
+    /**
+     * Remove the chore with the same id.
+     * Repositories that cannot remove a single chore keep the default, which removes nothing.
+     *
+     * @return TRUE, if the chore was removed and FALSE otherwise
+     */
+    default boolean delete(Chore chore) {
+        return false;
+    }
+
+    /**
+     * Write only the chores that changed since the last save.
+     * The default writes them one by one; repositories that can write them together should override it.
+     * When some of them cannot be written that way (e.g. the repository cannot delete a single chore),
+     * the stored chores are loaded, the changes are applied to them by id and every chore is
+     * written again with {@link #saveAll(List)}.
+     *
+     * @return TRUE, if every change was written and FALSE when they could not be written,
+     *         or when an updated or deleted chore has no id
+     */
+    default boolean apply(ChoreChangeSet changes) {
+        boolean applied = true;
+        for (Chore chore : changes.getAdded()) {
+            applied &= save(chore);
+        }
+        for (Chore chore : changes.getUpdated()) {
+            applied &= update(chore);
+        }
+        for (Chore chore : changes.getDeleted()) {
+            applied &= delete(chore);
+        }
+        return applied || rewrite(changes);
+    }
+
+    /**
+     * Write every stored chore again with the changes applied, matching them by id.
+     * Added chores already stored (e.g. by a partial apply) replace the stored ones.
+     */
+    private boolean rewrite(ChoreChangeSet changes) {
+        Map<Long, Chore> replaced = new HashMap<>();
+        Set<Long> deleted = new HashSet<>();
+        for (Chore chore : changes.getUpdated()) {
+            if (Objects.isNull(chore.getId())) {
+                return false;
+            }
+            replaced.put(chore.getId(), chore);
+        }
+        for (Chore chore : changes.getDeleted()) {
+            if (Objects.isNull(chore.getId())) {
+                return false;
+            }
+            deleted.add(chore.getId());
+        }
+        for (Chore chore : changes.getAdded()) {
+            if (Objects.nonNull(chore.getId())) {
+                replaced.put(chore.getId(), chore);
+            }
+        }
+        List<Chore> stored = load();
+        if (Objects.isNull(stored)) {
+            return false;
+        }
+        List<Chore> chores = new ArrayList<>(stored.size() + changes.getAdded().size());
+        Set<Long> kept = new HashSet<>();
+        for (Chore chore : stored) {
+            Long id = chore.getId();
+            if (Objects.isNull(id)) {
+                chores.add(chore);
+            } else if (!deleted.contains(id)) {
+                chores.add(replaced.getOrDefault(id, chore));
+                kept.add(id);
+            }
+        }
+        for (Chore chore : changes.getAdded()) {
+            if (Objects.isNull(chore.getId()) || !kept.contains(chore.getId())) {
+                chores.add(chore);
+            }
+        }
+        return saveAll(chores);
+    }
+
+    /**
+     * Read the chores one by one. The stream must be closed.
+     * Repositories that can read incrementally should override it; the default loads every chore.
+     */
+    default Stream<Chore> stream() {
+        List<Chore> chores = load();
+        return Objects.isNull(chores) ? Stream.empty() : chores.stream();
+    }
+
+    /**
+     * Read every chore, in the same order as {@link #load()}, using the workers to read or parse
+     * parts of the input in parallel. Repositories that cannot split their input keep the
+     * default, which loads the chores on the calling thread.
+     *
+     * @return The chores, or null when they could not be loaded
+     */
+    default List<Chore> load(ForkJoinPool workers) {
+        return load();
+    }
+
+    /**
+     * Read the chores matching the query. Repositories that can select the chores in their storage
+     * should override it; the default reads every chore and filters them. INSERTION order is the
+     * order of {@link #stream()}.
+     *
+     * @return The page of matching chores, in the order of the query
+     */
+    default List<Chore> find(ChoreQuery query) {
+        try (Stream<Chore> chores = stream()) {
+            return query.select(chores);
+        }
+    }
+
+    /**
+     * Count the chores matching the predicates of the query, ignoring its order and page.
+     */
+    default long count(ChoreQuery query) {
+        try (Stream<Chore> chores = stream()) {
+            return chores.filter(query::matches).count();
+        }
+    }
+
+    /**
+     * Read a page of chores ordered by id.
+     *
+     * @param afterId Id of the last chore of the previous page, or null for the first page
+     * @param limit Maximum number of chores in the page
+     * @return The chores with id greater than afterId, or null when they could not be loaded
+     */
+    default List<Chore> load(Long afterId, int limit) {
+        try (Stream<Chore> chores = stream()) {
+            return chores.filter(chore -> Objects.nonNull(chore.getId()))
+                    .filter(chore -> Objects.isNull(afterId) || chore.getId() > afterId)
+                    .sorted(Comparator.comparing(Chore::getId))
+                    .limit(limit)
+                    .collect(Collectors.toList());
+        }
+    }
+
 }
@@ -2,9 +2,25 @@ package br.edu.unifalmg.repository.book;
 
 public class ChoreBook {
 
-    public static final String FIND_ALL_CHORES = "SELECT * FROM lifecycle.chores";
+    public static final String FIND_ALL_CHORES = "SELECT `id`, `description`, `isCompleted`, `deadline` FROM lifecycle.chores ORDER BY `id`";
+    public static final String FIND_CHORES_AFTER_ID = "SELECT `id`, `description`, `isCompleted`, `deadline` FROM lifecycle.chores "
+            + "WHERE `id` > ? ORDER BY `id` LIMIT ?";
+    public static final String FIND_CHORES_IN_ID_RANGE = "SELECT `id`, `description`, `isCompleted`, `deadline` FROM lifecycle.chores "
+            + "WHERE `id` BETWEEN ? AND ? ORDER BY `id`";
+    public static final String SELECT_CHORES = "SELECT `id`, `description`, `isCompleted`, `deadline` FROM lifecycle.chores";
+    public static final String COUNT_CHORES = "SELECT COUNT(*) FROM lifecycle.chores";
+    public static final String COUNT_BY_STATUS = "SELECT `isCompleted`, COUNT(*), SUM(CASE WHEN `deadline` < ? THEN 1 ELSE 0 END) "
+            + "FROM lifecycle.chores GROUP BY `isCompleted`";
+    public static final String COUNT_BY_DEADLINE = "SELECT `deadline`, COUNT(*) FROM lifecycle.chores "
+            + "WHERE `deadline` >= ? AND `deadline` < ? GROUP BY `deadline` ORDER BY `deadline`";
+    public static final String COUNT_BY_DEADLINE_AND_STATUS = "SELECT `deadline`, COUNT(*) FROM lifecycle.chores "
+            + "WHERE `deadline` >= ? AND `deadline` < ? AND `isCompleted` = ? GROUP BY `deadline` ORDER BY `deadline`";
+    public static final String FIND_ID_RANGE = "SELECT MIN(`id`), MAX(`id`) FROM lifecycle.chores";
     public static final String INSERT_CHORE = "INSERT INTO lifecycle.chores (`description`, `isCompleted`, `deadline`) VALUES (?,?,?)";
     public static final String UPDATE_CHORE =  "UPDATE lifecycle.chores SET" + "`description` = ?, `deadline` = ?, `isCompleted` = ? WHERE chores.id = ?";
+    public static final String UPSERT_CHORE = "INSERT INTO lifecycle.chores (`id`, `description`, `isCompleted`, `deadline`) VALUES (?,?,?,?) "
+            + "ON DUPLICATE KEY UPDATE `description` = VALUES(`description`), `isCompleted` = VALUES(`isCompleted`), `deadline` = VALUES(`deadline`)";
+    public static final String DELETE_CHORE = "DELETE FROM lifecycle.chores WHERE `id` = ?";
 
 
 
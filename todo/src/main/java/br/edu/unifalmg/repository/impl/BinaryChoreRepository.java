@@ -0,0 +1,376 @@
+package br.edu.unifalmg.repository.impl;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.repository.ChoreRepository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * Chore repository backed by a compact binary file.
+ * <p>
+ * The file is written column by column, big-endian:
+ * <pre>
+ * int     magic "CHOR"
+ * short   format version
+ * int     number of chores (n)
+ * int     number of distinct descriptions (s), then s times: int length + UTF-8 bytes
+ * n ints  description index in the string table, -1 for none
+ * n ints  deadline as epoch day, {@link Integer#MIN_VALUE} for none
+ * n longs id, 0 for none
+ * bitsets (ceil(n / 64) longs each): has id, is completed, has completion status
+ * int     CRC32 of everything before it
+ * </pre>
+ * Repeated descriptions are stored once, and the whole file is validated against the checksum
+ * before being read. Like {@link FileChoreRepository}, the file is rewritten as a whole on
+ * every write, through a temporary file that replaces it at the end.
+ */
+public class BinaryChoreRepository implements ChoreRepository {
+
+    private static final String DEFAULT_PATH = "todo/src/main/resources/chores.bin";
+
+    private static final int MAGIC = 0x43484F52;
+
+    private static final short VERSION = 1;
+
+    private static final int NO_DEADLINE = Integer.MIN_VALUE;
+
+    private final File file;
+
+    public BinaryChoreRepository () {
+        this(new File(DEFAULT_PATH));
+    }
+
+    /**
+     * @param file The binary file holding the chores
+     */
+    public BinaryChoreRepository (File file) {
+        this.file = file;
+    }
+
+    @Override
+    public List<Chore> load() {
+        try {
+            return read();
+        } catch (NoSuchFileException exception) {
+            System.out.println("Unable to open file.");
+        } catch (IOException exception) {
+            System.out.println("Unable to convert the content of the file into chores.");
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Add the chore at the end of the file. Chores without id get the next free id;
+     * chores whose id is already stored are replaced instead. The whole file is rewritten.
+     */
+    @Override
+    public boolean save(Chore chore) {
+        boolean assigned = false;
+        try {
+            List<Chore> chores = read();
+            int index = indexOf(chores, chore.getId());
+            if (index >= 0) {
+                chores.set(index, chore);
+            } else {
+                if (Objects.isNull(chore.getId())) {
+                    chore.setId(nextId(chores));
+                    assigned = true;
+                }
+                chores.add(chore);
+            }
+            write(chores);
+            return true;
+        } catch (IOException exception) {
+            if (assigned) {
+                chore.setId(null);
+            }
+            System.out.println("Unable to write the chores on the file.");
+        }
+        return false;
+    }
+
+    /**
+     * Replace the content of the file with the chores. Chores without id get the next free id.
+     */
+    @Override
+    public boolean saveAll(List<Chore> chores) {
+        try {
+            long id = nextId(chores);
+            for (Chore chore : chores) {
+                if (Objects.isNull(chore.getId())) {
+                    chore.setId(id++);
+                }
+            }
+            write(chores);
+            return true;
+        } catch (IOException exception) {
+            System.out.println("Unable to write the chores on the file.");
+        }
+        return false;
+    }
+
+    /**
+     * Replace the chore with the same id. The whole file is rewritten.
+     *
+     * @return TRUE, if the chore was found and written and FALSE otherwise
+     */
+    @Override
+    public boolean update(Chore chore) {
+        if (Objects.isNull(chore.getId())) {
+            return false;
+        }
+        try {
+            List<Chore> chores = read();
+            int index = indexOf(chores, chore.getId());
+            if (index >= 0) {
+                chores.set(index, chore);
+                write(chores);
+                return true;
+            }
+        } catch (IOException exception) {
+            System.out.println("Unable to write the chores on the file.");
+        }
+        return false;
+    }
+
+    /**
+     * Remove the chore with the same id. The whole file is rewritten.
+     *
+     * @return TRUE, if the chore was found and removed and FALSE otherwise
+     */
+    @Override
+    public boolean delete(Chore chore) {
+        try {
+            List<Chore> chores = read();
+            int index = indexOf(chores, chore.getId());
+            if (index >= 0) {
+                chores.remove(index);
+                write(chores);
+                return true;
+            }
+        } catch (IOException exception) {
+            System.out.println("Unable to write the chores on the file.");
+        }
+        return false;
+    }
+
+    private static int indexOf(List<Chore> chores, Long id) {
+        if (Objects.isNull(id)) {
+            return -1;
+        }
+        for (int i = 0; i < chores.size(); i++) {
+            if (id.equals(chores.get(i).getId())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * The id after the greatest id of the chores, starting at 1.
+     */
+    private static long nextId(List<Chore> chores) {
+        long id = 1;
+        for (Chore chore : chores) {
+            if (Objects.nonNull(chore.getId())) {
+                id = Math.max(id, chore.getId() + 1);
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Read every chore of the file. An empty list is returned for an empty file.
+     *
+     * @throws NoSuchFileException When the file does not exist
+     * @throws IOException When the file cannot be read or is not a valid chores file
+     */
+    List<Chore> read() throws IOException {
+        byte[] content = Files.readAllBytes(file.toPath());
+        if (content.length == 0) {
+            return new ArrayList<>();
+        }
+        if (content.length < Integer.BYTES) {
+            throw new IOException("The chores file is truncated.");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(content);
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, content.length - Integer.BYTES);
+        if ((int) crc.getValue() != buffer.getInt(content.length - Integer.BYTES)) {
+            throw new IOException("The checksum of the chores file does not match its content.");
+        }
+        try {
+            return decode(buffer);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException exception) {
+            throw new IOException("The chores file is malformed.", exception);
+        }
+    }
+
+    /**
+     * Write the chores to a temporary file, force it to disk and move it over the file.
+     */
+    void write(List<Chore> chores) throws IOException {
+        File temporary = new File(file.getPath() + ".tmp");
+        ByteBuffer content = encode(chores);
+        try (FileChannel channel = FileChannel.open(temporary.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static ByteBuffer encode(List<Chore> chores) {
+        int count = chores.size();
+        Map<String, Integer> indexes = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        int[] descriptions = new int[count];
+        int size = Integer.BYTES + Short.BYTES + Integer.BYTES + Integer.BYTES;
+        for (int i = 0; i < count; i++) {
+            String description = chores.get(i).getDescription();
+            if (Objects.isNull(description)) {
+                descriptions[i] = -1;
+                continue;
+            }
+            Integer index = indexes.get(description);
+            if (Objects.isNull(index)) {
+                index = strings.size();
+                indexes.put(description, index);
+                byte[] bytes = description.getBytes(StandardCharsets.UTF_8);
+                strings.add(bytes);
+                size += Integer.BYTES + bytes.length;
+            }
+            descriptions[i] = index;
+        }
+        int words = words(count);
+        size += count * (Integer.BYTES + Integer.BYTES + Long.BYTES) + 3 * words * Long.BYTES;
+
+        ByteBuffer buffer = ByteBuffer.allocate(size + Integer.BYTES);
+        buffer.putInt(MAGIC).putShort(VERSION).putInt(count).putInt(strings.size());
+        for (byte[] bytes : strings) {
+            buffer.putInt(bytes.length).put(bytes);
+        }
+        for (int description : descriptions) {
+            buffer.putInt(description);
+        }
+        long[] hasId = new long[words];
+        long[] completed = new long[words];
+        long[] hasStatus = new long[words];
+        for (int i = 0; i < count; i++) {
+            LocalDate deadline = chores.get(i).getDeadline();
+            buffer.putInt(Objects.isNull(deadline) ? NO_DEADLINE : Math.toIntExact(deadline.toEpochDay()));
+        }
+        for (int i = 0; i < count; i++) {
+            Chore chore = chores.get(i);
+            buffer.putLong(Objects.isNull(chore.getId()) ? 0L : chore.getId());
+            if (Objects.nonNull(chore.getId())) {
+                hasId[i >>> 6] |= 1L << i;
+            }
+            if (Objects.nonNull(chore.getIsCompleted())) {
+                hasStatus[i >>> 6] |= 1L << i;
+                if (chore.getIsCompleted()) {
+                    completed[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+        for (long[] bitset : new long[][] {hasId, completed, hasStatus}) {
+            for (long word : bitset) {
+                buffer.putLong(word);
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, size);
+        buffer.putInt((int) crc.getValue());
+        return buffer.flip();
+    }
+
+    private static List<Chore> decode(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("The file is not a chores file.");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported chores file version " + version + ".");
+        }
+        int count = buffer.getInt();
+        int stringCount = buffer.getInt();
+        if (count < 0 || stringCount < 0 || stringCount > buffer.remaining() / Integer.BYTES
+                || (long) count * (Integer.BYTES + Integer.BYTES + Long.BYTES) > buffer.remaining()) {
+            throw new IOException("The chores file is malformed.");
+        }
+        String[] strings = new String[stringCount];
+        for (int i = 0; i < strings.length; i++) {
+            int length = buffer.getInt();
+            strings[i] = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+        }
+        int[] descriptions = new int[count];
+        for (int i = 0; i < count; i++) {
+            descriptions[i] = buffer.getInt();
+        }
+        int[] deadlines = new int[count];
+        for (int i = 0; i < count; i++) {
+            deadlines[i] = buffer.getInt();
+        }
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = buffer.getLong();
+        }
+        int words = words(count);
+        long[] hasId = readBitset(buffer, words);
+        long[] completed = readBitset(buffer, words);
+        long[] hasStatus = readBitset(buffer, words);
+
+        // Deadlines repeat a lot, so each distinct day becomes a single LocalDate
+        Map<Integer, LocalDate> dates = new HashMap<>();
+        List<Chore> chores = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDate deadline = deadlines[i] == NO_DEADLINE
+                    ? null
+                    : dates.computeIfAbsent(deadlines[i], LocalDate::ofEpochDay);
+            Boolean isCompleted = isSet(hasStatus, i) ? Boolean.valueOf(isSet(completed, i)) : null;
+            chores.add(new Chore(
+                    isSet(hasId, i) ? Long.valueOf(ids[i]) : null,
+                    descriptions[i] < 0 ? null : strings[descriptions[i]],
+                    isCompleted,
+                    deadline
+            ));
+        }
+        return chores;
+    }
+
+    private static long[] readBitset(ByteBuffer buffer, int words) {
+        long[] bitset = new long[words];
+        for (int i = 0; i < words; i++) {
+            bitset[i] = buffer.getLong();
+        }
+        return bitset;
+    }
+
+    private static boolean isSet(long[] bitset, int index) {
+        return (bitset[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static int words(int count) {
+        return (count + 63) >>> 6;
+    }
+
+}
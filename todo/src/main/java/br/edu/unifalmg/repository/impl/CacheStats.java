@@ -0,0 +1,37 @@
+package br.edu.unifalmg.repository.impl;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Snapshot of the counters of a {@link CachingChoreRepository}.
+ */
+@Getter
+@AllArgsConstructor
+public class CacheStats {
+
+    /**
+     * Cached results currently held.
+     */
+    private int size;
+
+    private long hits;
+
+    private long misses;
+
+    /**
+     * Results dropped because the cache was full or they outlived the time to live.
+     */
+    private long evictions;
+
+    /**
+     * Results dropped because a write may have changed them.
+     */
+    private long invalidations;
+
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+}
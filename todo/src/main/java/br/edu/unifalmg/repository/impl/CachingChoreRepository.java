@@ -0,0 +1,377 @@
+package br.edu.unifalmg.repository.impl;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.repository.ChoreChangeSet;
+import br.edu.unifalmg.repository.ChoreRepository;
+import br.edu.unifalmg.store.ChoreQuery;
+
+import java.time.Duration;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Repository that keeps the results of the loads of another repository in memory.
+ * <p>
+ * The full load and each page are cached separately, up to a maximum number of results
+ * (least recently used evicted first) and for at most the time to live. Writes go to the
+ * repository first (write-through); when they succeed the cached full load is patched with the
+ * chore, and the results that cannot be patched are dropped.
+ * <p>
+ * The cache holds copies of the chores. A hit hands out a read-only view of the cached list,
+ * which copies each chore the first time it is read, so callers may change the chores they load
+ * without changing the cache and a hit does not copy the chores nobody reads. A cached list is
+ * only copied when it changes after being handed out. The chores of the full load are found by
+ * id through an index, built on the first write.
+ */
+public class CachingChoreRepository implements ChoreRepository {
+
+    public static final int DEFAULT_MAX_ENTRIES = 64;
+
+    public static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(5);
+
+    private static final String ALL = "all";
+
+    private static final class Entry {
+
+        private List<Chore> chores;
+
+        /**
+         * TRUE once the list was handed out in a view; it is copied before the next change.
+         */
+        private boolean shared;
+
+        /**
+         * Position of the chores by id, built on the first replace.
+         */
+        private Map<Long, Integer> positions;
+
+        private final long expiresAtNanos;
+
+        private Entry(List<Chore> chores, long expiresAtNanos) {
+            this.chores = chores;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private List<Chore> view() {
+            shared = true;
+            return new CachedChores(chores);
+        }
+
+        /**
+         * Replace the chore with the same id by a copy of the given chore.
+         *
+         * @return TRUE, if a chore with the same id was found and FALSE otherwise
+         */
+        private boolean replace(Chore chore) {
+            if (Objects.isNull(chore.getId())) {
+                return false;
+            }
+            Integer position = positions().get(chore.getId());
+            if (Objects.isNull(position)) {
+                return false;
+            }
+            writable().set(position, new Chore(chore));
+            return true;
+        }
+
+        private void add(Chore chore) {
+            List<Chore> writable = writable();
+            if (Objects.nonNull(positions) && Objects.nonNull(chore.getId())) {
+                positions.putIfAbsent(chore.getId(), writable.size());
+            }
+            writable.add(new Chore(chore));
+        }
+
+        private List<Chore> writable() {
+            if (shared) {
+                chores = new ArrayList<>(chores);
+                shared = false;
+            }
+            return chores;
+        }
+
+        private Map<Long, Integer> positions() {
+            if (Objects.isNull(positions)) {
+                positions = new HashMap<>();
+                for (int i = 0; i < chores.size(); i++) {
+                    Long id = chores.get(i).getId();
+                    if (Objects.nonNull(id)) {
+                        positions.putIfAbsent(id, i);
+                    }
+                }
+            }
+            return positions;
+        }
+
+    }
+
+    /**
+     * Read-only view of a cached list, copying each chore the first time it is read.
+     */
+    private static final class CachedChores extends AbstractList<Chore> implements RandomAccess {
+
+        private final List<Chore> cached;
+
+        private Chore[] copies;
+
+        private CachedChores(List<Chore> cached) {
+            this.cached = cached;
+        }
+
+        @Override
+        public Chore get(int index) {
+            Objects.checkIndex(index, cached.size());
+            if (Objects.isNull(copies)) {
+                copies = new Chore[cached.size()];
+            }
+            Chore copy = copies[index];
+            if (Objects.isNull(copy)) {
+                copy = new Chore(cached.get(index));
+                copies[index] = copy;
+            }
+            return copy;
+        }
+
+        @Override
+        public int size() {
+            return cached.size();
+        }
+
+    }
+
+    private final ChoreRepository repository;
+
+    private final long timeToLiveNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<String, Entry> entries;
+
+    /**
+     * Incremented by every write, so a load that raced with a write is not cached.
+     */
+    private long generation;
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    private long invalidations;
+
+    public CachingChoreRepository(ChoreRepository repository) {
+        this(repository, DEFAULT_MAX_ENTRIES, DEFAULT_TIME_TO_LIVE);
+    }
+
+    /**
+     * @param repository The repository the chores are read from and written to
+     * @param maxEntries Maximum number of cached results (the full load and each page count as one)
+     * @param timeToLive Time after which a cached result is loaded again
+     */
+    public CachingChoreRepository(ChoreRepository repository, int maxEntries, Duration timeToLive) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("The cache size must be positive");
+        }
+        this.repository = Objects.requireNonNull(repository, "The repository cannot be null");
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= maxEntries) {
+                    return false;
+                }
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public List<Chore> load() {
+        return cached(ALL, repository::load);
+    }
+
+    /**
+     * Load the chores with the workers on a miss. The result is cached as the full load.
+     */
+    @Override
+    public List<Chore> load(ForkJoinPool workers) {
+        return cached(ALL, () -> repository.load(workers));
+    }
+
+    @Override
+    public List<Chore> load(Long afterId, int limit) {
+        return cached("page:" + afterId + ":" + limit, () -> repository.load(afterId, limit));
+    }
+
+    /**
+     * Query the repository, so the repositories that select the chores in their storage still do.
+     * The results are not cached: the repository always answers the query.
+     */
+    @Override
+    public List<Chore> find(ChoreQuery query) {
+        return repository.find(query);
+    }
+
+    @Override
+    public long count(ChoreQuery query) {
+        return repository.count(query);
+    }
+
+    /**
+     * Save the chore in the repository. A chore whose id is already cached replaces the cached
+     * one, like the repositories that update a chore saved again; any other is added.
+     */
+    @Override
+    public boolean save(Chore chore) {
+        boolean saved = repository.save(chore);
+        lock.lock();
+        try {
+            generation++;
+            if (saved) {
+                invalidatePages();
+                Entry all = entries.get(ALL);
+                if (Objects.nonNull(all) && !all.replace(chore)) {
+                    all.add(chore);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return saved;
+    }
+
+    /**
+     * Save the chores in the repository and drop every cached result, since repositories
+     * differ on whether saveAll replaces or merges the stored chores.
+     */
+    @Override
+    public boolean saveAll(List<Chore> chores) {
+        boolean saved = repository.saveAll(chores);
+        invalidate();
+        return saved;
+    }
+
+    @Override
+    public boolean delete(Chore chore) {
+        boolean deleted = repository.delete(chore);
+        invalidate();
+        return deleted;
+    }
+
+    /**
+     * Write the changes in the repository and drop every cached result.
+     */
+    @Override
+    public boolean apply(ChoreChangeSet changes) {
+        boolean applied = repository.apply(changes);
+        invalidate();
+        return applied;
+    }
+
+    @Override
+    public boolean update(Chore chore) {
+        boolean updated = repository.update(chore);
+        lock.lock();
+        try {
+            generation++;
+            if (updated) {
+                invalidatePages();
+                Entry all = entries.get(ALL);
+                if (Objects.nonNull(all) && !all.replace(chore)) {
+                    entries.remove(ALL);
+                    invalidations++;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return updated;
+    }
+
+    /**
+     * Drop every cached result.
+     */
+    public void invalidate() {
+        lock.lock();
+        try {
+            generation++;
+            invalidations += entries.size();
+            entries.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CacheStats stats() {
+        lock.lock();
+        try {
+            return new CacheStats(entries.size(), hits, misses, evictions, invalidations);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<Chore> cached(String key, Supplier<List<Chore>> loader) {
+        long loadedGeneration;
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (Objects.nonNull(entry) && entry.expiresAtNanos - System.nanoTime() > 0) {
+                hits++;
+                return entry.view();
+            }
+            if (Objects.nonNull(entry)) {
+                entries.remove(key);
+                evictions++;
+            }
+            misses++;
+            loadedGeneration = generation;
+        } finally {
+            lock.unlock();
+        }
+
+        List<Chore> chores = loader.get();
+        if (Objects.isNull(chores)) {
+            return null;
+        }
+        List<Chore> cachedChores = copyAll(chores);
+        lock.lock();
+        try {
+            if (loadedGeneration == generation) {
+                entries.put(key, new Entry(cachedChores, System.nanoTime() + timeToLiveNanos));
+            }
+        } finally {
+            lock.unlock();
+        }
+        return chores;
+    }
+
+    /**
+     * Drop the cached pages. Must hold the lock.
+     */
+    private void invalidatePages() {
+        int before = entries.size();
+        entries.keySet().removeIf(key -> !ALL.equals(key));
+        invalidations += before - entries.size();
+    }
+
+    private static List<Chore> copyAll(List<Chore> chores) {
+        List<Chore> copies = new ArrayList<>(chores.size());
+        for (Chore chore : chores) {
+            copies.add(new Chore(chore));
+        }
+        return copies;
+    }
+
+}
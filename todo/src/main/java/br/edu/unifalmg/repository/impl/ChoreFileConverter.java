@@ -0,0 +1,61 @@
+package br.edu.unifalmg.repository.impl;
+
+import br.edu.unifalmg.domain.Chore;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Converts the chores files between the JSON format of {@link FileChoreRepository}
+ * and the binary format of {@link BinaryChoreRepository}.
+ */
+public final class ChoreFileConverter {
+
+    private ChoreFileConverter() {
+    }
+
+    /**
+     * @return TRUE, if every chore of the JSON file was written on the binary file and FALSE otherwise
+     */
+    public static boolean jsonToBinary(File jsonFile, File binaryFile) {
+        if (!jsonFile.isFile()) {
+            System.out.println("Unable to open file.");
+            return false;
+        }
+        List<Chore> chores;
+        try (Stream<Chore> stream = FileChoreRepository.streaming(jsonFile).stream()) {
+            chores = stream.collect(Collectors.toCollection(ArrayList::new));
+        } catch (UncheckedIOException exception) {
+            System.out.println("Unable to convert the content of the file into chores.");
+            return false;
+        }
+        // Written as they are: saveAll would give ids to the chores without one
+        try {
+            new BinaryChoreRepository(binaryFile).write(chores);
+            return true;
+        } catch (IOException exception) {
+            System.out.println("Unable to write the chores on the file.");
+        }
+        return false;
+    }
+
+    /**
+     * @return TRUE, if every chore of the binary file was written on the JSON file and FALSE otherwise
+     */
+    public static boolean binaryToJson(File binaryFile, File jsonFile) {
+        List<Chore> chores;
+        try {
+            chores = new BinaryChoreRepository(binaryFile).read();
+        } catch (IOException exception) {
+            System.out.println("Unable to convert the content of the file into chores.");
+            return false;
+        }
+        return FileChoreRepository.streaming(jsonFile).saveAll(chores.stream());
+    }
+
+}
@@ -1,30 +1,96 @@
 package br.edu.unifalmg.repository.impl;
 
 import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.repository.ChoreChangeSet;
 import br.edu.unifalmg.repository.ChoreRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class FileChoreRepository implements ChoreRepository  {
 
+    private static final String DEFAULT_PATH = "todo/src/main/resources/chores.json";
+
+    /**
+     * Number of chores written between two flushes in streaming mode.
+     */
+    private static final int CHUNK_SIZE = 1_000;
+
     private ObjectMapper objectMapper;
+
+    private File file = new File(DEFAULT_PATH);
+
+    private boolean streaming;
+
     public FileChoreRepository () {
 
         objectMapper = new ObjectMapper().findAndRegisterModules();
     }
+
+    /**
+     * Create a repository reading and writing the whole file at once, like the default
+     * repository, but on the given file.
+     *
+     * @param file The JSON file holding the chores
+     */
+    public static FileChoreRepository of (File file) {
+        FileChoreRepository repository = new FileChoreRepository();
+        repository.file = file;
+        return repository;
+    }
+
+    /**
+     * Create a repository in streaming mode: chores are read one by one with a
+     * {@link JsonParser} and written in chunks with a {@link JsonGenerator}, so the
+     * memory used does not depend on the size of the file.
+     *
+     * @param file The JSON file holding the chores
+     */
+    public static FileChoreRepository streaming (File file) {
+        FileChoreRepository repository = new FileChoreRepository();
+        repository.file = file;
+        repository.streaming = true;
+        return repository;
+    }
+
     @Override
     public List<Chore> load() {
+       if (streaming) {
+           try (Stream<Chore> chores = stream()) {
+               return chores.collect(Collectors.toCollection(ArrayList::new));
+           } catch (UncheckedIOException exception) {
+               System.out.println("Unable to convert the content of the file into chores.");
+           }
+           return new ArrayList<>();
+       }
 
        try {
            return new ArrayList<>(
                    Arrays.asList(
-                           objectMapper.readValue(new File("todo/src/main/resources/chores.json"), Chore[].class)
+                           objectMapper.readValue(file, Chore[].class)
                    )
            );
 
@@ -37,6 +103,78 @@ public class FileChoreRepository implements ChoreRepository  {
        return new ArrayList<>();
     }
 
+    /**
+     * Read the chores with several threads: the file is split into chunks of whole chores on
+     * the calling thread, and the chunks are parsed on the pool. At most two chunks per thread
+     * of the pool wait to be parsed, so the memory used does not depend on the size of the file
+     * (apart from the chores themselves). The chores keep the order of the file.
+     */
+    @Override
+    public List<Chore> load(ForkJoinPool workers) {
+        ObjectReader reader = objectMapper.readerFor(Chore[].class);
+        Deque<ForkJoinTask<Chore[]>> parsing = new ArrayDeque<>();
+        List<Chore> chores = new ArrayList<>();
+        try (InputStream input = Files.newInputStream(file.toPath())) {
+            JsonArraySplitter splitter = new JsonArraySplitter(input, CHUNK_SIZE);
+            for (byte[] chunk = splitter.next(); Objects.nonNull(chunk); chunk = splitter.next()) {
+                byte[] content = chunk;
+                parsing.add(workers.submit(() -> (Chore[]) reader.readValue(content)));
+                if (parsing.size() > 2 * workers.getParallelism()) {
+                    Collections.addAll(chores, parsing.poll().get());
+                }
+            }
+            while (!parsing.isEmpty()) {
+                Collections.addAll(chores, parsing.poll().get());
+            }
+            return chores;
+        } catch (NoSuchFileException exception) {
+            System.out.println("Unable to open file.");
+        } catch (IOException | ExecutionException exception) {
+            System.out.println("Unable to convert the content of the file into chores.");
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } finally {
+            parsing.forEach(task -> task.cancel(true));
+        }
+        return new ArrayList<>();
+    }
+
+    /**
+     * Read the chores lazily, one at a time, from the file.
+     * The returned stream holds the file open and must be closed.
+     *
+     * @return Stream<Chore> The chores of the file. Empty when the file cannot be opened or is empty.
+     * @throws UncheckedIOException When the content of the file cannot be converted into chores
+     */
+    @Override
+    public Stream<Chore> stream() {
+        JsonParser parser;
+        try {
+            parser = objectMapper.getFactory().createParser(file);
+            JsonToken first = parser.nextToken();
+            if (first != JsonToken.START_ARRAY) {
+                parser.close();
+                if (Objects.isNull(first)) {
+                    return Stream.empty();
+                }
+                throw new UncheckedIOException(new IOException("The file does not contain a list of chores."));
+            }
+        } catch (IOException exception) {
+            System.out.println("Unable to open file.");
+            return Stream.empty();
+        }
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(new ChoreCursor(parser), Spliterator.ORDERED | Spliterator.NONNULL),
+                false
+        ).onClose(() -> {
+            try {
+                parser.close();
+            } catch (IOException exception) {
+                System.out.println("Unable to close the file.");
+            }
+        });
+    }
+
     @Override
     public boolean save(Chore chore) {
         throw new RuntimeException("Operation not supported yet.");
@@ -48,10 +186,27 @@ public class FileChoreRepository implements ChoreRepository  {
 
     }
 
+    /**
+     * Replace the content of the file with the chores. Chores without id get the id after the
+     * greatest one, so {@link #apply(ChoreChangeSet)} can match them afterwards.
+     */
     @Override
     public boolean saveAll(List<Chore> chores) {
+        long lastId = 0L;
+        for (Chore chore : chores) {
+            if (Objects.nonNull(chore.getId())) {
+                lastId = Math.max(lastId, chore.getId());
+            }
+        }
+        for (Chore chore : chores) {
+            if (Objects.isNull(chore.getId())) {
+                chore.setId(++lastId);
+            }
+        }
+        if (streaming) {
+            return saveAll(chores.stream());
+        }
         try {
-            File file = new File("todo/src/main/resources/chores.json");
             objectMapper.writeValue(file, chores);
             return true;
 
@@ -60,4 +215,148 @@ public class FileChoreRepository implements ChoreRepository  {
         }
         return false;
     }
+
+    /**
+     * Write the chores on the file in chunks, without holding them all in memory.
+     * The chores are written to a temporary file that replaces the old one at the end.
+     * They are written as they are: chores without id stay without id.
+     *
+     * @return TRUE, if the chores were written and FALSE when the write fails
+     */
+    public boolean saveAll(Stream<Chore> chores) {
+        File temporary = new File(file.getPath() + ".tmp");
+        ObjectWriter writer = objectMapper.writerFor(Chore.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(temporary, JsonEncoding.UTF8)) {
+            generator.writeStartArray();
+            int written = 0;
+            for (Iterator<Chore> iterator = chores.iterator(); iterator.hasNext(); ) {
+                writer.writeValue(generator, iterator.next());
+                if (++written % CHUNK_SIZE == 0) {
+                    generator.flush();
+                }
+            }
+            generator.writeEndArray();
+        } catch (IOException exception) {
+            System.out.println("Unable to write the chores on the file.");
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(temporary.toPath(), StandardOpenOption.WRITE)) {
+            channel.force(true);
+        } catch (IOException exception) {
+            System.out.println("Unable to write the chores on the file.");
+            return false;
+        }
+        try {
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException exception) {
+            System.out.println("Unable to write the chores on the file.");
+        }
+        return false;
+    }
+
+    /**
+     * Rewrite the file once with all the changes. Chores are matched by id, so the updated and
+     * deleted chores must have one; added chores without id receive the next free id. The file
+     * is read and written as a stream, so only the changes are held in memory.
+     *
+     * @return TRUE, if the file was rewritten and FALSE when a changed chore has no id or the write fails
+     */
+    @Override
+    public boolean apply(ChoreChangeSet changes) {
+        if (changes.isEmpty()) {
+            return true;
+        }
+        Map<Long, Chore> updated = new HashMap<>();
+        Set<Long> deleted = new HashSet<>();
+        for (Chore chore : changes.getUpdated()) {
+            if (Objects.isNull(chore.getId())) {
+                return false;
+            }
+            updated.put(chore.getId(), chore);
+        }
+        for (Chore chore : changes.getDeleted()) {
+            if (Objects.isNull(chore.getId())) {
+                return false;
+            }
+            deleted.add(chore.getId());
+        }
+        long[] lastId = {0L};
+        for (Chore chore : changes.getAdded()) {
+            if (Objects.nonNull(chore.getId())) {
+                lastId[0] = Math.max(lastId[0], chore.getId());
+            }
+        }
+        try (Stream<Chore> stored = stream()) {
+            Stream<Chore> kept = stored
+                    .peek(chore -> {
+                        if (Objects.nonNull(chore.getId())) {
+                            lastId[0] = Math.max(lastId[0], chore.getId());
+                        }
+                    })
+                    .filter(chore -> Objects.isNull(chore.getId()) || !deleted.contains(chore.getId()))
+                    .map(chore -> Objects.isNull(chore.getId()) ? chore : updated.getOrDefault(chore.getId(), chore));
+            // The added chores are only reached once every stored id was seen
+            Stream<Chore> added = changes.getAdded().stream()
+                    .peek(chore -> {
+                        if (Objects.isNull(chore.getId())) {
+                            chore.setId(++lastId[0]);
+                        }
+                    });
+            return saveAll(Stream.concat(kept, added));
+        } catch (UncheckedIOException exception) {
+            System.out.println("Unable to convert the content of the file into chores.");
+        }
+        return false;
+    }
+
+    /**
+     * Remove the chore with the same id from the file. The whole file is rewritten.
+     */
+    @Override
+    public boolean delete(Chore chore) {
+        return apply(new ChoreChangeSet(List.of(), List.of(), List.of(chore)));
+    }
+
+    /**
+     * Iterates over the objects of the JSON array the parser is positioned in.
+     */
+    private class ChoreCursor implements Iterator<Chore> {
+
+        private final JsonParser parser;
+
+        private Chore next;
+
+        private boolean finished;
+
+        private ChoreCursor(JsonParser parser) {
+            this.parser = parser;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (Objects.isNull(next) && !finished) {
+                try {
+                    if (parser.nextToken() == JsonToken.START_OBJECT) {
+                        next = objectMapper.readValue(parser, Chore.class);
+                    } else {
+                        finished = true;
+                    }
+                } catch (IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            }
+            return Objects.nonNull(next);
+        }
+
+        @Override
+        public Chore next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Chore chore = next;
+            next = null;
+            return chore;
+        }
+    }
 }
@@ -0,0 +1,159 @@
+package br.edu.unifalmg.repository.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Splits a JSON array of objects into chunks of whole objects, without parsing them.
+ * <p>
+ * The bytes are only scanned for braces, brackets and strings, which is much cheaper than
+ * building the chores, so a single thread can feed several parsers. Each chunk is a JSON
+ * array on its own, holding the next objects of the input in order.
+ */
+final class JsonArraySplitter {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final InputStream input;
+
+    private final int objectsPerChunk;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    private int position;
+
+    private int limit;
+
+    private int depth;
+
+    private boolean inString;
+
+    private boolean escaped;
+
+    private boolean started;
+
+    private boolean finished;
+
+    /**
+     * @param input The JSON array, read from its current position
+     * @param objectsPerChunk Maximum number of objects in each chunk
+     */
+    JsonArraySplitter(InputStream input, int objectsPerChunk) {
+        this.input = input;
+        this.objectsPerChunk = objectsPerChunk;
+    }
+
+    /**
+     * Read the next chunk. An empty input is taken as an empty array.
+     *
+     * @return The next objects as a JSON array, or NULL once the array is over
+     * @throws IOException When the input cannot be read or is not an array of objects
+     */
+    byte[] next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        ByteArrayOutputStream chunk = new ByteArrayOutputStream(BUFFER_SIZE);
+        chunk.write('[');
+        int objects = 0;
+        // Start of the current object in the buffer, or -1 between objects
+        int objectStart = -1;
+        while (true) {
+            if (position == limit) {
+                if (objectStart >= 0) {
+                    chunk.write(buffer, objectStart, limit - objectStart);
+                    objectStart = 0;
+                }
+                limit = input.read(buffer);
+                position = 0;
+                if (limit < 0) {
+                    limit = 0;
+                    if (started) {
+                        throw new IOException("The chores file is truncated.");
+                    }
+                    finished = true;
+                    return null;
+                }
+            }
+            byte current = buffer[position++];
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (current == '\\') {
+                    escaped = true;
+                } else if (current == '"') {
+                    inString = false;
+                }
+                continue;
+            }
+            switch (current) {
+                case '{':
+                case '[':
+                    if (!started) {
+                        if (current != '[') {
+                            throw new IOException("The file does not contain a list of chores.");
+                        }
+                        started = true;
+                        depth = 1;
+                        break;
+                    }
+                    if (depth == 1) {
+                        if (current != '{') {
+                            throw new IOException("The file does not contain a list of chores.");
+                        }
+                        if (objects > 0) {
+                            chunk.write(',');
+                        }
+                        objectStart = position - 1;
+                    }
+                    depth++;
+                    break;
+                case '}':
+                case ']':
+                    if (!started) {
+                        throw new IOException("The file does not contain a list of chores.");
+                    }
+                    depth--;
+                    if (depth == 1) {
+                        chunk.write(buffer, objectStart, position - objectStart);
+                        objectStart = -1;
+                        if (++objects == objectsPerChunk) {
+                            chunk.write(']');
+                            return chunk.toByteArray();
+                        }
+                    } else if (depth == 0) {
+                        finished = true;
+                        if (objects == 0) {
+                            return null;
+                        }
+                        chunk.write(']');
+                        return chunk.toByteArray();
+                    }
+                    break;
+                case '"':
+                    if (depth < 2) {
+                        throw new IOException("The file does not contain a list of chores.");
+                    }
+                    inString = true;
+                    break;
+                case ' ':
+                case '\t':
+                case '\r':
+                case '\n':
+                    break;
+                case ',':
+                    if (depth < 1) {
+                        throw new IOException("The file does not contain a list of chores.");
+                    }
+                    break;
+                default:
+                    // Numbers, booleans and nulls are only expected inside the chores
+                    if (depth < 2) {
+                        throw new IOException("The file does not contain a list of chores.");
+                    }
+            }
+        }
+    }
+
+}
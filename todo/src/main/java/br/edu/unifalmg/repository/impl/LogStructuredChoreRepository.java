@@ -0,0 +1,543 @@
+package br.edu.unifalmg.repository.impl;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.repository.ChoreRepository;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Log-structured file repository.
+ * <p>
+ * The chores live in a JSON snapshot (same format as {@link FileChoreRepository}) plus an
+ * append-only write-ahead log. Each save/update/delete appends one compact binary record to
+ * the log, so persisting a mutation costs O(1) instead of rewriting the whole file.
+ * Concurrent writers share the fsync of the log (group commit): one of them forces the file
+ * while the others wait for it, and every record written before the force is covered by it.
+ * <p>
+ * The chores returned by {@link #load()} only change once their record is durable.
+ * <p>
+ * When the log reaches the compaction threshold, the current state is written as a new
+ * snapshot and the log is truncated. On startup the snapshot is read and the log replayed
+ * on top of it. The first record of the log holds the checksum and the length of the snapshot
+ * it was written on top of, so a log left behind by a crash between publishing a new snapshot
+ * and truncating the log no longer matches the snapshot, and is discarded instead of replayed.
+ */
+public class LogStructuredChoreRepository implements ChoreRepository, AutoCloseable {
+
+    private static final String DEFAULT_SNAPSHOT_PATH = "todo/src/main/resources/chores.json";
+
+    private static final String DEFAULT_LOG_PATH = "todo/src/main/resources/chores.log";
+
+    private static final int DEFAULT_COMPACTION_THRESHOLD = 10_000;
+
+    private static final byte UPSERT = 1;
+
+    private static final byte DELETE = 2;
+
+    /**
+     * First record of the log: the fingerprint of the snapshot the log applies to.
+     */
+    private static final byte BASE = 3;
+
+    private static final int NO_DEADLINE = Integer.MIN_VALUE;
+
+    private final FileChoreRepository snapshot;
+
+    private final File snapshotFile;
+
+    private final File logFile;
+
+    private final int compactionThreshold;
+
+    /**
+     * Durable state, as copies of the chores, in insertion order.
+     */
+    private final Map<Long, Chore> chores = new LinkedHashMap<>();
+
+    /**
+     * Ids of the chores once every record written to the log is applied, durable or not.
+     */
+    private final Set<Long> written = new HashSet<>();
+
+    /**
+     * Records written to the log but not known to be durable yet, in log order.
+     */
+    private final Deque<Pending> pending = new ArrayDeque<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition synced = lock.newCondition();
+
+    private FileChannel channel;
+
+    private DataOutputStream log;
+
+    private long nextId = 1;
+
+    private long appended;
+
+    private long durable;
+
+    private boolean syncing;
+
+    private int records;
+
+    /**
+     * Whether the log has no record, not even the BASE one.
+     */
+    private boolean logEmpty;
+
+    private long snapshotChecksum;
+
+    private long snapshotLength;
+
+    public LogStructuredChoreRepository () {
+        this(new File(DEFAULT_SNAPSHOT_PATH), new File(DEFAULT_LOG_PATH), DEFAULT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * @param snapshotFile The JSON snapshot
+     * @param logFile The write-ahead log
+     * @param compactionThreshold Number of log records that triggers a compaction
+     * @throws UncheckedIOException When the log cannot be opened
+     */
+    public LogStructuredChoreRepository (File snapshotFile, File logFile, int compactionThreshold) {
+        if (compactionThreshold <= 0) {
+            throw new IllegalArgumentException("The compaction threshold must be positive");
+        }
+        this.snapshot = FileChoreRepository.streaming(snapshotFile);
+        this.snapshotFile = snapshotFile;
+        this.logFile = logFile;
+        this.compactionThreshold = compactionThreshold;
+        try {
+            recover();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to open the chores log.", exception);
+        }
+    }
+
+    @Override
+    public List<Chore> load() {
+        lock.lock();
+        try {
+            List<Chore> loaded = new ArrayList<>(chores.size());
+            for (Chore chore : chores.values()) {
+                loaded.add(new Chore(chore));
+            }
+            return loaded;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Append a new chore to the log. Chores without id get the next free id.
+     *
+     * @return TRUE, if the record is durable and FALSE when the write fails
+     */
+    @Override
+    public boolean save(Chore chore) {
+        if (Objects.isNull(chore)) {
+            return Boolean.FALSE;
+        }
+        return append(UPSERT, chore, Boolean.FALSE);
+    }
+
+    /**
+     * Append the new state of a chore to the log.
+     *
+     * @return TRUE, if the record is durable and FALSE when the chore is unknown or the write fails
+     */
+    @Override
+    public boolean update(Chore chore) {
+        if (Objects.isNull(chore) || Objects.isNull(chore.getId())) {
+            return Boolean.FALSE;
+        }
+        return append(UPSERT, chore, Boolean.TRUE);
+    }
+
+    /**
+     * Append the removal of a chore to the log.
+     *
+     * @return TRUE, if the record is durable and FALSE when the chore is unknown or the write fails
+     */
+    @Override
+    public boolean delete(Chore chore) {
+        if (Objects.isNull(chore) || Objects.isNull(chore.getId())) {
+            return Boolean.FALSE;
+        }
+        return append(DELETE, chore, Boolean.TRUE);
+    }
+
+    /**
+     * Replace all the chores: writes a new snapshot and truncates the log.
+     * The chores in memory are only replaced once the snapshot is written.
+     */
+    @Override
+    public boolean saveAll(List<Chore> replacement) {
+        lock.lock();
+        try {
+            Map<Long, Chore> state = new LinkedHashMap<>();
+            for (Chore chore : replacement) {
+                assignId(chore);
+                state.put(chore.getId(), new Chore(chore));
+            }
+            forceLog();
+            if (!publish(state)) {
+                return Boolean.FALSE;
+            }
+            chores.clear();
+            chores.putAll(state);
+            written.clear();
+            written.addAll(state.keySet());
+            return Boolean.TRUE;
+        } catch (IOException exception) {
+            System.out.println("Unable to replace the chores.");
+        } finally {
+            lock.unlock();
+        }
+        return Boolean.FALSE;
+    }
+
+    /**
+     * Fold the log into a new snapshot.
+     *
+     * @return TRUE, if the snapshot was written and FALSE when the write fails
+     */
+    public boolean compact() {
+        lock.lock();
+        try {
+            forceLog();
+            return publish(chores);
+        } catch (IOException exception) {
+            System.out.println("Unable to compact the chores log.");
+        } finally {
+            lock.unlock();
+        }
+        return Boolean.FALSE;
+    }
+
+    /**
+     * Make every record written so far durable and apply them to the chores.
+     */
+    private void forceLog() throws IOException {
+        log.flush();
+        channel.force(false);
+        durable = appended;
+        applyDurable();
+    }
+
+    /**
+     * Write the state as the new snapshot, then empty the log. Until the log is truncated, its
+     * BASE record still points to the previous snapshot, so a crash in between discards the log.
+     */
+    private boolean publish(Map<Long, Chore> state) throws IOException {
+        if (!snapshot.saveAll(state.values().stream())) {
+            return Boolean.FALSE;
+        }
+        fingerprintSnapshot();
+        channel.truncate(0);
+        channel.force(true);
+        records = 0;
+        logEmpty = true;
+        return Boolean.TRUE;
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            log.flush();
+            channel.force(false);
+            channel.close();
+        } catch (IOException exception) {
+            System.out.println("Unable to close the chores log.");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean append(byte operation, Chore chore, boolean mustExist) {
+        long sequence;
+        lock.lock();
+        try {
+            if (mustExist && !written.contains(chore.getId())) {
+                return Boolean.FALSE;
+            }
+            if (operation == UPSERT) {
+                assignId(chore);
+            }
+            if (logEmpty) {
+                writeBase();
+                logEmpty = false;
+            }
+            writeRecord(operation, chore);
+            if (operation == UPSERT) {
+                written.add(chore.getId());
+            } else {
+                written.remove(chore.getId());
+            }
+            sequence = ++appended;
+            pending.addLast(new Pending(sequence, chore.getId(), operation == UPSERT ? new Chore(chore) : null));
+            records++;
+        } catch (IOException exception) {
+            System.out.println("Unable to append the chore to the log.");
+            return Boolean.FALSE;
+        } finally {
+            lock.unlock();
+        }
+        if (!sync(sequence)) {
+            return Boolean.FALSE;
+        }
+        compactIfNeeded();
+        return Boolean.TRUE;
+    }
+
+    private void compactIfNeeded() {
+        lock.lock();
+        try {
+            if (records >= compactionThreshold) {
+                compact();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait until the record with the given sequence is on disk. The first writer to get
+     * here forces the log for everybody; the others wait for it.
+     */
+    private boolean sync(long sequence) {
+        lock.lock();
+        try {
+            while (durable < sequence) {
+                if (syncing) {
+                    synced.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                long target = appended;
+                try {
+                    log.flush();
+                    lock.unlock();
+                    try {
+                        channel.force(false);
+                    } finally {
+                        lock.lock();
+                    }
+                    durable = Math.max(durable, target);
+                    applyDurable();
+                } finally {
+                    syncing = false;
+                    synced.signalAll();
+                }
+            }
+            return Boolean.TRUE;
+        } catch (IOException exception) {
+            System.out.println("Unable to sync the chores log.");
+        } finally {
+            lock.unlock();
+        }
+        return Boolean.FALSE;
+    }
+
+    /**
+     * Apply to the chores the records that became durable, in log order.
+     */
+    private void applyDurable() {
+        while (!pending.isEmpty() && pending.peekFirst().sequence <= durable) {
+            Pending record = pending.pollFirst();
+            if (Objects.isNull(record.chore)) {
+                chores.remove(record.id);
+            } else {
+                chores.put(record.id, record.chore);
+            }
+        }
+    }
+
+    private void assignId(Chore chore) {
+        if (Objects.isNull(chore.getId())) {
+            chore.setId(nextId++);
+        } else if (chore.getId() >= nextId) {
+            nextId = chore.getId() + 1;
+        }
+    }
+
+    private void writeBase() throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(17);
+        DataOutputStream record = new DataOutputStream(buffer);
+        record.writeByte(BASE);
+        record.writeLong(snapshotChecksum);
+        record.writeLong(snapshotLength);
+        writeFramed(buffer);
+    }
+
+    private void writeRecord(byte operation, Chore chore) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+        DataOutputStream record = new DataOutputStream(buffer);
+        record.writeByte(operation);
+        record.writeLong(chore.getId());
+        if (operation == UPSERT) {
+            record.writeBoolean(Boolean.TRUE.equals(chore.getIsCompleted()));
+            record.writeInt(Objects.isNull(chore.getDeadline()) ? NO_DEADLINE : (int) chore.getDeadline().toEpochDay());
+            if (Objects.isNull(chore.getDescription())) {
+                record.writeInt(-1);
+            } else {
+                byte[] description = chore.getDescription().getBytes(StandardCharsets.UTF_8);
+                record.writeInt(description.length);
+                record.write(description);
+            }
+        }
+        writeFramed(buffer);
+    }
+
+    /**
+     * Write the record with its length and checksum.
+     */
+    private void writeFramed(ByteArrayOutputStream buffer) throws IOException {
+        CRC32 checksum = new CRC32();
+        checksum.update(buffer.toByteArray());
+        log.writeInt(buffer.size());
+        buffer.writeTo(log);
+        log.writeInt((int) checksum.getValue());
+    }
+
+    /**
+     * Read the snapshot and replay the log on top of it. A torn or corrupted record at the
+     * end of the log (e.g. after a crash in the middle of a write) is discarded, and so is a
+     * log whose BASE record belongs to another snapshot. Logs written before the BASE record
+     * existed are replayed as they are. The log is replayed on a copy of the snapshot, which
+     * replaces the chores only once the log is accepted.
+     */
+    private void recover() throws IOException {
+        if (snapshotFile.exists()) {
+            try (Stream<Chore> loaded = snapshot.stream()) {
+                loaded.forEach(chore -> {
+                    assignId(chore);
+                    chores.put(chore.getId(), chore);
+                });
+            }
+        }
+        fingerprintSnapshot();
+        Map<Long, Chore> replayed = new LinkedHashMap<>(chores);
+        long snapshotNextId = nextId;
+        long valid = 0;
+        if (logFile.exists()) {
+            long size = logFile.length();
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(logFile)))) {
+                while (valid + 4 <= size) {
+                    int length = input.readInt();
+                    if (length <= 0 || valid + length + 8 > size) {
+                        break;
+                    }
+                    byte[] payload = new byte[length];
+                    input.readFully(payload);
+                    CRC32 checksum = new CRC32();
+                    checksum.update(payload);
+                    if (input.readInt() != (int) checksum.getValue()) {
+                        break;
+                    }
+                    if (payload[0] == BASE) {
+                        if (valid != 0 || !isCurrentBase(payload)) {
+                            valid = 0;
+                            records = 0;
+                            replayed = chores;
+                            nextId = snapshotNextId;
+                            break;
+                        }
+                    } else {
+                        replay(payload, replayed);
+                        records++;
+                    }
+                    valid += length + 8;
+                }
+            }
+        }
+        if (replayed != chores) {
+            chores.clear();
+            chores.putAll(replayed);
+        }
+        written.addAll(chores.keySet());
+        logEmpty = valid == 0;
+        channel = FileChannel.open(logFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(valid);
+        channel.position(valid);
+        log = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 8 * 1024));
+    }
+
+    private boolean isCurrentBase(byte[] payload) throws IOException {
+        DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload, 1, payload.length - 1));
+        return record.readLong() == snapshotChecksum && record.readLong() == snapshotLength;
+    }
+
+    private void fingerprintSnapshot() throws IOException {
+        if (!snapshotFile.exists()) {
+            snapshotChecksum = 0;
+            snapshotLength = -1;
+            return;
+        }
+        CRC32 checksum = new CRC32();
+        try (InputStream input = new CheckedInputStream(new FileInputStream(snapshotFile), checksum)) {
+            input.transferTo(OutputStream.nullOutputStream());
+        }
+        snapshotChecksum = checksum.getValue();
+        snapshotLength = snapshotFile.length();
+    }
+
+    private void replay(byte[] payload, Map<Long, Chore> state) throws IOException {
+        DataInputStream record = new DataInputStream(new ByteArrayInputStream(payload));
+        byte operation = record.readByte();
+        long id = record.readLong();
+        if (operation == DELETE) {
+            state.remove(id);
+            return;
+        }
+        boolean isCompleted = record.readBoolean();
+        int deadline = record.readInt();
+        int length = record.readInt();
+        String description = null;
+        if (length >= 0) {
+            byte[] bytes = new byte[length];
+            record.readFully(bytes);
+            description = new String(bytes, StandardCharsets.UTF_8);
+        }
+        state.put(id, new Chore(id, description, isCompleted, deadline == NO_DEADLINE ? null : LocalDate.ofEpochDay(deadline)));
+        if (id >= nextId) {
+            nextId = id + 1;
+        }
+    }
+
+    /**
+     * A record written to the log, applied to the chores once durable.
+     */
+    private static final class Pending {
+
+        private final long sequence;
+
+        private final long id;
+
+        /**
+         * The new state of the chore, NULL for a removal.
+         */
+        private final Chore chore;
+
+        private Pending(long sequence, long id, Chore chore) {
+            this.sequence = sequence;
+            this.id = id;
+            this.chore = chore;
+        }
+    }
+
+}
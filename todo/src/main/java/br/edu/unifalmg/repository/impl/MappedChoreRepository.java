@@ -0,0 +1,709 @@
+package br.edu.unifalmg.repository.impl;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.repository.ChoreRepository;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Chore repository backed by a memory-mapped file of fixed-size records.
+ * <p>
+ * Each chore takes a 32 bytes slot holding its id, deadline (epoch day), completion status and
+ * the position of its description, which lives in an append-only text file next to it
+ * (overflow region). Since the position of a chore is known, updating or toggling a chore
+ * writes its slot in place, i.e. a single page, instead of rewriting the file. Deleting a chore
+ * marks its slot as deleted; the slots are reclaimed by saveAll, or once most of them are deleted.
+ * <p>
+ * The file starts with two copies of the header (record count, text length, sequence, CRC32).
+ * They are written alternately and the newest valid copy wins when the file is opened, so a
+ * torn header write loses at most the last operation. Records and text are forced to disk
+ * before the header that makes them visible. A flag in the header tells whether the file was
+ * closed properly. saveAll writes a new pair of files and moves them into place.
+ * <p>
+ * A mapping is limited to 2 GB, i.e. about 67 million slots.
+ */
+public class MappedChoreRepository implements ChoreRepository, AutoCloseable {
+
+    private static final String DEFAULT_PATH = "todo/src/main/resources/chores.map";
+
+    private static final int MAGIC = 0x43484D50;
+
+    private static final short VERSION = 1;
+
+    private static final short DIRTY = 1;
+
+    private static final int HEADER_SIZE = 64;
+
+    private static final int HEADER_CHECKED_BYTES = 40;
+
+    private static final int SLOTS_OFFSET = 2 * HEADER_SIZE;
+
+    private static final int SLOT_SIZE = 32;
+
+    private static final int INITIAL_SLOTS = 1024;
+
+    private static final int INITIAL_TEXT_SIZE = 64 * 1024;
+
+    // Offsets inside a slot
+    private static final int ID = 0;
+
+    private static final int DEADLINE = 8;
+
+    private static final int STATUS = 12;
+
+    private static final int TEXT_OFFSET = 16;
+
+    private static final int TEXT_LENGTH = 24;
+
+    private static final long NO_ID = Long.MIN_VALUE;
+
+    private static final int NO_DEADLINE = Integer.MIN_VALUE;
+
+    private static final byte NOT_COMPLETED = 0;
+
+    private static final byte COMPLETED = 1;
+
+    private static final byte NO_STATUS = 2;
+
+    private static final byte DELETED = 3;
+
+    /**
+     * Deleted slots kept before the file is compacted, as long as they are at most half of the slots.
+     */
+    private static final int MAX_DELETED_SLOTS = 64;
+
+    private final File file;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private FileChannel slotChannel;
+
+    private FileChannel textChannel;
+
+    private volatile MappedByteBuffer slots;
+
+    private volatile MappedByteBuffer text;
+
+    private volatile int count;
+
+    /**
+     * Slots marked as deleted among the first count slots.
+     */
+    private int deleted;
+
+    private long textLength;
+
+    private long sequence;
+
+    /**
+     * Incremented by saveAll, which writes a new text file named after it.
+     */
+    private long generation;
+
+    /**
+     * Slots of the chores whose id is not their position + 1. Ids handed out by save are.
+     */
+    private final Map<Long, Integer> sparseIds = new HashMap<>();
+
+    private long nextId;
+
+    private boolean closed;
+
+    public MappedChoreRepository () {
+        this(new File(DEFAULT_PATH));
+    }
+
+    /**
+     * @param file The file holding the slots. The descriptions are kept in files with the same name plus a suffix.
+     * @throws UncheckedIOException When the file cannot be opened or is not a valid chores file
+     */
+    public MappedChoreRepository (File file) {
+        this.file = file;
+        try {
+            open();
+        } catch (IOException exception) {
+            throw new UncheckedIOException("Unable to open the chores file.", exception);
+        }
+    }
+
+    /**
+     * Get a live view of the chores of the file. Nothing is copied: a chore is decoded from its
+     * current slot, under the lock, when it is accessed. The view keeps the slots of the chores
+     * stored when it was created, but chores updated or rewritten afterwards are read with their
+     * new values. Copy the view for a snapshot.
+     */
+    @Override
+    public List<Chore> load() {
+        lock.lock();
+        try {
+            if (deleted == 0) {
+                return new SlotList(count, null);
+            }
+            int[] live = new int[count - deleted];
+            for (int slot = 0, i = 0; slot < count; slot++) {
+                if (!isDeleted(slot)) {
+                    live[i++] = slot;
+                }
+            }
+            return new SlotList(live.length, live);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Append the chore to the file. Chores without id get the next free id;
+     * chores whose id is already stored are updated instead.
+     *
+     * @return TRUE, if the chore is stored and FALSE when the write fails
+     */
+    @Override
+    public boolean save(Chore chore) {
+        lock.lock();
+        try {
+            ensureOpen();
+            if (Objects.nonNull(chore.getId()) && slotOf(chore.getId()) >= 0) {
+                return update(chore);
+            }
+            boolean assigned = Objects.isNull(chore.getId());
+            if (assigned) {
+                chore.setId(nextId);
+            }
+            try {
+                ensureSlotCapacity(count + 1);
+                byte[] description = encode(chore.getDescription());
+                long offset = appendText(description);
+                writeSlot(slots, count, chore, offset, Objects.isNull(description) ? -1 : description.length);
+                forceSlot(count);
+                index(chore.getId(), count);
+                count++;
+                writeHeader(true);
+                return true;
+            } catch (IOException exception) {
+                if (assigned) {
+                    chore.setId(null);
+                }
+                System.out.println("Unable to write the chores on the file.");
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replace the content of the file with the chores. Chores without id get the next free id.
+     */
+    @Override
+    public boolean saveAll(List<Chore> chores) {
+        lock.lock();
+        try {
+            ensureOpen();
+            try {
+                rewrite(chores);
+                return true;
+            } catch (IOException exception) {
+                System.out.println("Unable to write the chores on the file.");
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Write the chore over its slot. Only when the description changed is it appended to the text file.
+     *
+     * @return TRUE, if the chore was found and written and FALSE otherwise
+     */
+    @Override
+    public boolean update(Chore chore) {
+        if (Objects.isNull(chore.getId())) {
+            return false;
+        }
+        lock.lock();
+        try {
+            ensureOpen();
+            int slot = slotOf(chore.getId());
+            if (slot < 0) {
+                return false;
+            }
+            try {
+                int at = slotPosition(slot);
+                long offset = slots.getLong(at + TEXT_OFFSET);
+                int length = slots.getInt(at + TEXT_LENGTH);
+                byte[] description = encode(chore.getDescription());
+                if (!Arrays.equals(description, readText(offset, length))) {
+                    offset = appendText(description);
+                    length = Objects.isNull(description) ? -1 : description.length;
+                    writeHeader(true);
+                }
+                writeSlot(slots, slot, chore, offset, length);
+                forceSlot(slot);
+                return true;
+            } catch (IOException exception) {
+                System.out.println("Unable to write the chores on the file.");
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove the chore with the same id by marking its slot as deleted, with a one byte write.
+     * The files are rewritten without the deleted slots once they are most of the file.
+     *
+     * @return TRUE, if the chore was found and removed and FALSE otherwise
+     */
+    @Override
+    public boolean delete(Chore chore) {
+        if (Objects.isNull(chore.getId())) {
+            return false;
+        }
+        lock.lock();
+        try {
+            ensureOpen();
+            int slot = slotOf(chore.getId());
+            if (slot < 0) {
+                return false;
+            }
+            slots.put(slotPosition(slot) + STATUS, DELETED);
+            forceSlot(slot);
+            sparseIds.remove(chore.getId());
+            deleted++;
+            if (deleted > MAX_DELETED_SLOTS && deleted > count / 2) {
+                compact();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Change the completion status of a chore with a one byte write.
+     *
+     * @return TRUE, if the chore was found and FALSE otherwise
+     */
+    public boolean setCompleted(Long id, boolean completed) {
+        if (Objects.isNull(id)) {
+            return false;
+        }
+        lock.lock();
+        try {
+            ensureOpen();
+            int slot = slotOf(id);
+            if (slot < 0) {
+                return false;
+            }
+            slots.put(slotPosition(slot) + STATUS, completed ? COMPLETED : NOT_COMPLETED);
+            forceSlot(slot);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Mark the file as closed properly and release it. The repository cannot be used afterwards.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            writeHeader(false);
+            closeChannels();
+        } catch (IOException exception) {
+            System.out.println("Error when closing the chores file.");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void open() throws IOException {
+        slotChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = slotChannel.size();
+        if (size == 0) {
+            slots = slotChannel.map(FileChannel.MapMode.READ_WRITE, 0, SLOTS_OFFSET + (long) INITIAL_SLOTS * SLOT_SIZE);
+            count = 0;
+            textLength = 0;
+            sequence = 0;
+            generation = 0;
+        } else {
+            if (size < SLOTS_OFFSET) {
+                closeChannels();
+                throw new IOException("The chores file is truncated.");
+            }
+            slots = slotChannel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(size, Integer.MAX_VALUE));
+            readHeader();
+        }
+        textChannel = FileChannel.open(textFile(generation).toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        text = textChannel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(textChannel.size(), Math.max(textLength, INITIAL_TEXT_SIZE)));
+        if ((long) SLOTS_OFFSET + (long) count * SLOT_SIZE > slots.capacity()) {
+            closeChannels();
+            throw new IOException("The chores file is truncated.");
+        }
+        buildIndex();
+        writeHeader(true);
+    }
+
+    /**
+     * Read both header copies and keep the newest valid one.
+     */
+    private void readHeader() throws IOException {
+        ByteBuffer newest = null;
+        long newestSequence = -1;
+        for (int copy = 0; copy < 2; copy++) {
+            ByteBuffer header = slots.duplicate().position(copy * HEADER_SIZE).limit(copy * HEADER_SIZE + HEADER_SIZE).slice();
+            if (header.getInt(0) != MAGIC) {
+                continue;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(header.duplicate().limit(HEADER_CHECKED_BYTES));
+            if ((int) crc.getValue() == header.getInt(HEADER_CHECKED_BYTES) && header.getLong(8) > newestSequence) {
+                newest = header;
+                newestSequence = header.getLong(8);
+            }
+        }
+        if (Objects.isNull(newest)) {
+            closeChannels();
+            throw new IOException("The chores file has no valid header.");
+        }
+        short version = newest.getShort(4);
+        if (version != VERSION) {
+            closeChannels();
+            throw new IOException("Unsupported chores file version " + version + ".");
+        }
+        if ((newest.getShort(6) & DIRTY) != 0) {
+            System.out.println("The chores file was not closed properly. Unfinished writes were discarded.");
+        }
+        sequence = newestSequence;
+        count = Math.toIntExact(newest.getLong(16));
+        textLength = newest.getLong(24);
+        generation = newest.getLong(32);
+    }
+
+    /**
+     * Write the next header copy, over the oldest one, and force it to disk.
+     */
+    private void writeHeader(boolean dirty) {
+        sequence++;
+        int at = (int) (sequence % 2) * HEADER_SIZE;
+        ByteBuffer header = slots.duplicate().position(at).limit(at + HEADER_SIZE).slice();
+        header.putInt(0, MAGIC)
+                .putShort(4, VERSION)
+                .putShort(6, dirty ? DIRTY : 0)
+                .putLong(8, sequence)
+                .putLong(16, count)
+                .putLong(24, textLength)
+                .putLong(32, generation);
+        CRC32 crc = new CRC32();
+        crc.update(header.duplicate().limit(HEADER_CHECKED_BYTES));
+        header.putInt(HEADER_CHECKED_BYTES, (int) crc.getValue());
+        slots.force(at, HEADER_SIZE);
+    }
+
+    /**
+     * Index the ids of the slots. Deleted slots are not indexed, but their ids are not handed out
+     * again until the file is compacted.
+     */
+    private void buildIndex() {
+        sparseIds.clear();
+        nextId = 1;
+        deleted = 0;
+        for (int slot = 0; slot < count; slot++) {
+            long id = slots.getLong(slotPosition(slot) + ID);
+            if (isDeleted(slot)) {
+                deleted++;
+                nextId = Math.max(nextId, id + 1);
+            } else if (id != NO_ID) {
+                index(id, slot);
+            }
+        }
+    }
+
+    private void index(long id, int slot) {
+        if (id != slot + 1L) {
+            sparseIds.put(id, slot);
+        }
+        nextId = Math.max(nextId, id + 1);
+    }
+
+    private int slotOf(long id) {
+        if (id >= 1 && id <= count && slots.getLong(slotPosition((int) (id - 1)) + ID) == id && !isDeleted((int) (id - 1))) {
+            return (int) (id - 1);
+        }
+        return sparseIds.getOrDefault(id, -1);
+    }
+
+    private boolean isDeleted(int slot) {
+        return slots.get(slotPosition(slot) + STATUS) == DELETED;
+    }
+
+    /**
+     * Rewrite the files with the chores that were not deleted. A failure leaves the deleted slots
+     * in place, to be reclaimed by the next compaction.
+     */
+    private void compact() {
+        List<Chore> chores = new ArrayList<>(count - deleted);
+        for (int slot = 0; slot < count; slot++) {
+            if (!isDeleted(slot)) {
+                chores.add(readSlot(slots, text, slot));
+            }
+        }
+        try {
+            rewrite(chores);
+        } catch (IOException exception) {
+            System.out.println("Unable to compact the chores file.");
+        }
+    }
+
+    private static void writeSlot(ByteBuffer slots, int slot, Chore chore, long textOffset, int textLength) {
+        int at = slotPosition(slot);
+        byte status = Objects.isNull(chore.getIsCompleted()) ? NO_STATUS : chore.getIsCompleted() ? COMPLETED : NOT_COMPLETED;
+        slots.putLong(at + ID, Objects.isNull(chore.getId()) ? NO_ID : chore.getId())
+                .putInt(at + DEADLINE, Objects.isNull(chore.getDeadline()) ? NO_DEADLINE : Math.toIntExact(chore.getDeadline().toEpochDay()))
+                .put(at + STATUS, status)
+                .putLong(at + TEXT_OFFSET, textOffset)
+                .putInt(at + TEXT_LENGTH, textLength);
+    }
+
+    private Chore readSlot(MappedByteBuffer slots, MappedByteBuffer text, int slot) {
+        int at = slotPosition(slot);
+        long id = slots.getLong(at + ID);
+        int deadline = slots.getInt(at + DEADLINE);
+        byte status = slots.get(at + STATUS);
+        int length = slots.getInt(at + TEXT_LENGTH);
+        String description = null;
+        if (length >= 0) {
+            byte[] bytes = new byte[length];
+            text.get((int) slots.getLong(at + TEXT_OFFSET), bytes);
+            description = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new Chore(
+                id == NO_ID ? null : id,
+                description,
+                status == NO_STATUS ? null : status == COMPLETED,
+                deadline == NO_DEADLINE ? null : LocalDate.ofEpochDay(deadline)
+        );
+    }
+
+    private void forceSlot(int slot) {
+        slots.force(slotPosition(slot), SLOT_SIZE);
+    }
+
+    private static int slotPosition(int slot) {
+        return SLOTS_OFFSET + slot * SLOT_SIZE;
+    }
+
+    /**
+     * Append the bytes to the text file and force them to disk. They become visible with the next header.
+     *
+     * @return The offset of the bytes in the text file
+     */
+    private long appendText(byte[] bytes) throws IOException {
+        if (Objects.isNull(bytes) || bytes.length == 0) {
+            return textLength;
+        }
+        long offset = textLength;
+        long needed = offset + bytes.length;
+        if (needed > text.capacity()) {
+            if (needed > Integer.MAX_VALUE) {
+                throw new IOException("The chores text file is full.");
+            }
+            text = textChannel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(Integer.MAX_VALUE, Math.max(needed, 2L * text.capacity())));
+        }
+        text.put((int) offset, bytes);
+        text.force((int) offset, bytes.length);
+        textLength = needed;
+        return offset;
+    }
+
+    private byte[] readText(long offset, int length) {
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        text.get((int) offset, bytes);
+        return bytes;
+    }
+
+    private void ensureSlotCapacity(int slotCount) throws IOException {
+        long needed = SLOTS_OFFSET + (long) slotCount * SLOT_SIZE;
+        if (needed <= slots.capacity()) {
+            return;
+        }
+        if (needed > Integer.MAX_VALUE) {
+            throw new IOException("The chores file is full.");
+        }
+        slots = slotChannel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(Integer.MAX_VALUE, Math.max(needed, 2L * slots.capacity())));
+    }
+
+    /**
+     * Write the chores in a new slot file and a new text file, then move the slot file over
+     * the current one. Until the move, the current files are left untouched.
+     */
+    private void rewrite(List<Chore> chores) throws IOException {
+        long nextGeneration = generation + 1;
+        File temporary = new File(file.getPath() + ".tmp");
+        File nextText = textFile(nextGeneration);
+        long id = nextId;
+        for (Chore chore : chores) {
+            if (Objects.nonNull(chore.getId())) {
+                id = Math.max(id, chore.getId() + 1);
+            }
+        }
+        try (FileChannel slotOut = FileChannel.open(temporary.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileChannel textOut = FileChannel.open(nextText.toPath(), StandardOpenOption.CREATE,
+                     StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long slotBytes = SLOTS_OFFSET + (long) Math.max(chores.size(), INITIAL_SLOTS) * SLOT_SIZE;
+            if (slotBytes > Integer.MAX_VALUE) {
+                throw new IOException("Too many chores for a single file.");
+            }
+            MappedByteBuffer newSlots = slotOut.map(FileChannel.MapMode.READ_WRITE, 0, slotBytes);
+            ByteBuffer pending = ByteBuffer.allocate(INITIAL_TEXT_SIZE);
+            long written = 0;
+            for (int slot = 0; slot < chores.size(); slot++) {
+                Chore chore = chores.get(slot);
+                if (Objects.isNull(chore.getId())) {
+                    chore.setId(id++);
+                }
+                byte[] description = encode(chore.getDescription());
+                int length = Objects.isNull(description) ? -1 : description.length;
+                long offset = written + pending.position();
+                if (length > pending.remaining()) {
+                    written += flush(pending, textOut);
+                    offset = written;
+                }
+                if (length > pending.capacity()) {
+                    written += textOut.write(ByteBuffer.wrap(description));
+                } else if (length > 0) {
+                    pending.put(description);
+                }
+                writeSlot(newSlots, slot, chore, offset, length);
+            }
+            written += flush(pending, textOut);
+            textOut.force(true);
+
+            ByteBuffer header = newSlots.duplicate().position(HEADER_SIZE).limit(2 * HEADER_SIZE).slice();
+            header.putInt(0, MAGIC)
+                    .putShort(4, VERSION)
+                    .putShort(6, (short) 0)
+                    .putLong(8, 1)
+                    .putLong(16, chores.size())
+                    .putLong(24, written)
+                    .putLong(32, nextGeneration);
+            CRC32 crc = new CRC32();
+            crc.update(header.duplicate().limit(HEADER_CHECKED_BYTES));
+            header.putInt(HEADER_CHECKED_BYTES, (int) crc.getValue());
+            newSlots.force();
+        }
+
+        File previousText = textFile(generation);
+        closeChannels();
+        Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(previousText.toPath());
+        open();
+    }
+
+    private static int flush(ByteBuffer pending, FileChannel channel) throws IOException {
+        pending.flip();
+        int written = 0;
+        while (pending.hasRemaining()) {
+            written += channel.write(pending);
+        }
+        pending.clear();
+        return written;
+    }
+
+    private File textFile(long generation) {
+        return new File(file.getPath() + "." + generation + ".text");
+    }
+
+    private static byte[] encode(String description) {
+        return Objects.isNull(description) ? null : description.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("The chores file is closed.");
+        }
+    }
+
+    private void closeChannels() throws IOException {
+        if (Objects.nonNull(textChannel)) {
+            textChannel.close();
+        }
+        slotChannel.close();
+    }
+
+    /**
+     * Read-only live view of slots of the file.
+     */
+    private class SlotList extends AbstractList<Chore> implements RandomAccess {
+
+        private final int size;
+
+        /**
+         * The slots of the view, NULL when they are the first size slots.
+         */
+        private final int[] live;
+
+        private SlotList(int size, int[] live) {
+            this.size = size;
+            this.live = live;
+        }
+
+        @Override
+        public Chore get(int index) {
+            Objects.checkIndex(index, size);
+            lock.lock();
+            try {
+                int slot = Objects.isNull(live) ? index : live[index];
+                if (slot >= count) {
+                    throw new ConcurrentModificationException("The chores file was rewritten with fewer chores.");
+                }
+                if (isDeleted(slot)) {
+                    throw new ConcurrentModificationException("The chore was deleted.");
+                }
+                return readSlot(slots, text, slot);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+    }
+
+}
@@ -1,139 +1,726 @@
 package br.edu.unifalmg.repository.impl;
 
 import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.repository.ChoreChangeSet;
 import br.edu.unifalmg.repository.ChoreRepository;
 import br.edu.unifalmg.repository.book.ChoreBook;
+import br.edu.unifalmg.repository.pool.ConnectionFactory;
+import br.edu.unifalmg.repository.pool.ConnectionPool;
+import br.edu.unifalmg.repository.pool.PoolMetrics;
+import br.edu.unifalmg.repository.pool.PooledConnection;
+import br.edu.unifalmg.store.ChoreQuery;
+import br.edu.unifalmg.store.ChoreStatistics;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.SortedMap;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+/**
+ * Chore repository backed by MySQL.
+ * <p>
+ * The repository is stateless apart from its connection pool: every operation borrows its own
+ * connection and closes its own result set, so it can serve many concurrent callers
+ * (including virtual threads) without sharing JDBC handles.
+ */
 public class MySQLChoreRepository implements ChoreRepository {
 
-    private Connection connection;
-    private Statement statement;
-    private PreparedStatement preparedStatement;
-    private ResultSet resultSet;
+    private static final String URL = "jdbc:mysql://localhost:3306/lifecycle?" + "user=root&password=password"
+            + "&rewriteBatchedStatements=true&useCursorFetch=true";
 
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private static final int DEFAULT_BATCH_SIZE = 1_000;
+
+    private static final int DEFAULT_PAGE_SIZE = 500;
+
+    private final ConnectionPool pool;
+
+    private final int batchSize;
+
+    private final int pageSize;
+
+    public MySQLChoreRepository() {
+        this(new ConnectionPool(mySQLConnectionFactory(), DEFAULT_POOL_SIZE));
+    }
+
+    /**
+     * @param pool The pool the connections are borrowed from
+     */
+    public MySQLChoreRepository(ConnectionPool pool) {
+        this(pool, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param pool The pool the connections are borrowed from
+     * @param batchSize Number of rows sent to the database in each JDBC batch by saveAll
+     */
+    public MySQLChoreRepository(ConnectionPool pool, int batchSize) {
+        this(pool, batchSize, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * @param pool The pool the connections are borrowed from
+     * @param batchSize Number of rows sent to the database in each JDBC batch by saveAll
+     * @param pageSize Number of rows read in each page by stream, also used as the fetch size
+     */
+    public MySQLChoreRepository(ConnectionPool pool, int batchSize, int pageSize) {
+        if (batchSize <= 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("The batch and page sizes must be positive");
+        }
+        this.pool = pool;
+        this.batchSize = batchSize;
+        this.pageSize = pageSize;
+    }
 
     @Override
     public List<Chore> load() {
-        if (!connectToMySQL()) {
-            return new ArrayList<>();
+        try (PooledConnection connection = pool.borrow()) {
+            PreparedStatement preparedStatement = connection.prepare(ChoreBook.FIND_ALL_CHORES);
+            preparedStatement.setFetchSize(pageSize);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                List<Chore> chores = new ArrayList<>();
+                while (resultSet.next()) {
+                    chores.add(toChore(resultSet));
+                }
+                return chores;
+            } catch (SQLException e) {
+                connection.requireValidation();
+                System.out.println("Error when loading the chores from database");
+            }
+        } catch (SQLException e) {
+            System.out.println("Error when connecting to database");
+        }
+        return null;
+    }
+
+    /**
+     * Read the chores with several connections: the ids are split into ranges of the same
+     * width, several per thread of the pool, and each range is loaded on the pool with its own
+     * connection. The chores are ordered by id, like {@link #load()}.
+     */
+    @Override
+    public List<Chore> load(ForkJoinPool workers) {
+        long minId;
+        long maxId;
+        try (PooledConnection connection = pool.borrow()) {
+            try (ResultSet resultSet = connection.prepare(ChoreBook.FIND_ID_RANGE).executeQuery()) {
+                resultSet.next();
+                minId = resultSet.getLong(1);
+                if (resultSet.wasNull()) {
+                    return new ArrayList<>();
+                }
+                maxId = resultSet.getLong(2);
+            } catch (SQLException e) {
+                connection.requireValidation();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.out.println("Error when loading the chores from database");
+            return null;
+        }
+        long ranges = 4L * workers.getParallelism();
+        long width = Math.max(1, (maxId - minId) / ranges + 1);
+        List<ForkJoinTask<List<Chore>>> loading = new ArrayList<>();
+        for (long from = minId; from <= maxId; from += width) {
+            long first = from;
+            long last = Math.min(maxId, from + width - 1);
+            loading.add(workers.submit(() -> loadRange(first, last)));
+            if (last == maxId) {
+                break;
+            }
         }
+        List<Chore> chores = new ArrayList<>();
         try {
-            statement = connection.createStatement();
-            resultSet = statement.executeQuery(ChoreBook.FIND_ALL_CHORES);
+            for (ForkJoinTask<List<Chore>> range : loading) {
+                chores.addAll(range.get());
+            }
+            return chores;
+        } catch (ExecutionException e) {
+            System.out.println("Error when loading the chores from database");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            loading.forEach(range -> range.cancel(true));
+        }
+        return null;
+    }
+
+    /**
+     * Read a page of chores with keyset pagination: the page starts right after the given id,
+     * so reading a page costs the same wherever it is in the table.
+     */
+    @Override
+    public List<Chore> load(Long afterId, int limit) {
+        try {
+            return loadPage(afterId, limit);
+        } catch (SQLException e) {
+            System.out.println("Error when loading the chores from database");
+        }
+        return null;
+    }
+
+    /**
+     * Read the chores page by page, ordered by id. A connection is only borrowed while a page
+     * is read, so the stream can be consumed slowly without holding a connection, and at most
+     * one page is kept in memory.
+     *
+     * @throws IllegalStateException When a page cannot be loaded from the database
+     */
+    @Override
+    public Stream<Chore> stream() {
+        return StreamSupport.stream(new PageSpliterator(), false);
+    }
 
-            List<Chore> chores = new ArrayList<>();
-            while (resultSet.next()) {
-                Chore chore = Chore.builder()
-                        .id(resultSet.getLong("id"))
-                        .description(resultSet.getString("description"))
-                        .isCompleted(resultSet.getBoolean("isCompleted"))
-                        .deadline(resultSet.getDate("deadline").toLocalDate())
-                        .build();
+    /**
+     * Select the chores in the database: the status and the deadline range become the WHERE
+     * clause, the order the ORDER BY and the page LIMIT and OFFSET, so only the page is read.
+     * <p>
+     * The words of the text are matched with LIKE, which relies on the accent and case insensitive
+     * collation of the column, and also finds a word inside another one. So when the query has a
+     * text the rows are checked again here, and the page is taken while reading them.
+     *
+     * @return The page of matching chores, or null when they could not be loaded
+     */
+    @Override
+    public List<Chore> find(ChoreQuery query) {
+        List<Object> parameters = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(ChoreBook.SELECT_CHORES);
+        appendWhere(sql, parameters, query);
+        appendOrderBy(sql, query);
+        boolean pagedInDatabase = !query.hasText() && query.isPaged();
+        if (pagedInDatabase) {
+            sql.append(" LIMIT ? OFFSET ?");
+            parameters.add(Objects.isNull(query.getLimit()) ? Long.MAX_VALUE : query.getLimit().longValue());
+            parameters.add((long) query.getOffset());
+        }
+        try (PooledConnection connection = pool.borrow()) {
+            PreparedStatement preparedStatement = connection.prepare(sql.toString());
+            bind(preparedStatement, parameters);
+            preparedStatement.setFetchSize(pageSize);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                List<Chore> chores = new ArrayList<>();
+                int skipped = 0;
+                while (resultSet.next()) {
+                    Chore chore = toChore(resultSet);
+                    if (!query.hasText()) {
+                        chores.add(chore);
+                    } else if (query.matches(chore)) {
+                        if (skipped < query.getOffset()) {
+                            skipped++;
+                            continue;
+                        }
+                        if (Objects.nonNull(query.getLimit()) && chores.size() == query.getLimit()) {
+                            break;
+                        }
+                        chores.add(chore);
+                    }
+                }
+                return chores;
+            } catch (SQLException e) {
+                connection.requireValidation();
+                System.out.println("Error when loading the chores from database");
+            }
+        } catch (SQLException e) {
+            System.out.println("Error when connecting to database");
+        }
+        return null;
+    }
 
-                chores.add(chore);
+    /**
+     * Count the chores with SELECT COUNT(*). Queries with a text read the rows selected by
+     * the other predicates and check their words, like {@link #find(ChoreQuery)}.
+     *
+     * @return The number of matching chores, or -1 when they could not be counted
+     */
+    @Override
+    public long count(ChoreQuery query) {
+        List<Object> parameters = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(query.hasText() ? ChoreBook.SELECT_CHORES : ChoreBook.COUNT_CHORES);
+        appendWhere(sql, parameters, query);
+        try (PooledConnection connection = pool.borrow()) {
+            PreparedStatement preparedStatement = connection.prepare(sql.toString());
+            bind(preparedStatement, parameters);
+            preparedStatement.setFetchSize(pageSize);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (!query.hasText()) {
+                    resultSet.next();
+                    return resultSet.getLong(1);
+                }
+                long count = 0;
+                while (resultSet.next()) {
+                    if (query.matches(toChore(resultSet))) {
+                        count++;
+                    }
+                }
+                return count;
+            } catch (SQLException e) {
+                connection.requireValidation();
+                System.out.println("Error when counting the chores on database");
             }
-            return chores;
+        } catch (SQLException e) {
+            System.out.println("Error when connecting to database");
+        }
+        return -1;
+    }
 
+    /**
+     * Count the chores by status with a single GROUP BY query, which also counts the
+     * uncompleted chores with a deadline before today.
+     *
+     * @return ChoreStatistics The counters, or null when they could not be counted
+     */
+    public ChoreStatistics statistics(LocalDate today) {
+        try (PooledConnection connection = pool.borrow()) {
+            PreparedStatement preparedStatement = connection.prepare(ChoreBook.COUNT_BY_STATUS);
+            preparedStatement.setDate(1, Date.valueOf(today));
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                int completed = 0;
+                int uncompleted = 0;
+                int overdue = 0;
+                while (resultSet.next()) {
+                    if (resultSet.getBoolean(1)) {
+                        completed = resultSet.getInt(2);
+                    } else {
+                        uncompleted = resultSet.getInt(2);
+                        overdue = resultSet.getInt(3);
+                    }
+                }
+                return new ChoreStatistics(today, completed + uncompleted, completed, uncompleted, overdue);
+            } catch (SQLException e) {
+                connection.requireValidation();
+                System.out.println("Error when counting the chores on database");
+            }
         } catch (SQLException e) {
             System.out.println("Error when connecting to database");
-        } finally {
-            closeConnections();
         }
-     return null;
+        return null;
+    }
+
+    /**
+     * Count the chores by deadline with a GROUP BY query, for the days with chores in the range.
+     *
+     * @param from The first day (inclusive)
+     * @param to The end of the range (exclusive)
+     * @param isCompleted The status of the chores. NULL for any status.
+     * @return The number of chores by day, or null when they could not be counted
+     */
+    public SortedMap<LocalDate, Integer> countDueByDay(LocalDate from, LocalDate to, Boolean isCompleted) {
+        Objects.requireNonNull(from, "The first day cannot be null");
+        Objects.requireNonNull(to, "The end of the range cannot be null");
+        try (PooledConnection connection = pool.borrow()) {
+            PreparedStatement preparedStatement = connection.prepare(Objects.isNull(isCompleted)
+                    ? ChoreBook.COUNT_BY_DEADLINE
+                    : ChoreBook.COUNT_BY_DEADLINE_AND_STATUS);
+            preparedStatement.setDate(1, Date.valueOf(from));
+            preparedStatement.setDate(2, Date.valueOf(to));
+            if (Objects.nonNull(isCompleted)) {
+                preparedStatement.setBoolean(3, isCompleted);
+            }
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                SortedMap<LocalDate, Integer> histogram = new TreeMap<>();
+                while (resultSet.next()) {
+                    histogram.put(resultSet.getDate(1).toLocalDate(), resultSet.getInt(2));
+                }
+                return histogram;
+            } catch (SQLException e) {
+                connection.requireValidation();
+                System.out.println("Error when counting the chores on database");
+            }
+        } catch (SQLException e) {
+            System.out.println("Error when connecting to database");
+        }
+        return null;
+    }
+
+    /**
+     * Count the chores by the week of their deadline, like {@link br.edu.unifalmg.store.ChoreStore#countDueByWeek}:
+     * the days of the weeks starting from the week of the first day until the end of the range are
+     * counted by {@link #countDueByDay} and added up by week, so no date function of the database is needed.
+     *
+     * @return The number of chores by the first day of the week, or null when they could not be counted
+     */
+    public SortedMap<LocalDate, Integer> countDueByWeek(LocalDate from, LocalDate to, Boolean isCompleted) {
+        Objects.requireNonNull(from, "The first day cannot be null");
+        Objects.requireNonNull(to, "The end of the range cannot be null");
+        LocalDate firstWeek = ChoreStatistics.weekOf(from);
+        if (!firstWeek.isBefore(to)) {
+            return new TreeMap<>();
+        }
+        SortedMap<LocalDate, Integer> byDay = countDueByDay(firstWeek, ChoreStatistics.weekOf(to.minusDays(1)).plusWeeks(1), isCompleted);
+        return Objects.isNull(byDay) ? null : ChoreStatistics.byWeek(byDay);
     }
 
     @Override
     public boolean save(Chore chore) {
-       if(!connectToMySQL()) {
-           return Boolean.FALSE;
-       }
-       try {
-           preparedStatement = connection.prepareStatement(ChoreBook.INSERT_CHORE);
-           preparedStatement.setString(1, chore.getDescription());
-           preparedStatement.setBoolean(2, chore.getIsCompleted());
-           preparedStatement.setDate(3, Date.valueOf(chore.getDeadline()));
-           int affectedRows = preparedStatement.executeUpdate();
-           if (affectedRows > 0) {
-               return Boolean.TRUE;
-           }
-           return Boolean.FALSE;
-       } catch (SQLException e) {
-           System.out.println("Error when inserting a new chore on database.");
-       } finally {
-           closeConnections();
-       }
-       return Boolean.FALSE;
+        try (PooledConnection connection = pool.borrow()) {
+            try {
+                PreparedStatement preparedStatement = connection.prepare(ChoreBook.INSERT_CHORE, Statement.RETURN_GENERATED_KEYS);
+                bindInsert(preparedStatement, chore);
+                int affectedRows = preparedStatement.executeUpdate();
+                try (ResultSet keys = preparedStatement.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        chore.setId(keys.getLong(1));
+                    }
+                }
+                return affectedRows > 0;
+            } catch (SQLException e) {
+                connection.requireValidation();
+                System.out.println("Error when inserting a new chore on database.");
+            }
+        } catch (SQLException e) {
+            System.out.println("Error when connecting to database.");
+        }
+        return Boolean.FALSE;
     }
 
+    /**
+     * Save the chores in a single transaction, using JDBC batches.
+     * Chores with id are upserted (inserted or updated by id); chores without id are inserted
+     * and receive the id generated by the database. When anything fails, the whole transaction
+     * is rolled back and the generated ids are removed from the chores.
+     *
+     * @return TRUE, if every chore was saved and FALSE when the transaction was rolled back
+     */
     public boolean saveAll (List<Chore> chores) {
-        return false;
+        if (Objects.isNull(chores) || chores.isEmpty()) {
+            return Boolean.TRUE;
+        }
+        return write(chores, Collections.emptyList());
     }
 
+    /**
+     * Write the changes in a single transaction, using JDBC batches: the added and updated chores
+     * are written like in {@link #saveAll(List)} and the deleted chores are removed by id.
+     * Deleted chores without id were never stored and are skipped.
+     *
+     * @return TRUE, if every change was written and FALSE when the transaction was rolled back
+     */
     @Override
-    public boolean update(Chore chore) {
-        if (!connectToMySQL()) {
+    public boolean apply(ChoreChangeSet changes) {
+        if (changes.isEmpty()) {
+            return Boolean.TRUE;
+        }
+        List<Chore> written = new ArrayList<>(changes.getAdded().size() + changes.getUpdated().size());
+        written.addAll(changes.getAdded());
+        written.addAll(changes.getUpdated());
+        return write(written, changes.getDeleted());
+    }
+
+    @Override
+    public boolean delete(Chore chore) {
+        if (Objects.isNull(chore.getId())) {
             return Boolean.FALSE;
         }
-        try {
-            preparedStatement = connection.prepareStatement(ChoreBook.UPDATE_CHORE);
-            preparedStatement.setString(1, chore.getDescription());
-            preparedStatement.setDate(2, Date.valueOf(chore.getDeadline())); // pensando no toggleChore.
-            preparedStatement.setBoolean(3, chore.getIsCompleted());
-            preparedStatement.setLong(4, chore.getId());
-            int affectedRows = preparedStatement.executeUpdate();
-
-            if (affectedRows > 0) {
-                return Boolean.TRUE;
+        try (PooledConnection connection = pool.borrow()) {
+            try {
+                PreparedStatement preparedStatement = connection.prepare(ChoreBook.DELETE_CHORE);
+                preparedStatement.setLong(1, chore.getId());
+                return preparedStatement.executeUpdate() > 0;
+            } catch (SQLException e) {
+                connection.requireValidation();
+                System.out.println("Error when deleting a chore from database");
             }
-            return Boolean.FALSE;
-
         } catch (SQLException e) {
-            System.out.println("Error when updating a chore on database");
-        } finally {
-            closeConnections();
+            System.out.println("Error when connecting to database.");
         }
-     return Boolean.FALSE;
+        return Boolean.FALSE;
     }
 
-    private boolean connectToMySQL () {
-        try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            connection = DriverManager.getConnection("jdbc:mysql://localhost:3306/lifecycle?" + "user=root&password=password");
-            return Boolean.TRUE;
-        } catch (SQLException | ClassNotFoundException e) {
+    @Override
+    public boolean update(Chore chore) {
+        if (Objects.isNull(chore.getId())) {
+            return Boolean.FALSE;
+        }
+        try (PooledConnection connection = pool.borrow()) {
+            try {
+                PreparedStatement preparedStatement = connection.prepare(ChoreBook.UPDATE_CHORE);
+                preparedStatement.setString(1, chore.getDescription());
+                preparedStatement.setDate(2, Date.valueOf(chore.getDeadline())); // pensando no toggleChore.
+                preparedStatement.setBoolean(3, chore.getIsCompleted());
+                preparedStatement.setLong(4, chore.getId());
+                int affectedRows = preparedStatement.executeUpdate();
+                return affectedRows > 0;
+            } catch (SQLException e) {
+                connection.requireValidation();
+                System.out.println("Error when updating a chore on database");
+            }
+        } catch (SQLException e) {
             System.out.println("Error when connecting to database.");
         }
-       return Boolean.FALSE;
+        return Boolean.FALSE;
     }
 
+    /**
+     * Get the state and counters of the connection pool.
+     */
+    public PoolMetrics poolMetrics() {
+        return pool.metrics();
+    }
 
+    /**
+     * Close the connection pool. The repository cannot be used afterwards.
+     */
     public void closeConnections() {
-        try {
-        if (Objects.nonNull(connection) && !connection.isClosed()) {
-            connection.close();
+        pool.close();
+    }
+
+    private List<Chore> loadPage(Long afterId, int limit) throws SQLException {
+        try (PooledConnection connection = pool.borrow()) {
+            PreparedStatement preparedStatement = connection.prepare(ChoreBook.FIND_CHORES_AFTER_ID);
+            preparedStatement.setLong(1, Objects.isNull(afterId) ? Long.MIN_VALUE : afterId);
+            preparedStatement.setInt(2, limit);
+            preparedStatement.setFetchSize(Math.min(limit, pageSize));
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                List<Chore> chores = new ArrayList<>(Math.min(limit, pageSize));
+                while (resultSet.next()) {
+                    chores.add(toChore(resultSet));
+                }
+                return chores;
+            } catch (SQLException e) {
+                connection.requireValidation();
+                throw e;
+            }
+        }
+    }
+
+    private boolean write(List<Chore> chores, List<Chore> deleted) {
+        List<Chore> inserted = new ArrayList<>();
+        try (PooledConnection connection = pool.borrow()) {
+            Connection jdbcConnection = connection.getConnection();
+            try {
+                jdbcConnection.setAutoCommit(false);
+                PreparedStatement upsert = connection.prepare(ChoreBook.UPSERT_CHORE);
+                PreparedStatement insert = connection.prepare(ChoreBook.INSERT_CHORE, Statement.RETURN_GENERATED_KEYS);
+                List<Chore> pendingInserts = new ArrayList<>();
+                int pendingUpserts = 0;
+                for (Chore chore : chores) {
+                    if (Objects.isNull(chore.getId())) {
+                        bindInsert(insert, chore);
+                        insert.addBatch();
+                        pendingInserts.add(chore);
+                        if (pendingInserts.size() == batchSize) {
+                            executeInserts(insert, pendingInserts, inserted);
+                        }
+                    } else {
+                        bindUpsert(upsert, chore);
+                        upsert.addBatch();
+                        if (++pendingUpserts == batchSize) {
+                            upsert.executeBatch();
+                            pendingUpserts = 0;
+                        }
+                    }
+                }
+                if (pendingUpserts > 0) {
+                    upsert.executeBatch();
+                }
+                if (!pendingInserts.isEmpty()) {
+                    executeInserts(insert, pendingInserts, inserted);
+                }
+                if (!deleted.isEmpty()) {
+                    executeDeletes(connection.prepare(ChoreBook.DELETE_CHORE), deleted);
+                }
+                jdbcConnection.commit();
+                return Boolean.TRUE;
+            } catch (SQLException e) {
+                rollback(jdbcConnection);
+                inserted.forEach(chore -> chore.setId(null));
+                connection.requireValidation();
+                System.out.println("Error when saving the chores on database.");
+            }
+        } catch (SQLException e) {
+            System.out.println("Error when connecting to database.");
+        }
+        return Boolean.FALSE;
+    }
+
+    private void executeDeletes(PreparedStatement delete, List<Chore> deleted) throws SQLException {
+        int pending = 0;
+        for (Chore chore : deleted) {
+            if (Objects.isNull(chore.getId())) {
+                continue;
+            }
+            delete.setLong(1, chore.getId());
+            delete.addBatch();
+            if (++pending == batchSize) {
+                delete.executeBatch();
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            delete.executeBatch();
+        }
+    }
+
+    private List<Chore> loadRange(long firstId, long lastId) throws SQLException {
+        try (PooledConnection connection = pool.borrow()) {
+            PreparedStatement preparedStatement = connection.prepare(ChoreBook.FIND_CHORES_IN_ID_RANGE);
+            preparedStatement.setLong(1, firstId);
+            preparedStatement.setLong(2, lastId);
+            preparedStatement.setFetchSize(pageSize);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                List<Chore> chores = new ArrayList<>();
+                while (resultSet.next()) {
+                    chores.add(toChore(resultSet));
+                }
+                return chores;
+            } catch (SQLException e) {
+                connection.requireValidation();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * The words of the text are letters and digits only, so they need no escaping in LIKE patterns.
+     */
+    private static void appendWhere(StringBuilder sql, List<Object> parameters, ChoreQuery query) {
+        List<String> conditions = new ArrayList<>();
+        if (Objects.nonNull(query.getIsCompleted())) {
+            conditions.add("`isCompleted` = ?");
+            parameters.add(query.getIsCompleted());
+        }
+        if (Objects.nonNull(query.getDueFrom())) {
+            conditions.add("`deadline` >= ?");
+            parameters.add(Date.valueOf(query.getDueFrom()));
+        }
+        if (Objects.nonNull(query.getDueBefore())) {
+            conditions.add("`deadline` < ?");
+            parameters.add(Date.valueOf(query.getDueBefore()));
+        }
+        for (String term : query.getTerms()) {
+            conditions.add("`description` LIKE ?");
+            parameters.add("%" + (term.endsWith("*") ? term.substring(0, term.length() - 1) : term) + "%");
         }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+    }
 
-        if (Objects.nonNull(statement) && !statement.isClosed()) {
-            statement.close();
+    private static void appendOrderBy(StringBuilder sql, ChoreQuery query) {
+        switch (query.getOrderBy()) {
+            case DEADLINE:
+                sql.append(" ORDER BY `deadline`, `id`");
+                break;
+            case DEADLINE_DESCENDING:
+                sql.append(" ORDER BY `deadline` DESC, `id`");
+                break;
+            case INSERTION:
+            default:
+                sql.append(" ORDER BY `id`");
         }
+    }
 
-        if (Objects.nonNull(preparedStatement) && !preparedStatement.isClosed()) {
-            preparedStatement.close();
+    private static void bind(PreparedStatement preparedStatement, List<Object> parameters) throws SQLException {
+        for (int i = 0; i < parameters.size(); i++) {
+            preparedStatement.setObject(i + 1, parameters.get(i));
         }
+    }
 
-        if (Objects.nonNull(resultSet) && !resultSet.isClosed()) {
-            resultSet.close();
+    private static void executeInserts(PreparedStatement insert, List<Chore> pending, List<Chore> inserted) throws SQLException {
+        insert.executeBatch();
+        try (ResultSet keys = insert.getGeneratedKeys()) {
+            for (Chore chore : pending) {
+                if (!keys.next()) {
+                    break;
+                }
+                chore.setId(keys.getLong(1));
+                inserted.add(chore);
+            }
         }
-    } catch (SQLException e) {
-            System.out.println("Error when closing database connections. ");
+        pending.clear();
+    }
+
+    private static void rollback(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            System.out.println("Error when rolling back the transaction.");
         }
     }
 
+    private static void bindInsert(PreparedStatement preparedStatement, Chore chore) throws SQLException {
+        preparedStatement.setString(1, chore.getDescription());
+        preparedStatement.setBoolean(2, chore.getIsCompleted());
+        preparedStatement.setDate(3, Date.valueOf(chore.getDeadline()));
+    }
 
-}
+    private static void bindUpsert(PreparedStatement preparedStatement, Chore chore) throws SQLException {
+        preparedStatement.setLong(1, chore.getId());
+        preparedStatement.setString(2, chore.getDescription());
+        preparedStatement.setBoolean(3, chore.getIsCompleted());
+        preparedStatement.setDate(4, Date.valueOf(chore.getDeadline()));
+    }
+
+    private static Chore toChore(ResultSet resultSet) throws SQLException {
+        return Chore.builder()
+                .id(resultSet.getLong("id"))
+                .description(resultSet.getString("description"))
+                .isCompleted(resultSet.getBoolean("isCompleted"))
+                .deadline(resultSet.getDate("deadline").toLocalDate())
+                .build();
+    }
 
+    /**
+     * Walks the table one page at a time, starting each page after the last id seen.
+     */
+    private final class PageSpliterator extends Spliterators.AbstractSpliterator<Chore> {
+
+        private Iterator<Chore> page = Collections.emptyIterator();
+
+        private Long lastId;
+
+        private boolean exhausted;
+
+        private PageSpliterator() {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Chore> action) {
+            while (!page.hasNext()) {
+                if (exhausted) {
+                    return false;
+                }
+                List<Chore> chores;
+                try {
+                    chores = loadPage(lastId, pageSize);
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Error when loading the chores from database", e);
+                }
+                exhausted = chores.size() < pageSize;
+                if (!chores.isEmpty()) {
+                    lastId = chores.get(chores.size() - 1).getId();
+                }
+                page = chores.iterator();
+            }
+            action.accept(page.next());
+            return true;
+        }
+
+    }
+
+    private static ConnectionFactory mySQLConnectionFactory() {
+        try {
+            Class.forName("com.mysql.cj.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
+            System.out.println("Error when connecting to database.");
+        }
+        return () -> DriverManager.getConnection(URL);
+    }
+
+
+}
@@ -0,0 +1,501 @@
+package br.edu.unifalmg.repository.impl;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.repository.ChoreChangeSet;
+import br.edu.unifalmg.repository.ChoreRepository;
+import br.edu.unifalmg.store.ChoreQuery;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Repository that acknowledges saves and updates in memory and writes them to another
+ * repository in the background.
+ * <p>
+ * Pending chores wait in a bounded queue as copies taken when they are saved or updated, so the
+ * flusher never reads or changes the chores the callers keep using. A flusher thread writes them
+ * in batches, each one as a single {@link ChoreRepository#apply(ChoreChangeSet)}, every flush
+ * interval or as soon as a full batch is pending. A chore saved or updated several times before
+ * being written is written only once, with its latest state. When the queue is full, callers
+ * block until the flusher makes room (backpressure).
+ * <p>
+ * The ids the repository generates for the inserted chores are given back to the chores on the
+ * callers' threads, by the next save, update or flush, never by the flusher.
+ * <p>
+ * Reads and saveAll flush the queue first, so they always see the acknowledged writes.
+ * Writes that fail, or that the repository rejects with an exception, are kept in the queue
+ * and retried on the next flush. After a failure the flusher waits a flush interval before
+ * retrying, twice as long after each further failure, up to 32 intervals.
+ */
+public class WriteBehindChoreRepository implements ChoreRepository, AutoCloseable {
+
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofMillis(200);
+
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    /**
+     * After consecutive failures the flusher waits up to this many flush intervals before retrying.
+     */
+    private static final int MAX_RETRY_INTERVALS = 32;
+
+    private enum Operation {
+        SAVE, UPDATE;
+
+        /**
+         * A chore that still has to be inserted stays an insert, whatever happens to it afterwards.
+         */
+        Operation merge(Operation next) {
+            return this == SAVE || next == SAVE ? SAVE : UPDATE;
+        }
+    }
+
+    private final ChoreRepository repository;
+
+    private final long flushIntervalNanos;
+
+    private final int capacity;
+
+    private final int batchSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notFull = lock.newCondition();
+
+    private final Condition batchReady = lock.newCondition();
+
+    /**
+     * Serializes the writes of the flusher and of {@link #flush()}, so a chore is never
+     * written by two threads at the same time and an update never overtakes its insert.
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * Chores waiting to be written, oldest first. Chore does not override equals,
+     * so each chore instance is its own key.
+     */
+    private Map<Chore, Write> pending = new LinkedHashMap<>();
+
+    /**
+     * Ids generated for the written inserts, waiting to be given back to their chores.
+     */
+    private final Map<Chore, Long> generatedIds = new LinkedHashMap<>();
+
+    /**
+     * Chores of the batch being written. They count against the capacity until the batch
+     * completes, so a failed batch can be put back without going over it.
+     */
+    private int writing;
+
+    private final Thread flusher;
+
+    private boolean closed;
+
+    private long written;
+
+    private long coalesced;
+
+    private long failed;
+
+    public WriteBehindChoreRepository(ChoreRepository repository) {
+        this(repository, DEFAULT_FLUSH_INTERVAL, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param repository The repository the chores are written to
+     * @param flushInterval Maximum time a chore waits before the flusher writes it
+     * @param capacity Maximum number of pending chores before callers block
+     * @param batchSize Maximum number of chores written in each pass of the flusher
+     */
+    public WriteBehindChoreRepository(ChoreRepository repository, Duration flushInterval, int capacity, int batchSize) {
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("The capacity and batch size must be positive");
+        }
+        this.repository = Objects.requireNonNull(repository, "The repository cannot be null");
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flusher = new Thread(this::runFlusher, "chore-write-behind");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    @Override
+    public List<Chore> load() {
+        flush();
+        return repository.load();
+    }
+
+    @Override
+    public List<Chore> load(ForkJoinPool workers) {
+        flush();
+        return repository.load(workers);
+    }
+
+    @Override
+    public List<Chore> load(Long afterId, int limit) {
+        flush();
+        return repository.load(afterId, limit);
+    }
+
+    @Override
+    public Stream<Chore> stream() {
+        flush();
+        return repository.stream();
+    }
+
+    @Override
+    public List<Chore> find(ChoreQuery query) {
+        flush();
+        return repository.find(query);
+    }
+
+    @Override
+    public long count(ChoreQuery query) {
+        flush();
+        return repository.count(query);
+    }
+
+    /**
+     * Enqueue the insertion of the chore.
+     *
+     * @return TRUE, once the chore is enqueued. Blocks while the queue is full.
+     * @throws IllegalStateException When the repository is closed
+     */
+    @Override
+    public boolean save(Chore chore) {
+        enqueue(chore, Operation.SAVE);
+        return Boolean.TRUE;
+    }
+
+    /**
+     * Flush the pending writes, then save the chores synchronously.
+     */
+    @Override
+    public boolean saveAll(List<Chore> chores) {
+        flush();
+        return repository.saveAll(chores);
+    }
+
+    /**
+     * Flush the pending writes, so a queued save of the chore cannot run after it, then delete
+     * the chore synchronously.
+     */
+    @Override
+    public boolean delete(Chore chore) {
+        flush();
+        return repository.delete(chore);
+    }
+
+    /**
+     * Flush the pending writes, then write the changes synchronously.
+     */
+    @Override
+    public boolean apply(ChoreChangeSet changes) {
+        flush();
+        return repository.apply(changes);
+    }
+
+    /**
+     * Enqueue the update of the chore.
+     *
+     * @return TRUE, once the chore is enqueued. Blocks while the queue is full.
+     * @throws IllegalStateException When the repository is closed
+     */
+    @Override
+    public boolean update(Chore chore) {
+        enqueue(chore, Operation.UPDATE);
+        return Boolean.TRUE;
+    }
+
+    /**
+     * Write every pending chore.
+     *
+     * @return TRUE, if the queue was drained and FALSE when some writes failed and are still pending
+     */
+    public boolean flush() {
+        try {
+            while (getPending() > 0) {
+                if (!writeBatch()) {
+                    return Boolean.FALSE;
+                }
+            }
+            return Boolean.TRUE;
+        } finally {
+            publishIds();
+        }
+    }
+
+    /**
+     * Stop the flusher and write every pending chore. Saves and updates are refused afterwards.
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            batchReady.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!flush()) {
+            System.out.println("Some chores could not be written when closing the repository.");
+        }
+    }
+
+    public int getPending() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of chores written to the repository.
+     */
+    public long getWritten() {
+        lock.lock();
+        try {
+            return written;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of saves and updates merged into a chore that was already pending.
+     */
+    public long getCoalesced() {
+        lock.lock();
+        try {
+            return coalesced;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of failed writes. Every one of them is retried.
+     */
+    public long getFailed() {
+        lock.lock();
+        try {
+            return failed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(Chore chore, Operation operation) {
+        lock.lock();
+        try {
+            while (true) {
+                if (closed) {
+                    throw new IllegalStateException("The write-behind repository is closed.");
+                }
+                publishIds();
+                Write previous = pending.get(chore);
+                if (Objects.nonNull(previous)) {
+                    pending.put(chore, new Write(previous.operation.merge(operation), new Chore(chore)));
+                    coalesced++;
+                    return;
+                }
+                if (pending.size() + writing < capacity) {
+                    break;
+                }
+                notFull.awaitUninterruptibly();
+            }
+            pending.put(chore, new Write(operation, new Chore(chore)));
+            if (pending.size() >= batchSize) {
+                batchReady.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runFlusher() {
+        long retryDelayNanos = 0;
+        while (true) {
+            lock.lock();
+            try {
+                if (retryDelayNanos > 0) {
+                    // Back off after a failure instead of retrying a failing repository in a loop
+                    long remaining = retryDelayNanos;
+                    while (!closed && remaining > 0) {
+                        remaining = batchReady.awaitNanos(remaining);
+                    }
+                } else if (!closed && pending.size() < batchSize) {
+                    batchReady.awaitNanos(flushIntervalNanos);
+                }
+                if (closed) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            if (writeBatch()) {
+                retryDelayNanos = 0;
+            } else {
+                retryDelayNanos = retryDelayNanos == 0
+                        ? flushIntervalNanos
+                        : Math.min(2 * retryDelayNanos, MAX_RETRY_INTERVALS * flushIntervalNanos);
+            }
+        }
+    }
+
+    /**
+     * Write the oldest pending chores, up to the batch size, in a single change set.
+     *
+     * @return TRUE, if the batch was written and FALSE when it must be retried
+     */
+    private boolean writeBatch() {
+        writeLock.lock();
+        try {
+            Map<Chore, Write> batch = takeBatch();
+            if (batch.isEmpty()) {
+                return Boolean.TRUE;
+            }
+            List<Chore> added = new ArrayList<>();
+            List<Chore> updated = new ArrayList<>();
+            Map<Chore, Chore> sent = new LinkedHashMap<>();
+            for (Map.Entry<Chore, Write> entry : batch.entrySet()) {
+                // A fresh copy for each attempt, so a failed attempt leaves nothing behind in the queue
+                Chore copy = new Chore(entry.getValue().chore);
+                (entry.getValue().operation == Operation.SAVE ? added : updated).add(copy);
+                sent.put(entry.getKey(), copy);
+            }
+            boolean ok;
+            try {
+                ok = repository.apply(new ChoreChangeSet(added, updated, Collections.emptyList()));
+            } catch (RuntimeException e) {
+                System.out.println("Error when writing the chores: " + e.getMessage());
+                ok = false;
+            }
+            complete(ok, batch, sent);
+            return ok;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Take the oldest pending chores. Updates enqueued before the insert of their chore was written
+     * take the id generated for it.
+     */
+    private Map<Chore, Write> takeBatch() {
+        Map<Chore, Write> batch = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            Iterator<Map.Entry<Chore, Write>> iterator = pending.entrySet().iterator();
+            while (iterator.hasNext() && batch.size() < batchSize) {
+                Map.Entry<Chore, Write> entry = iterator.next();
+                Write write = entry.getValue();
+                if (write.operation == Operation.UPDATE && Objects.isNull(write.chore.getId())) {
+                    Long generatedId = generatedIds.get(entry.getKey());
+                    write.chore.setId(Objects.nonNull(generatedId) ? generatedId : entry.getKey().getId());
+                }
+                batch.put(entry.getKey(), write);
+                iterator.remove();
+            }
+            writing = batch.size();
+        } finally {
+            lock.unlock();
+        }
+        return batch;
+    }
+
+    /**
+     * Record the result of a batch. A written batch leaves the ids generated for its inserts to be
+     * given back; a failed one is put back in front of the queue, merged with whatever was
+     * enqueued for its chores in the meantime. The batch counted against the capacity while it
+     * was written, so the queue stays within it.
+     */
+    private void complete(boolean ok, Map<Chore, Write> batch, Map<Chore, Chore> sent) {
+        lock.lock();
+        try {
+            writing = 0;
+            notFull.signalAll();
+            if (ok) {
+                written += batch.size();
+                for (Map.Entry<Chore, Write> entry : batch.entrySet()) {
+                    Long id = sent.get(entry.getKey()).getId();
+                    if (entry.getValue().operation == Operation.SAVE && Objects.nonNull(id)) {
+                        generatedIds.put(entry.getKey(), id);
+                    }
+                }
+                return;
+            }
+            failed += batch.size();
+            Map<Chore, Write> requeued = new LinkedHashMap<>(batch);
+            for (Map.Entry<Chore, Write> entry : pending.entrySet()) {
+                requeued.merge(entry.getKey(), entry.getValue(), Write::merge);
+            }
+            pending = requeued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Give the generated ids back to the chores still without id, on the calling thread.
+     */
+    private void publishIds() {
+        lock.lock();
+        try {
+            for (Map.Entry<Chore, Long> entry : generatedIds.entrySet()) {
+                if (Objects.isNull(entry.getKey().getId())) {
+                    entry.getKey().setId(entry.getValue());
+                }
+            }
+            generatedIds.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A pending write: the operation and the state of the chore when it was enqueued.
+     */
+    private static final class Write {
+
+        private final Operation operation;
+
+        private final Chore chore;
+
+        private Write(Operation operation, Chore chore) {
+            this.operation = operation;
+            this.chore = chore;
+        }
+
+        /**
+         * Merge with a later write of the same chore, keeping its state.
+         */
+        Write merge(Write next) {
+            return new Write(operation.merge(next.operation), next.chore);
+        }
+
+    }
+
+}
@@ -0,0 +1,14 @@
+package br.edu.unifalmg.repository.pool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Opens the physical connections used by the {@link ConnectionPool}.
+ */
+@FunctionalInterface
+public interface ConnectionFactory {
+
+    Connection connect() throws SQLException;
+
+}
@@ -0,0 +1,287 @@
+package br.edu.unifalmg.repository.pool;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded pool of JDBC connections.
+ * <p>
+ * Connections are opened on demand up to the maximum size and reused afterwards (most recently
+ * used first). Idle connections are validated before being borrowed when they were not checked
+ * during the validation interval, and closed when they stay idle longer than the idle timeout.
+ * When every connection is in use, borrowers wait up to the maximum wait.
+ * <p>
+ * The pool only uses {@link ReentrantLock}s, so it does not pin virtual threads, and no I/O
+ * (opening, validating or closing connections) is done while holding the lock.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    public static final Duration DEFAULT_MAX_WAIT = Duration.ofSeconds(30);
+
+    public static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(10);
+
+    public static final Duration DEFAULT_VALIDATION_INTERVAL = Duration.ofSeconds(30);
+
+    public static final int DEFAULT_STATEMENT_CACHE_SIZE = 32;
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final ConnectionFactory factory;
+
+    private final int maxSize;
+
+    private final long maxWaitNanos;
+
+    private final long idleTimeoutNanos;
+
+    private final long validationIntervalNanos;
+
+    private final int statementCacheSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition available = lock.newCondition();
+
+    /**
+     * Idle connections, the most recently returned first.
+     */
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+
+    /**
+     * Connections opened (or being opened) and not closed yet.
+     */
+    private int total;
+
+    private int waiting;
+
+    private boolean closed;
+
+    private long borrowed;
+
+    private long created;
+
+    private long evicted;
+
+    private long invalidated;
+
+    private long totalWaitNanos;
+
+    private long maxWaitedNanos;
+
+    public ConnectionPool(ConnectionFactory factory, int maxSize) {
+        this(factory, maxSize, DEFAULT_MAX_WAIT, DEFAULT_IDLE_TIMEOUT, DEFAULT_VALIDATION_INTERVAL, DEFAULT_STATEMENT_CACHE_SIZE);
+    }
+
+    /**
+     * @param factory Opens the physical connections
+     * @param maxSize Maximum number of open connections
+     * @param maxWait Maximum time to wait for a connection
+     * @param idleTimeout Idle time after which a connection is closed
+     * @param validationInterval Time after which an idle connection is validated before reuse
+     * @param statementCacheSize Maximum number of prepared statements cached per connection
+     */
+    public ConnectionPool(ConnectionFactory factory, int maxSize, Duration maxWait, Duration idleTimeout,
+                          Duration validationInterval, int statementCacheSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The pool size must be positive");
+        }
+        this.factory = Objects.requireNonNull(factory, "The connection factory cannot be null");
+        this.maxSize = maxSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.validationIntervalNanos = validationInterval.toNanos();
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    /**
+     * Borrow a connection. It must be closed to be given back to the pool.
+     *
+     * @throws SQLTimeoutException When no connection is available within the maximum wait
+     * @throws SQLException When the pool is closed or a new connection cannot be opened
+     */
+    public PooledConnection borrow() throws SQLException {
+        long start = System.nanoTime();
+        long deadline = start + maxWaitNanos;
+        while (true) {
+            PooledConnection candidate = null;
+            List<PooledConnection> expired = new ArrayList<>();
+            lock.lock();
+            try {
+                while (Objects.isNull(candidate)) {
+                    if (closed) {
+                        throw new SQLException("The connection pool is closed.");
+                    }
+                    collectExpired(System.nanoTime(), expired);
+                    candidate = idle.pollFirst();
+                    if (Objects.nonNull(candidate)) {
+                        break;
+                    }
+                    if (total < maxSize) {
+                        total++;
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new SQLTimeoutException("Timed out waiting for a database connection.");
+                    }
+                    waiting++;
+                    try {
+                        available.awaitNanos(remaining);
+                    } catch (InterruptedException exception) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection.", exception);
+                    } finally {
+                        waiting--;
+                    }
+                }
+            } finally {
+                lock.unlock();
+                destroyAll(expired);
+            }
+
+            if (Objects.isNull(candidate)) {
+                return open(start);
+            }
+            if (candidate.validate(validationIntervalNanos, VALIDATION_TIMEOUT_SECONDS)) {
+                recordBorrow(start, false);
+                candidate.lend();
+                return candidate;
+            }
+            discard(candidate, true);
+        }
+    }
+
+    /**
+     * Close the connections that stayed idle longer than the idle timeout.
+     */
+    public void evictIdle() {
+        List<PooledConnection> expired = new ArrayList<>();
+        lock.lock();
+        try {
+            collectExpired(System.nanoTime(), expired);
+        } finally {
+            lock.unlock();
+        }
+        destroyAll(expired);
+    }
+
+    public PoolMetrics metrics() {
+        lock.lock();
+        try {
+            return new PoolMetrics(total - idle.size(), idle.size(), waiting, borrowed, created,
+                    evicted, invalidated, totalWaitNanos, maxWaitedNanos);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Close the idle connections and refuse new borrows. Borrowed connections are closed when returned.
+     */
+    @Override
+    public void close() {
+        List<PooledConnection> connections;
+        lock.lock();
+        try {
+            closed = true;
+            connections = new ArrayList<>(idle);
+            total -= idle.size();
+            idle.clear();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        destroyAll(connections);
+    }
+
+    void release(PooledConnection connection) {
+        boolean reusable = connection.reset();
+        lock.lock();
+        try {
+            if (reusable && !closed) {
+                connection.touch();
+                idle.addFirst(connection);
+                available.signal();
+                return;
+            }
+            total--;
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        connection.destroy();
+    }
+
+    private PooledConnection open(long start) throws SQLException {
+        try {
+            PooledConnection connection = new PooledConnection(this, factory.connect(), statementCacheSize);
+            recordBorrow(start, true);
+            return connection;
+        } catch (SQLException | RuntimeException exception) {
+            lock.lock();
+            try {
+                total--;
+                available.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw exception;
+        }
+    }
+
+    private void discard(PooledConnection connection, boolean failedValidation) {
+        lock.lock();
+        try {
+            total--;
+            if (failedValidation) {
+                invalidated++;
+            }
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+        connection.destroy();
+    }
+
+    private void recordBorrow(long start, boolean opened) {
+        long waited = System.nanoTime() - start;
+        lock.lock();
+        try {
+            borrowed++;
+            if (opened) {
+                created++;
+            }
+            totalWaitNanos += waited;
+            maxWaitedNanos = Math.max(maxWaitedNanos, waited);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Move the expired idle connections to the given list. Must hold the lock.
+     * The oldest connections are at the end of the deque.
+     */
+    private void collectExpired(long now, List<PooledConnection> expired) {
+        while (!idle.isEmpty() && idle.peekLast().idleNanos(now) > idleTimeoutNanos) {
+            expired.add(idle.pollLast());
+            total--;
+            evicted++;
+        }
+    }
+
+    private static void destroyAll(List<PooledConnection> connections) {
+        for (PooledConnection connection : connections) {
+            connection.destroy();
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package br.edu.unifalmg.repository.pool;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Snapshot of the state and counters of a {@link ConnectionPool}.
+ */
+@Getter
+@AllArgsConstructor
+public class PoolMetrics {
+
+    /**
+     * Connections currently borrowed (or being opened).
+     */
+    private int active;
+
+    /**
+     * Connections waiting in the pool to be borrowed.
+     */
+    private int idle;
+
+    /**
+     * Threads waiting for a connection.
+     */
+    private int waiting;
+
+    private long borrowed;
+
+    private long created;
+
+    /**
+     * Connections closed because they stayed idle for too long.
+     */
+    private long evicted;
+
+    /**
+     * Connections closed because they failed the validation.
+     */
+    private long invalidated;
+
+    private long totalWaitNanos;
+
+    private long maxWaitNanos;
+
+    public long getAverageWaitNanos() {
+        return borrowed == 0 ? 0 : totalWaitNanos / borrowed;
+    }
+
+}
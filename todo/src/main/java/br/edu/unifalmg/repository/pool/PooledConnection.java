@@ -0,0 +1,179 @@
+package br.edu.unifalmg.repository.pool;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Connection borrowed from a {@link ConnectionPool}.
+ * <p>
+ * Keeps a cache of prepared statements, so the statements of the ChoreBook are prepared once
+ * per physical connection. The cached statements belong to the connection: callers must not
+ * close them, only their result sets. Closing this object gives the connection back to the pool.
+ */
+public class PooledConnection implements AutoCloseable {
+
+    private final ConnectionPool pool;
+
+    private final Connection connection;
+
+    private final Map<String, PreparedStatement> statements;
+
+    private long lastUsedNanos;
+
+    private long lastValidatedNanos;
+
+    /**
+     * Whether the current borrower already gave the connection back.
+     */
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    PooledConnection(ConnectionPool pool, Connection connection, int statementCacheSize) {
+        this.pool = pool;
+        this.connection = connection;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() <= statementCacheSize) {
+                    return false;
+                }
+                closeQuietly(eldest.getValue());
+                return true;
+            }
+        };
+        this.lastUsedNanos = System.nanoTime();
+        this.lastValidatedNanos = lastUsedNanos;
+    }
+
+    /**
+     * The physical connection, for transactions and plain statements.
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Get the cached statement for the SQL, preparing it on the first use.
+     * The parameters and pending batch of a cached statement are cleared before it is returned.
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        return prepare(sql, Statement.NO_GENERATED_KEYS);
+    }
+
+    /**
+     * Get the cached statement for the SQL, preparing it on the first use.
+     *
+     * @param autoGeneratedKeys {@link Statement#RETURN_GENERATED_KEYS} or {@link Statement#NO_GENERATED_KEYS}
+     */
+    public PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == Statement.RETURN_GENERATED_KEYS ? "+" + sql : sql;
+        PreparedStatement statement = statements.get(key);
+        if (Objects.isNull(statement) || statement.isClosed()) {
+            statement = connection.prepareStatement(sql, autoGeneratedKeys);
+            statements.put(key, statement);
+        } else {
+            statement.clearParameters();
+            statement.clearBatch();
+        }
+        return statement;
+    }
+
+    /**
+     * Force the validation of the connection before it is borrowed again,
+     * e.g. after an error that may have broken it.
+     */
+    public void requireValidation() {
+        lastValidatedNanos = Long.MIN_VALUE;
+    }
+
+    /**
+     * Give the connection back to the pool. Closing it again does nothing, so nested or
+     * defensive closes cannot return the same connection twice.
+     */
+    @Override
+    public void close() {
+        if (released.compareAndSet(false, true)) {
+            pool.release(this);
+        }
+    }
+
+    /**
+     * Hand the connection to a new borrower.
+     */
+    void lend() {
+        released.set(false);
+    }
+
+    void touch() {
+        lastUsedNanos = System.nanoTime();
+    }
+
+    long idleNanos(long now) {
+        return now - lastUsedNanos;
+    }
+
+    /**
+     * Check the connection with the database when it was not checked for longer than the interval.
+     */
+    boolean validate(long intervalNanos, int timeoutSeconds) {
+        long now = System.nanoTime();
+        if (lastValidatedNanos != Long.MIN_VALUE && now - lastValidatedNanos < intervalNanos) {
+            return true;
+        }
+        try {
+            if (connection.isValid(timeoutSeconds)) {
+                lastValidatedNanos = now;
+                return true;
+            }
+        } catch (SQLException exception) {
+            System.out.println("Error when validating a database connection.");
+        }
+        return false;
+    }
+
+    /**
+     * Leave the connection ready for the next borrower.
+     *
+     * @return FALSE when the connection cannot be reused
+     */
+    boolean reset() {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException exception) {
+            return false;
+        }
+    }
+
+    void destroy() {
+        for (PreparedStatement statement : statements.values()) {
+            closeQuietly(statement);
+        }
+        statements.clear();
+        try {
+            connection.close();
+        } catch (SQLException exception) {
+            System.out.println("Error when closing database connections. ");
+        }
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException exception) {
+            System.out.println("Error when closing a cached statement.");
+        }
+    }
+
+}
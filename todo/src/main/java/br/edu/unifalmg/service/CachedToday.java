@@ -0,0 +1,61 @@
+package br.edu.unifalmg.service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * The current date of a clock, computed again only when the day changes.
+ * <p>
+ * {@link LocalDate#now(Clock)} converts the instant to the clock's time zone on every call; here a
+ * call only reads the clock's millis and compares them to the bounds of the cached day. The
+ * cache is also refreshed when the clock goes back, so adjustable clocks used by tests work.
+ * Safe to use from several threads.
+ */
+final class CachedToday {
+
+    private final Clock clock;
+
+    private volatile Day day;
+
+    /**
+     * @param clock The clock to read. NULL for the system clock, in the default time zone.
+     */
+    CachedToday(Clock clock) {
+        this.clock = Objects.isNull(clock) ? Clock.systemDefaultZone() : clock;
+    }
+
+    Clock getClock() {
+        return clock;
+    }
+
+    LocalDate get() {
+        long now = clock.millis();
+        Day current = day;
+        if (Objects.isNull(current) || now < current.start || now >= current.end) {
+            current = new Day(LocalDate.now(clock), clock);
+            day = current;
+        }
+        return current.date;
+    }
+
+    private static final class Day {
+
+        private final LocalDate date;
+
+        /**
+         * First and last (exclusive) millis of the day, in the clock's time zone.
+         */
+        private final long start;
+
+        private final long end;
+
+        private Day(LocalDate date, Clock clock) {
+            this.date = date;
+            this.start = date.atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+            this.end = date.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+        }
+
+    }
+
+}
@@ -0,0 +1,84 @@
+package br.edu.unifalmg.service;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.store.ChoreKey;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Result of a bulk operation of {@link ChoreService}: one item per requested chore, in the
+ * order of the request, holding either the chore or the exception the single operation
+ * would have thrown.
+ */
+@Getter
+public class ChoreBatchReport {
+
+    private final List<Item> items;
+
+    /**
+     * Whether the changed chores were written to the repository in one call.
+     * FALSE when nothing changed, there is no repository or the write failed.
+     */
+    private final boolean persisted;
+
+    ChoreBatchReport(List<Item> items, boolean persisted) {
+        this.items = Collections.unmodifiableList(new ArrayList<>(items));
+        this.persisted = persisted;
+    }
+
+    public List<Chore> getSucceeded() {
+        return items.stream().filter(Item::isSuccessful).map(Item::getChore).collect(Collectors.toList());
+    }
+
+    public List<Item> getFailed() {
+        return items.stream().filter(item -> !item.isSuccessful()).collect(Collectors.toList());
+    }
+
+    public boolean isSuccessful() {
+        return items.stream().allMatch(Item::isSuccessful);
+    }
+
+    public static class Item {
+
+        private final ChoreKey request;
+
+        /**
+         * The chore added, toggled or deleted. NULL when the item failed.
+         */
+        private final Chore chore;
+
+        /**
+         * Why the item failed. NULL when it succeeded.
+         */
+        private final RuntimeException error;
+
+        Item(ChoreKey request, Chore chore, RuntimeException error) {
+            this.request = request;
+            this.chore = chore;
+            this.error = error;
+        }
+
+        public ChoreKey getRequest() {
+            return request;
+        }
+
+        public Chore getChore() {
+            return chore;
+        }
+
+        public RuntimeException getError() {
+            return error;
+        }
+
+        public boolean isSuccessful() {
+            return Objects.isNull(error);
+        }
+
+    }
+
+}
@@ -0,0 +1,38 @@
+package br.edu.unifalmg.service;
+
+import br.edu.unifalmg.domain.Chore;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of an import of chores, each list in the order of the source.
+ */
+@Getter
+public class ChoreImportReport {
+
+    /**
+     * The valid chores, or the chores added to the service once merged.
+     */
+    private final List<Chore> imported;
+
+    /**
+     * Chores without a description or a deadline.
+     */
+    private final List<Chore> rejected;
+
+    /**
+     * Valid chores left out because the service already had a chore with the same
+     * description and deadline.
+     */
+    private final List<Chore> duplicated;
+
+    ChoreImportReport(List<Chore> imported, List<Chore> rejected, List<Chore> duplicated) {
+        this.imported = Collections.unmodifiableList(new ArrayList<>(imported));
+        this.rejected = Collections.unmodifiableList(new ArrayList<>(rejected));
+        this.duplicated = Collections.unmodifiableList(new ArrayList<>(duplicated));
+    }
+
+}
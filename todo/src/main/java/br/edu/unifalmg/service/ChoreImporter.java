@@ -0,0 +1,64 @@
+package br.edu.unifalmg.service;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.repository.ChoreRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Loads large amounts of chores with several threads.
+ * <p>
+ * The repository reads or parses its input in parallel (see {@link ChoreRepository#load(ForkJoinPool)}),
+ * then the chores are validated in parallel on the same pool. The order of the chores is kept
+ * all along, so an import always gives the same list.
+ */
+public class ChoreImporter {
+
+    private final int parallelism;
+
+    public ChoreImporter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism Number of threads reading and validating the chores
+     */
+    public ChoreImporter(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("The parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Load and validate the chores of the repository.
+     * A chore is valid when it has a description and a deadline.
+     *
+     * @return ChoreImportReport The valid and the rejected chores, in the order of the repository
+     */
+    public ChoreImportReport load(ChoreRepository repository) {
+        ForkJoinPool workers = new ForkJoinPool(parallelism);
+        try {
+            List<Chore> loaded = repository.load(workers);
+            if (Objects.isNull(loaded)) {
+                return new ChoreImportReport(List.of(), List.of(), List.of());
+            }
+            Map<Boolean, List<Chore>> validated = workers.submit(() -> loaded.parallelStream()
+                    .collect(Collectors.partitioningBy(ChoreImporter::isValid))).join();
+            return new ChoreImportReport(validated.get(true), validated.get(false), List.of());
+        } finally {
+            workers.shutdown();
+        }
+    }
+
+    private static boolean isValid(Chore chore) {
+        return Objects.nonNull(chore)
+                && Objects.nonNull(chore.getDescription()) && !chore.getDescription().isEmpty()
+                && Objects.nonNull(chore.getDeadline());
+    }
+
+}
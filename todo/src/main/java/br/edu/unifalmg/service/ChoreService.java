@@ -1,49 +1,89 @@
 package br.edu.unifalmg.service;
 
 import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.domain.ChoreTable;
 import br.edu.unifalmg.enumerator.ChoreFilter;
 import br.edu.unifalmg.exception.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
 
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import br.edu.unifalmg.repository.ChoreChangeSet;
 import br.edu.unifalmg.repository.ChoreRepository;
+import br.edu.unifalmg.store.ChoreKey;
+import br.edu.unifalmg.store.ChoreQuery;
+import br.edu.unifalmg.store.ChoreStatistics;
+import br.edu.unifalmg.store.ChoreStore;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import lombok.Getter;
 
 
 public class ChoreService  {
+
     /**
-     * -- GETTER --
-     *  Get the added chores.
-     *
-     * @return List<Chore> The chores added until now.
+     * Used to size the buffer of printChores, to avoid growing it several times.
+     */
+    private static final int ESTIMATED_LINE_LENGTH = 64;
+
+    private final ChoreStore chores;
+
+    /**
+     * Holds the chores once they are compacted, instead of the store. NULL until then.
      */
-    @Getter
-    private List<Chore> chores;
+    private ChoreTable table;
 
     private ObjectMapper objectMapper;
 
     private ChoreRepository repository;
 
+    /**
+     * The current date used by every validation, read from the clock of the service.
+     */
+    private final CachedToday today;
+
     public ChoreService(ChoreRepository choreRepository) {
+        this(choreRepository, null);
+    }
 
-        chores = new ArrayList<>();
+    /**
+     * @param choreRepository Where the chores are saved
+     * @param clock The clock giving the current date. NULL for the system clock.
+     */
+    public ChoreService(ChoreRepository choreRepository, Clock clock) {
+        chores = new ChoreStore();
         objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
         this.repository = choreRepository;
+        this.today = new CachedToday(clock);
     }
 
     public ChoreService () {
-        this.chores = new ArrayList<>();
+        this.chores = new ChoreStore();
+        this.today = new CachedToday(null);
+    }
+
+    /**
+     * Get the added chores.
+     * The returned list is backed by the service's store, in insertion order. Once the chores
+     * are compacted, it is a read-only list of views of the table, in row order.
+     *
+     * @return List<Chore> The chores added until now.
+     */
+    public List<Chore> getChores() {
+        return Objects.isNull(table) ? chores : table.asList();
     }
 
     /**
@@ -57,17 +97,93 @@ public class ChoreService  {
      * @throws DuplicatedChoreException When the given chore already exists
      */
     public Chore addChore(String description, LocalDate deadline) {
+        Chore chore = insert(newChore(description, deadline));
+        if (repository.save(chore)) {
+            chores.clearChanges(chore);
+        }
+        return chore;
+    }
+
+    /**
+     * Add many chores at once. Each chore is checked like in {@link #addChore(String, LocalDate)},
+     * against the existing chores and the previous ones of the batch, and the added chores are
+     * saved with a single call to {@link ChoreRepository#apply}.
+     *
+     * @param requested The description and deadline of each chore
+     * @return ChoreBatchReport The new chore or the reason it was not added, for each requested chore
+     */
+    public ChoreBatchReport addChores(List<ChoreKey> requested) {
+        List<ChoreBatchReport.Item> items = new ArrayList<>(requested.size());
+        List<Chore> added = new ArrayList<>();
+        for (ChoreKey key : requested) {
+            try {
+                // Once held, the chore is found by the duplicate check of the next ones
+                Chore chore = insert(newChore(key.getDescription(), key.getDeadline()));
+                added.add(chore);
+                items.add(new ChoreBatchReport.Item(key, chore, null));
+            } catch (RuntimeException exception) {
+                items.add(new ChoreBatchReport.Item(key, null, exception));
+            }
+        }
+        return new ChoreBatchReport(items, persist(new ChoreChangeSet(added, List.of(), List.of())));
+    }
+
+    /**
+     * Toggle many chores at once, like {@link #toggleChore(String, LocalDate)}, and update them
+     * with a single call to {@link ChoreRepository#apply}.
+     *
+     * @return ChoreBatchReport The toggled chore or the reason it was not toggled, for each requested chore
+     */
+    public ChoreBatchReport toggleChores(List<ChoreKey> requested) {
+        List<ChoreBatchReport.Item> items = new ArrayList<>(requested.size());
+        Set<Chore> toggled = new LinkedHashSet<>();
+        for (ChoreKey key : requested) {
+            try {
+                Chore chore = toggleChore(key.getDescription(), key.getDeadline());
+                toggled.add(chore);
+                items.add(new ChoreBatchReport.Item(key, chore, null));
+            } catch (RuntimeException exception) {
+                items.add(new ChoreBatchReport.Item(key, null, exception));
+            }
+        }
+        return new ChoreBatchReport(items, persist(new ChoreChangeSet(List.of(), toggled, List.of())));
+    }
+
+    /**
+     * Delete many chores at once, like {@link #deleteChore(String, LocalDate)}, and remove them
+     * from the repository with a single call to {@link ChoreRepository#apply}.
+     *
+     * @return ChoreBatchReport The deleted chore or the reason it was not deleted, for each requested chore
+     */
+    public ChoreBatchReport deleteChores(List<ChoreKey> requested) {
+        List<ChoreBatchReport.Item> items = new ArrayList<>(requested.size());
+        List<Chore> deleted = new ArrayList<>();
+        for (ChoreKey key : requested) {
+            try {
+                Chore chore = findChore(key.getDescription(), key.getDeadline());
+                if (Objects.nonNull(chore) && Objects.nonNull(table)) {
+                    // The row of a compacted chore is reused once deleted, so keep its values
+                    chore = new Chore(chore);
+                }
+                deleteChore(key.getDescription(), key.getDeadline());
+                deleted.add(chore);
+                items.add(new ChoreBatchReport.Item(key, chore, null));
+            } catch (RuntimeException exception) {
+                items.add(new ChoreBatchReport.Item(key, null, exception));
+            }
+        }
+        return new ChoreBatchReport(items, persist(new ChoreChangeSet(List.of(), List.of(), deleted)));
+    }
+
+    private Chore newChore(String description, LocalDate deadline) {
         if (Objects.isNull(description) || description.isEmpty()) {
             throw new InvalidDescriptionException("The description cannot be null or empty");
         }
-        if (Objects.isNull(deadline) || deadline.isBefore(LocalDate.now())) {
+        if (Objects.isNull(deadline) || deadline.isBefore(today.get())) {
             throw new InvalidDeadlineException("The deadline cannot be null or before the current date");
         }
-        for (Chore chore : chores) {
-            if (chore.getDescription().equals(description)
-                    && chore.getDeadline().isEqual(deadline)) {
-                throw new DuplicatedChoreException("The given chore already exists.");
-            }
+        if (isChoreExist(description, deadline)) {
+            throw new DuplicatedChoreException("The given chore already exists.");
         }
 
 //         Using anyMatch solution
@@ -96,11 +212,28 @@ public class ChoreService  {
 //         chore.setDeadline(deadline);
 //         chore.setIsCompleted(Boolean.FALSE);
 
-        chores.add(chore);
-        repository.save(chore);
         return chore;
     }
 
+    /**
+     * Write the changes of a bulk operation. On success they are no longer pending for saveChores.
+     */
+    private boolean persist(ChoreChangeSet changes) {
+        if (changes.isEmpty() || Objects.isNull(repository) || !repository.apply(changes)) {
+            return false;
+        }
+        for (Chore chore : changes.getAdded()) {
+            chores.clearChanges(chore);
+        }
+        for (Chore chore : changes.getUpdated()) {
+            chores.clearChanges(chore);
+        }
+        for (Chore chore : changes.getDeleted()) {
+            chores.clearChanges(chore);
+        }
+        return true;
+    }
+
     /**
      * Method to delete a given chore.
      *
@@ -108,17 +241,19 @@ public class ChoreService  {
      * @param deadline The deadline of the chore
      */
     public void deleteChore(String description, LocalDate deadline) {
-        if (isChoreListEmpty.test(this.chores)) {
+        if (isChoreListEmpty.test(getChores())) {
             throw new EmptyChoreListException("Unable to remove a chore from an empty list");
         }
-        boolean isChoreExist = this.chores.stream().anyMatch((chore -> chore.getDescription().equals(description)
-            && chore.getDeadline().isEqual(deadline)));
-        if (!isChoreExist) {
+        Chore chore = findChore(description, deadline);
+        if (Objects.isNull(chore)) {
             throw new ChoreNotFoundException("The given chore does not exist.");
         }
 
-        this.chores = this.chores.stream().filter(chore -> !chore.getDescription().equals(description)
-                && !chore.getDeadline().isEqual(deadline)).collect(Collectors.toList());
+        if (Objects.isNull(table)) {
+            this.chores.remove(chore);
+        } else {
+            table.remove(chore);
+        }
     }
 
     /**
@@ -127,57 +262,239 @@ public class ChoreService  {
      *
      * @param description The chore's description
      * @param deadline The deadline to complete the chore
+     * @return Chore The toggled chore, to be persisted with {@link #updateChore(Chore)}
      * @throws ChoreNotFoundException When the chore is not found on the list
      */
-    public void toggleChore(String description, LocalDate deadline) {
-        if (!isChoreExist(description, deadline)) {
+    public Chore toggleChore(String description, LocalDate deadline) {
+        Chore chore = findChore(description, deadline);
+        if (Objects.isNull(chore)) {
             throw new ChoreNotFoundException("Chore not found. Impossible to toggle!");
         }
 
-        this.chores = this.chores.stream().map(chore -> {
-            if (!chore.getDescription().equals(description) && !chore.getDeadline().isEqual(deadline)) {
-                return chore;
-            }
-            if (chore.getDeadline().isBefore(LocalDate.now())
-                    && chore.getIsCompleted()) {
-                throw new ToggleChoreWithInvalidDeadlineException("Unable to toggle a completed chore with a past deadline");
-            }
-            chore.setIsCompleted(!chore.getIsCompleted());
-            return chore;
-        }).collect(Collectors.toList());
+        if (chore.getDeadline().isBefore(today.get())
+                && chore.getIsCompleted()) {
+            throw new ToggleChoreWithInvalidDeadlineException("Unable to toggle a completed chore with a past deadline");
+        }
+        chore.setIsCompleted(!chore.getIsCompleted());
+        return chore;
     }
 
+    /**
+     * Filter the chores using the store's secondary indexes, or the columns of the table once
+     * the chores are compacted.
+     *
+     * @param filter The filter to be applied
+     * @return List<Chore> The filtered chores. OVERDUE chores are ordered by deadline.
+     */
     public List<Chore> filterChores(ChoreFilter filter) {
+        if (filter == ChoreFilter.ALL) {
+            return getChores();
+        }
+        if (Objects.isNull(table)) {
+            return queryChores(filterQuery(filter, today.get()));
+        }
+        switch (filter) {
+            case COMPLETED:
+                return table.findByStatus(true);
+            case UNCOMPLETED:
+                return table.findByStatus(false);
+            case OVERDUE:
+            default:
+                List<Chore> overdue = table.findDueBefore(today.get(), Boolean.FALSE);
+                overdue.sort(filterQuery(filter, today.get()).deadlineComparator());
+                return overdue;
+        }
+    }
+
+    /**
+     * The query selecting the chores of the filter, shared with {@link ConcurrentChoreService}.
+     */
+    static ChoreQuery filterQuery(ChoreFilter filter, LocalDate today) {
         switch (filter) {
             case COMPLETED:
-                return this.chores.stream().filter(Chore::getIsCompleted).collect(Collectors.toList());
+                return ChoreQuery.builder().isCompleted(Boolean.TRUE).build();
             case UNCOMPLETED:
-                return this.chores.stream().filter(chore -> !chore.getIsCompleted()).collect(Collectors.toList());
+                return ChoreQuery.builder().isCompleted(Boolean.FALSE).build();
+            case OVERDUE:
+                return ChoreQuery.builder()
+                        .isCompleted(Boolean.FALSE)
+                        .dueBefore(today)
+                        .orderBy(ChoreQuery.Order.DEADLINE)
+                        .build();
             case ALL:
             default:
-                return this.chores;
+                return ChoreQuery.all();
+        }
+    }
+
+    /**
+     * Select the chores with a query, answered by the store's indexes. Once the chores are
+     * compacted, every row of the table is checked.
+     *
+     * @return List<Chore> The page of matching chores, in the order of the query
+     */
+    public List<Chore> queryChores(ChoreQuery query) {
+        Objects.requireNonNull(query, "The query cannot be null");
+        if (Objects.nonNull(table)) {
+            return query.select(table.asList().stream());
+        }
+        return this.chores.query(query);
+    }
+
+    /**
+     * Count the chores matching the query, without building the list of chores.
+     */
+    public int countChores(ChoreQuery query) {
+        Objects.requireNonNull(query, "The query cannot be null");
+        if (Objects.nonNull(table)) {
+            return (int) table.asList().stream().filter(query::matches).count();
+        }
+        return this.chores.count(query);
+    }
+
+    /**
+     * Get the counters of the chores: total, completed, uncompleted and overdue today.
+     * They are kept up to date by the store on every change, so nothing is listed or copied.
+     * Once the chores are compacted, the overdue chores are counted on the columns of the table.
+     */
+    public ChoreStatistics statistics() {
+        if (Objects.nonNull(table)) {
+            return new ChoreStatistics(today.get(), table.size(), table.countByStatus(true),
+                    table.countByStatus(false), table.countDueBefore(today.get(), Boolean.FALSE));
+        }
+        return this.chores.statistics(today.get());
+    }
+
+    /**
+     * Count the chores due on each day of the range, leaving out the days without chores.
+     *
+     * @param from The first day (inclusive). NULL for no lower bound.
+     * @param to The end of the range (exclusive). NULL for no upper bound.
+     * @param isCompleted The status of the chores. NULL for any status.
+     */
+    public SortedMap<LocalDate, Integer> countChoresByDay(LocalDate from, LocalDate to, Boolean isCompleted) {
+        if (Objects.nonNull(table)) {
+            return table.countDueByDay(from, to, isCompleted);
+        }
+        return this.chores.countDueByDay(from, to, isCompleted);
+    }
+
+    /**
+     * Count the chores due on each week, keyed by the first day (Monday) of the week,
+     * for the weeks starting from the week of the first day until the end of the range.
+     *
+     * @param isCompleted The status of the chores. NULL for any status.
+     */
+    public SortedMap<LocalDate, Integer> countChoresByWeek(LocalDate from, LocalDate to, Boolean isCompleted) {
+        if (Objects.nonNull(table)) {
+            SortedMap<LocalDate, Integer> weeks = ChoreStatistics.byWeek(
+                    table.countDueByDay(Objects.isNull(from) ? null : ChoreStatistics.weekOf(from), null, isCompleted));
+            return Objects.isNull(to) ? weeks : weeks.headMap(to);
+        }
+        return this.chores.countDueByWeek(from, to, isCompleted);
+    }
+
+    /**
+     * Get the chores with a deadline before the given date.
+     *
+     * @param date The date (exclusive)
+     * @return List<Chore> The chores, ordered by deadline
+     */
+    public List<Chore> filterChoresDueBefore(LocalDate date) {
+        if (Objects.isNull(date)) {
+            throw new InvalidDeadlineException("The date cannot be null");
+        }
+        if (Objects.nonNull(table)) {
+            List<Chore> due = table.findDueBefore(date);
+            due.sort(ChoreQuery.builder().orderBy(ChoreQuery.Order.DEADLINE).build().deadlineComparator());
+            return due;
+        }
+        return this.chores.findDueBefore(date);
+    }
+
+    /**
+     * Search the chores by the words of their descriptions, ignoring case and accents.
+     * Every word of the query must match; a word ending with '*' is a prefix.
+     *
+     * @param query The words to search, e.g. "limp* caixa"
+     * @return List<Chore> The chores found, in the order they were added
+     */
+    public List<Chore> searchChores(String query) {
+        if (Objects.nonNull(table)) {
+            ChoreQuery words = ChoreQuery.builder().text(query).build();
+            return words.hasText() ? queryChores(words) : new ArrayList<>();
         }
+        return this.chores.search(query);
     }
 
     public String printChores () {
-        if (isChoreListEmpty.test(getChores()))
+        return printChores(getChores());
+    }
+
+    /**
+     * Print the chores, one per line, and return the printed text. Shared with {@link ConcurrentChoreService}.
+     */
+    static String printChores (List<Chore> chores) {
+        if (chores.isEmpty())
         {
             throw new EmptyChoreListException("No chores at the moment");
         }
-        String allChores = getChores().stream().map(Chore::toString).collect(Collectors.joining("\n"));
+        StringBuilder builder = new StringBuilder(chores.size() * ESTIMATED_LINE_LENGTH);
+        try {
+            writeChores(chores, builder);
+        } catch (IOException exception) {
+            // A StringBuilder does not throw
+            throw new UncheckedIOException(exception);
+        }
+        String allChores = builder.toString();
         System.out.println(allChores);
         return allChores;
     }
 
-    //
-    public void editChore (String description, LocalDate deadline, String newDescription) {
+    /**
+     * Write the chores, one per line, straight to the output: the same text printChores returns,
+     * without building it in memory. Use a buffered output (e.g. a BufferedWriter) for large lists.
+     *
+     * @param out Where the chores are written
+     */
+    public void writeChores (Appendable out) throws IOException {
+        writeChores(getChores(), out);
+    }
+
+    private static void writeChores (Iterable<Chore> chores, Appendable out) throws IOException {
+        boolean first = true;
+        for (Chore chore : chores) {
+            if (!first) {
+                out.append('\n');
+            }
+            chore.appendTo(out);
+            first = false;
+        }
+    }
+
+    /**
+     * Get the lines printed by printChores, rendered only when they are consumed.
+     *
+     * @return Stream<String> One line per chore
+     */
+    public Stream<String> choreLines () {
+        return getChores().stream().map(Chore::toString);
+    }
+
+    /**
+     * Change the description of a chore. Only the chore is changed, in place.
+     *
+     * @return Chore The edited chore, to be persisted with {@link #updateChore(Chore)}
+     */
+    public Chore editChore (String description, LocalDate deadline, String newDescription) {
 
           if (Objects.isNull(newDescription) || newDescription.isEmpty())
           {
              throw new InvalidDescriptionException("The description cannot be null or empty");
           }
 
-          if (!isChoreExist(description, deadline))
+          Chore chore = findChore(description, deadline);
+          if (Objects.isNull(chore))
           {
                throw new ChoreNotFoundException("Unable to edit a chore description that does not exist");
           }
@@ -187,30 +504,29 @@ public class ChoreService  {
             throw new DuplicatedChoreException("The chore already exists");
           }
 
-        chores = getChores().stream().map(chore -> {
-                    if (!chore.getDescription().equals(description) && !chore.getDeadline().isEqual(deadline))
-                    {
-                        return chore;
-                    }
-
-                    if(chore.getIsCompleted())
-                    {
-                        throw new EditChoreWithCompletedStatusException("Unable to edit chore that is already completed");
-                    }
+          if(chore.getIsCompleted())
+          {
+              throw new EditChoreWithCompletedStatusException("Unable to edit chore that is already completed");
+          }
 
-                    chore.setDescription(newDescription);
-                    return chore;
-                }
-        ).collect(Collectors.toList());
+          chore.setDescription(newDescription);
+          return chore;
     }
-    public void editChore (String description, LocalDate deadline, LocalDate newDeadline) {
 
-        if (Objects.isNull(newDeadline) || newDeadline.isBefore(LocalDate.now()))
+    /**
+     * Change the deadline of a chore. Only the chore is changed, in place.
+     *
+     * @return Chore The edited chore, to be persisted with {@link #updateChore(Chore)}
+     */
+    public Chore editChore (String description, LocalDate deadline, LocalDate newDeadline) {
+
+        if (Objects.isNull(newDeadline) || newDeadline.isBefore(today.get()))
         {
             throw new InvalidDeadlineException("The deadline cannot be null or before the current date");
         }
 
-        if (!isChoreExist(description, deadline))
+        Chore chore = findChore(description, deadline);
+        if (Objects.isNull(chore))
         {
             throw new ChoreNotFoundException("Unable to edit a chore deadline that does not exist");
         }
@@ -220,39 +536,119 @@ public class ChoreService  {
             throw new DuplicatedChoreException("The chore already exists");
         }
 
-        chores = getChores().stream().map(chore -> {
-            if (!chore.getDescription().equals(description) && !chore.getDeadline().isEqual(deadline))
-            {
-                return chore;
-            }
-
-            if(chore.getIsCompleted())
-            {
-                throw new EditChoreWithCompletedStatusException("Unable to edit chore that is already completed");
-            }
-
-            chore.setDeadline(newDeadline);
-            return chore;
+        if(chore.getIsCompleted())
+        {
+            throw new EditChoreWithCompletedStatusException("Unable to edit chore that is already completed");
+        }
 
-           }
-        ).collect(Collectors.toList());
+        chore.setDeadline(newDeadline);
+        return chore;
     }
     /**
-     * Load the chores from the repository.
+     * Load the chores from the repository, into the store even when they were compacted.
      * The repository can return NULL if no chores are found.
+     * From then on, saveChores only writes the changes.
      */
     public void loadChores() {
-        this.chores = repository.load();
+        this.table = null;
+        this.chores.reset(repository.load());
+        this.chores.trackChanges();
+    }
+
+    /**
+     * Create a scheduler notifying the due and overdue chores of the service as the days go by.
+     * It follows the chores added, changed and deleted afterwards.
+     *
+     * @throws IllegalStateException When the chores are compacted, since the scheduler reads the store's indexes
+     */
+    public DeadlineScheduler deadlineScheduler() {
+        if (Objects.nonNull(table)) {
+            throw new IllegalStateException("The compacted chores cannot be scheduled");
+        }
+        return new DeadlineScheduler(chores, today.getClock());
+    }
+
+    /**
+     * Load the chores of the repository with several threads and add them after the current
+     * chores, in the order of the repository. Chores without a description or a deadline, and
+     * chores that already exist, are left out and reported.
+     *
+     * @param importer Holds the number of threads to use
+     * @return ChoreImportReport The added, rejected and duplicated chores
+     */
+    public ChoreImportReport importChores(ChoreImporter importer) {
+        ChoreImportReport loaded = importer.load(repository);
+        List<Chore> imported = new ArrayList<>(loaded.getImported().size());
+        List<Chore> duplicated = new ArrayList<>();
+        for (Chore chore : loaded.getImported()) {
+            if (isChoreExist(chore.getDescription(), chore.getDeadline())) {
+                duplicated.add(chore);
+            } else {
+                imported.add(insert(chore));
+            }
+        }
+        // The imported chores come from the repository, so they are already saved
+        for (Chore chore : imported) {
+            chores.clearChanges(chore);
+        }
+        return new ChoreImportReport(imported, loaded.getRejected(), duplicated);
     }
 
     /**
-     * Save the chores into the file
+     * Move the added chores into a columnar {@link ChoreTable}, which holds them instead of the
+     * store until the chores are loaded again. Chores added afterwards go to the table as well.
+     * The lookups and the filters run on the columns of the table and hand out views of its rows;
+     * queries, searches and printing read every row, since the table has no secondary indexes.
+     * The store's change tracking is dropped, so each saveChores writes every chore.
+     *
+     * @return ChoreTable The table holding the chores
+     */
+    public ChoreTable compactChores() {
+        if (Objects.isNull(table)) {
+            table = ChoreTable.of(chores);
+            chores.reset(null);
+        }
+        return table;
+    }
+
+    /**
+     * Save the chores into the file.
+     * The first save writes every chore; once the chores were loaded or saved, only the chores
+     * added, changed or deleted since then are written, through {@link ChoreRepository#apply}.
+     * Changed or deleted chores without id (e.g. loaded from a file saved without ids) cannot be
+     * matched by the repository, so every chore is written again instead, as are compacted chores.
+     * When the save fails, the changes are kept for the next one.
      *
      * @return TRUE, if the saved was completed and <br/>
      *         FALSE, when the save fails
      */
     public Boolean saveChores() {
-        return repository.saveAll(this.chores);
+        if (Objects.nonNull(table)) {
+            return repository.saveAll(table.asList());
+        }
+        if (chores.isTrackingChanges()) {
+            ChoreChangeSet changes = chores.changes();
+            if (changes.isEmpty()) {
+                return Boolean.TRUE;
+            }
+            if (!hasChoreWithoutId(changes)) {
+                boolean applied = repository.apply(changes);
+                if (applied) {
+                    chores.clearChanges();
+                }
+                return applied;
+            }
+        }
+        boolean saved = repository.saveAll(this.chores);
+        if (saved) {
+            chores.trackChanges();
+        }
+        return saved;
+    }
+
+    private static boolean hasChoreWithoutId(ChoreChangeSet changes) {
+        return changes.getUpdated().stream().anyMatch(chore -> Objects.isNull(chore.getId()))
+                || changes.getDeleted().stream().anyMatch(chore -> Objects.isNull(chore.getId()));
     }
 
     /**
@@ -268,7 +664,24 @@ public class ChoreService  {
 
     private final Predicate<List<Chore>> isChoreListEmpty = List::isEmpty;
     private boolean isChoreExist (String description, LocalDate deadline) {
-       return getChores().stream().anyMatch((chore) -> chore.getDescription().equals(description) && chore.getDeadline().isEqual(deadline));
+       return Objects.isNull(table) ? chores.contains(description, deadline) : table.contains(description, deadline);
+    }
+
+    private Chore findChore (String description, LocalDate deadline) {
+        return Objects.isNull(table) ? chores.find(description, deadline) : table.find(description, deadline);
+    }
+
+    /**
+     * Add the chore to the store, or to the table once compacted.
+     *
+     * @return Chore The chore as it is held: itself, or the view of its row
+     */
+    private Chore insert (Chore chore) {
+        if (Objects.nonNull(table)) {
+            return table.add(chore);
+        }
+        chores.add(chore);
+        return chore;
     }
 
 
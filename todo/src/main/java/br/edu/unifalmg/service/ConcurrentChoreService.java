@@ -0,0 +1,311 @@
+package br.edu.unifalmg.service;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.enumerator.ChoreFilter;
+import br.edu.unifalmg.exception.*;
+import br.edu.unifalmg.repository.ChoreRepository;
+import br.edu.unifalmg.store.ChoreKey;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe variant of {@link ChoreService}, with the same rules and exceptions.
+ * <p>
+ * The chores are kept in a {@link ConcurrentHashMap} keyed by (description, deadline), and
+ * every operation that checks a key and then acts on it (add, toggle, edit, delete) holds the
+ * lock of the key's stripe: among concurrent adds of the same chore exactly one wins and the
+ * others get a {@link DuplicatedChoreException}, while operations on unrelated chores run in
+ * parallel. An edit that moves a chore to a new key locks both stripes, always in the same order.
+ * <p>
+ * A chore is never changed once it is in the maps: toggle and edit put a changed copy in its
+ * place and return it, and the id given by the repository comes in a copy as well. The maps
+ * publish each copy safely, so reads never lock and never see a half edited chore: getChores
+ * and the filters work on a snapshot of the chores in insertion order, and a chore returned
+ * earlier keeps the state it had.
+ * <p>
+ * When a repository is given, every change is written through to it (save, update or delete)
+ * while the lock of the chore's key is held, so the writes of a chore reach the repository in
+ * the order they were made and an update always carries the id given by the save. The
+ * repository must be thread-safe itself.
+ */
+public class ConcurrentChoreService {
+
+    private static final int DEFAULT_STRIPES = 64;
+
+    private final ConcurrentMap<ChoreKey, Entry> byKey = new ConcurrentHashMap<>();
+
+    /**
+     * The chores in insertion order, used by the reads.
+     */
+    private final ConcurrentSkipListMap<Long, Chore> bySequence = new ConcurrentSkipListMap<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final ReentrantLock[] locks;
+
+    private final ChoreRepository repository;
+
+    private final CachedToday today;
+
+    public ConcurrentChoreService() {
+        this(null);
+    }
+
+    public ConcurrentChoreService(ChoreRepository repository) {
+        this(repository, DEFAULT_STRIPES);
+    }
+
+    /**
+     * @param repository Where the changes are written. NULL to keep the chores only in memory.
+     * @param stripes Number of locks shared by the keys, rounded up to a power of two
+     */
+    public ConcurrentChoreService(ChoreRepository repository, int stripes) {
+        this(repository, stripes, null);
+    }
+
+    /**
+     * @param repository Where the changes are written. NULL to keep the chores only in memory.
+     * @param stripes Number of locks shared by the keys, rounded up to a power of two
+     * @param clock The clock giving the current date. NULL for the system clock.
+     */
+    public ConcurrentChoreService(ChoreRepository repository, int stripes, Clock clock) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("The number of stripes must be positive");
+        }
+        int size = Integer.highestOneBit(stripes);
+        if (size < stripes) {
+            size <<= 1;
+        }
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.repository = repository;
+        this.today = new CachedToday(clock);
+    }
+
+    /**
+     * Get a snapshot of the chores, in insertion order.
+     *
+     * @return List<Chore> The chores added until now.
+     */
+    public List<Chore> getChores() {
+        return new ArrayList<>(bySequence.values());
+    }
+
+    /**
+     * @see ChoreService#addChore(String, LocalDate)
+     */
+    public Chore addChore(String description, LocalDate deadline) {
+        if (Objects.isNull(description) || description.isEmpty()) {
+            throw new InvalidDescriptionException("The description cannot be null or empty");
+        }
+        if (Objects.isNull(deadline) || deadline.isBefore(today.get())) {
+            throw new InvalidDeadlineException("The deadline cannot be null or before the current date");
+        }
+        ChoreKey key = ChoreKey.of(description, deadline);
+        Chore chore = new Chore(description, Boolean.FALSE, deadline);
+        Entry entry = new Entry(sequence.incrementAndGet(), chore);
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            if (Objects.nonNull(byKey.putIfAbsent(key, entry))) {
+                throw new DuplicatedChoreException("The given chore already exists.");
+            }
+            bySequence.put(entry.sequence, chore);
+            if (Objects.nonNull(repository)) {
+                // The repository may set the id, so it gets a copy of the published chore
+                Chore saved = new Chore(chore);
+                if (repository.save(saved) && Objects.nonNull(saved.getId())) {
+                    publish(key, entry.sequence, saved);
+                    return saved;
+                }
+            }
+            return chore;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @see ChoreService#deleteChore(String, LocalDate)
+     */
+    public void deleteChore(String description, LocalDate deadline) {
+        if (byKey.isEmpty()) {
+            throw new EmptyChoreListException("Unable to remove a chore from an empty list");
+        }
+        ChoreKey key = ChoreKey.of(description, deadline);
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            Entry entry = byKey.remove(key);
+            if (Objects.isNull(entry)) {
+                throw new ChoreNotFoundException("The given chore does not exist.");
+            }
+            bySequence.remove(entry.sequence);
+            if (Objects.nonNull(repository)) {
+                repository.delete(entry.chore);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @see ChoreService#toggleChore(String, LocalDate)
+     */
+    public Chore toggleChore(String description, LocalDate deadline) {
+        ChoreKey key = ChoreKey.of(description, deadline);
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            Entry entry = byKey.get(key);
+            if (Objects.isNull(entry)) {
+                throw new ChoreNotFoundException("Chore not found. Impossible to toggle!");
+            }
+            Chore chore = entry.chore;
+            if (chore.getDeadline().isBefore(today.get())
+                    && chore.getIsCompleted()) {
+                throw new ToggleChoreWithInvalidDeadlineException("Unable to toggle a completed chore with a past deadline");
+            }
+            Chore toggled = new Chore(chore);
+            toggled.setIsCompleted(!chore.getIsCompleted());
+            publish(key, entry.sequence, toggled);
+            write(toggled);
+            return toggled;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @see ChoreService#editChore(String, LocalDate, String)
+     */
+    public Chore editChore(String description, LocalDate deadline, String newDescription) {
+        if (Objects.isNull(newDescription) || newDescription.isEmpty()) {
+            throw new InvalidDescriptionException("The description cannot be null or empty");
+        }
+        return move(ChoreKey.of(description, deadline), ChoreKey.of(newDescription, deadline),
+                "Unable to edit a chore description that does not exist");
+    }
+
+    /**
+     * @see ChoreService#editChore(String, LocalDate, LocalDate)
+     */
+    public Chore editChore(String description, LocalDate deadline, LocalDate newDeadline) {
+        if (Objects.isNull(newDeadline) || newDeadline.isBefore(today.get())) {
+            throw new InvalidDeadlineException("The deadline cannot be null or before the current date");
+        }
+        return move(ChoreKey.of(description, deadline), ChoreKey.of(description, newDeadline),
+                "Unable to edit a chore deadline that does not exist");
+    }
+
+    /**
+     * @see ChoreService#filterChores(ChoreFilter)
+     */
+    public List<Chore> filterChores(ChoreFilter filter) {
+        return ChoreService.filterQuery(filter, today.get()).select(bySequence.values().stream());
+    }
+
+    /**
+     * @see ChoreService#printChores()
+     */
+    public String printChores() {
+        return ChoreService.printChores(getChores());
+    }
+
+    /**
+     * Move the chore to a new key, atomically with the other operations on both keys.
+     *
+     * @return Chore The moved chore
+     */
+    private Chore move(ChoreKey key, ChoreKey newKey, String notFoundMessage) {
+        ReentrantLock first = lockFor(key);
+        ReentrantLock second = lockFor(newKey);
+        if (stripe(newKey) < stripe(key)) {
+            ReentrantLock swap = first;
+            first = second;
+            second = swap;
+        }
+        first.lock();
+        try {
+            if (second != first) {
+                second.lock();
+            }
+            try {
+                Entry entry = byKey.get(key);
+                if (Objects.isNull(entry)) {
+                    throw new ChoreNotFoundException(notFoundMessage);
+                }
+                if (byKey.containsKey(newKey)) {
+                    throw new DuplicatedChoreException("The chore already exists");
+                }
+                if (entry.chore.getIsCompleted()) {
+                    throw new EditChoreWithCompletedStatusException("Unable to edit chore that is already completed");
+                }
+                Chore moved = new Chore(entry.chore);
+                moved.setDescription(newKey.getDescription());
+                moved.setDeadline(newKey.getDeadline());
+                publish(newKey, entry.sequence, moved);
+                byKey.remove(key);
+                write(moved);
+                return moved;
+            } finally {
+                if (second != first) {
+                    second.unlock();
+                }
+            }
+        } finally {
+            first.unlock();
+        }
+    }
+
+    /**
+     * Put the chore in place of the one with the same sequence. The lock of the key must be held.
+     */
+    private void publish(ChoreKey key, long sequence, Chore chore) {
+        byKey.put(key, new Entry(sequence, chore));
+        bySequence.put(sequence, chore);
+    }
+
+    /**
+     * Update the published chore in the repository, if any. The lock of its key must be held.
+     */
+    private void write(Chore chore) {
+        if (Objects.nonNull(repository)) {
+            repository.update(chore);
+        }
+    }
+
+    private ReentrantLock lockFor(ChoreKey key) {
+        return locks[stripe(key)];
+    }
+
+    private int stripe(ChoreKey key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (locks.length - 1);
+    }
+
+    private static final class Entry {
+
+        private final long sequence;
+
+        private final Chore chore;
+
+        private Entry(long sequence, Chore chore) {
+            this.sequence = sequence;
+            this.chore = chore;
+        }
+
+    }
+
+}
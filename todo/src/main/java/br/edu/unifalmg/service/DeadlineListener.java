@@ -0,0 +1,27 @@
+package br.edu.unifalmg.service;
+
+import br.edu.unifalmg.domain.Chore;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Receives the deadline events of a {@link DeadlineScheduler}.
+ * Only uncompleted chores are reported, and never an empty list.
+ */
+public interface DeadlineListener {
+
+    /**
+     * Called once a day with the chores due that day.
+     */
+    default void due(LocalDate today, List<Chore> chores) {
+    }
+
+    /**
+     * Called with the chores that became overdue since the previous day checked,
+     * ordered by deadline. The first day checked reports every overdue chore.
+     */
+    default void overdue(LocalDate today, List<Chore> chores) {
+    }
+
+}
@@ -0,0 +1,116 @@
+package br.edu.unifalmg.service;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.store.ChoreStore;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Tells listeners which chores are due or overdue as the days go by.
+ * <p>
+ * The scheduler keeps no copy of the chores: it reads the deadline index of the store, which
+ * holds the uncompleted chores in a tree ordered by deadline and follows every change made to
+ * them. Each day rollover only visits the chores whose deadline is in the days that passed, and
+ * the next due chores are found in O(log n + the number of chores returned).
+ * <p>
+ * Days roll over when {@link #tick()} or {@link #advanceTo(LocalDate)} is called, e.g. by a
+ * reminder job; calling them more than once a day is cheap, since nothing happens until the
+ * day changes. Like the store, the scheduler must be used from the thread that changes the chores.
+ */
+public class DeadlineScheduler {
+
+    private final ChoreStore chores;
+
+    private final CachedToday calendar;
+
+    private final List<DeadlineListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Last day checked, NULL before the first check.
+     */
+    private LocalDate today;
+
+    public DeadlineScheduler(ChoreStore chores) {
+        this(chores, null);
+    }
+
+    /**
+     * @param chores The chores to follow
+     * @param clock The clock giving the current day. NULL for the system clock.
+     */
+    public DeadlineScheduler(ChoreStore chores, Clock clock) {
+        this.chores = chores;
+        this.calendar = new CachedToday(clock);
+    }
+
+    public void addListener(DeadlineListener listener) {
+        listeners.add(Objects.requireNonNull(listener, "The listener cannot be null"));
+    }
+
+    public void removeListener(DeadlineListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Roll over to the current day of the clock.
+     *
+     * @return TRUE, if the day changed and the listeners were notified and FALSE otherwise
+     */
+    public boolean tick() {
+        return advanceTo(calendar.get());
+    }
+
+    /**
+     * Roll over to the given day: the chores whose deadline passed since the last day checked
+     * are reported as overdue, then the chores of the day as due.
+     *
+     * @return TRUE, if the day changed and the listeners were notified and FALSE when the day
+     *         is not after the last day checked
+     */
+    public boolean advanceTo(LocalDate day) {
+        if (Objects.nonNull(today) && !day.isAfter(today)) {
+            return false;
+        }
+        List<Chore> overdue = chores.findDueBetween(today, day, Boolean.FALSE);
+        List<Chore> due = chores.findDueBetween(day, day.plusDays(1), Boolean.FALSE);
+        today = day;
+        for (DeadlineListener listener : listeners) {
+            if (!overdue.isEmpty()) {
+                listener.overdue(day, overdue);
+            }
+            if (!due.isEmpty()) {
+                listener.due(day, due);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the next uncompleted chores, from the current day on, ordered by deadline.
+     *
+     * @param limit Maximum number of chores returned
+     * @throws IllegalArgumentException When the limit is negative
+     */
+    public List<Chore> nextDue(int limit) {
+        return chores.findNextDue(currentDay(), false, limit);
+    }
+
+    /**
+     * Get the uncompleted chores with a deadline before the current day, ordered by deadline.
+     */
+    public List<Chore> overdue() {
+        return chores.findDueBefore(currentDay(), false);
+    }
+
+    /**
+     * The last day checked, or the current day before the first check.
+     */
+    public LocalDate currentDay() {
+        return Objects.isNull(today) ? calendar.get() : today;
+    }
+
+}
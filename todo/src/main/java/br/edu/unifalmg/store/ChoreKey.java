@@ -0,0 +1,33 @@
+package br.edu.unifalmg.store;
+
+import br.edu.unifalmg.domain.Chore;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.time.LocalDate;
+
+/**
+ * Composite key that identifies a chore inside the service: description + deadline.
+ */
+@Getter
+@EqualsAndHashCode
+public final class ChoreKey {
+
+    private final String description;
+
+    private final LocalDate deadline;
+
+    private ChoreKey (String description, LocalDate deadline) {
+        this.description = description;
+        this.deadline = deadline;
+    }
+
+    public static ChoreKey of (String description, LocalDate deadline) {
+        return new ChoreKey(description, deadline);
+    }
+
+    public static ChoreKey of (Chore chore) {
+        return new ChoreKey(chore.getDescription(), chore.getDeadline());
+    }
+
+}
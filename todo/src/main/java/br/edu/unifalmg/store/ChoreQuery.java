@@ -0,0 +1,181 @@
+package br.edu.unifalmg.store;
+
+import br.edu.unifalmg.domain.Chore;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Selection of chores: predicates combined with AND, an order and a page.
+ * <p>
+ * The store answers a query with its indexes (see {@link ChoreStore#query(ChoreQuery)}) and
+ * the repositories that can push it to their storage do so (e.g. as SQL in the MySQL repository),
+ * so only the selected chores are materialized. Every field is optional:
+ * <pre>
+ * ChoreQuery.builder().isCompleted(false).dueBefore(today).orderBy(ChoreQuery.Order.DEADLINE).limit(10).build()
+ * </pre>
+ */
+@Getter
+public final class ChoreQuery {
+
+    public enum Order {
+        /**
+         * The order the chores were added (by id in the repositories).
+         */
+        INSERTION,
+        /**
+         * Earliest deadline first, then insertion order. Chores without deadline come last.
+         */
+        DEADLINE,
+        /**
+         * Latest deadline first, then insertion order. Chores without deadline come last.
+         */
+        DEADLINE_DESCENDING
+    }
+
+    /**
+     * Completion status of the chores. NULL for any status; chores without status are uncompleted.
+     */
+    private final Boolean isCompleted;
+
+    /**
+     * First deadline (inclusive). NULL for no lower bound.
+     */
+    private final LocalDate dueFrom;
+
+    /**
+     * End of the deadlines (exclusive). NULL for no upper bound.
+     */
+    private final LocalDate dueBefore;
+
+    /**
+     * Words the description must have, like in {@link ChoreStore#search(String)}. NULL for any description.
+     */
+    private final String text;
+
+    private final Order orderBy;
+
+    /**
+     * Number of matching chores skipped.
+     */
+    private final int offset;
+
+    /**
+     * Maximum number of chores returned. NULL for no limit.
+     */
+    private final Integer limit;
+
+    /**
+     * The folded words of the text; a word ending with '*' is a prefix.
+     */
+    private final List<String> terms;
+
+    @Builder
+    private ChoreQuery(Boolean isCompleted, LocalDate dueFrom, LocalDate dueBefore, String text,
+                       Order orderBy, int offset, Integer limit) {
+        if (offset < 0 || (Objects.nonNull(limit) && limit < 0)) {
+            throw new IllegalArgumentException("The offset and the limit cannot be negative");
+        }
+        this.isCompleted = isCompleted;
+        this.dueFrom = dueFrom;
+        this.dueBefore = dueBefore;
+        this.terms = Collections.unmodifiableList(ChoreTextIndex.terms(text));
+        this.text = this.terms.isEmpty() ? null : text;
+        this.orderBy = Objects.isNull(orderBy) ? Order.INSERTION : orderBy;
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    /**
+     * A query without predicates, returning every chore in insertion order.
+     */
+    public static ChoreQuery all() {
+        return builder().build();
+    }
+
+    public boolean hasDeadlineRange() {
+        return Objects.nonNull(dueFrom) || Objects.nonNull(dueBefore);
+    }
+
+    public boolean hasText() {
+        return Objects.nonNull(text);
+    }
+
+    /**
+     * @return TRUE, if the query selects a page (offset or limit) and FALSE when it selects every match
+     */
+    public boolean isPaged() {
+        return offset > 0 || Objects.nonNull(limit);
+    }
+
+    /**
+     * @return TRUE, if the chore satisfies every predicate of the query and FALSE otherwise
+     */
+    public boolean matches(Chore chore) {
+        if (Objects.nonNull(isCompleted) && isCompleted != Boolean.TRUE.equals(chore.getIsCompleted())) {
+            return false;
+        }
+        if (hasDeadlineRange()) {
+            LocalDate deadline = chore.getDeadline();
+            if (Objects.isNull(deadline)
+                    || (Objects.nonNull(dueFrom) && deadline.isBefore(dueFrom))
+                    || (Objects.nonNull(dueBefore) && !deadline.isBefore(dueBefore))) {
+                return false;
+            }
+        }
+        return !hasText() || matchesText(chore.getDescription());
+    }
+
+    /**
+     * Select the matching chores in memory, in the order of the query. The order of the stream
+     * is taken as the INSERTION order.
+     *
+     * @return List<Chore> The page of matching chores
+     */
+    public List<Chore> select(Stream<Chore> chores) {
+        Stream<Chore> matching = chores.filter(this::matches);
+        if (orderBy != Order.INSERTION) {
+            matching = matching.sorted(deadlineComparator());
+        }
+        matching = matching.skip(offset);
+        if (Objects.nonNull(limit)) {
+            matching = matching.limit(limit);
+        }
+        return matching.collect(Collectors.toList());
+    }
+
+    /**
+     * Compare the chores by deadline in the order of the query, chores without deadline last.
+     * Used with a stable sort, so chores with the same deadline keep their order.
+     */
+    public Comparator<Chore> deadlineComparator() {
+        Comparator<LocalDate> deadlines = orderBy == Order.DEADLINE_DESCENDING
+                ? Comparator.reverseOrder()
+                : Comparator.naturalOrder();
+        return Comparator.comparing(Chore::getDeadline, Comparator.nullsLast(deadlines));
+    }
+
+    private boolean matchesText(String description) {
+        Set<String> words = ChoreTextIndex.words(description);
+        for (String term : terms) {
+            if (ChoreTextIndex.isPrefix(term)) {
+                String prefix = term.substring(0, term.length() - 1);
+                if (words.stream().noneMatch(word -> word.startsWith(prefix))) {
+                    return false;
+                }
+            } else if (!words.contains(term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
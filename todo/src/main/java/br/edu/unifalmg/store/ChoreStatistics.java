@@ -0,0 +1,61 @@
+package br.edu.unifalmg.store;
+
+import lombok.Getter;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Counters of the chores on a given day.
+ * Chores without status are counted as uncompleted.
+ */
+@Getter
+public final class ChoreStatistics {
+
+    /**
+     * The day the overdue chores were counted on.
+     */
+    private final LocalDate today;
+
+    private final int total;
+
+    private final int completed;
+
+    private final int uncompleted;
+
+    /**
+     * Uncompleted chores with a deadline before today.
+     */
+    private final int overdue;
+
+    public ChoreStatistics(LocalDate today, int total, int completed, int uncompleted, int overdue) {
+        this.today = today;
+        this.total = total;
+        this.completed = completed;
+        this.uncompleted = uncompleted;
+        this.overdue = overdue;
+    }
+
+    /**
+     * The first day of the (ISO, Monday based) week of the date.
+     */
+    public static LocalDate weekOf(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    /**
+     * Add up a histogram by day into a histogram by week, keyed by the first day of each week.
+     */
+    public static SortedMap<LocalDate, Integer> byWeek(SortedMap<LocalDate, Integer> byDay) {
+        SortedMap<LocalDate, Integer> byWeek = new TreeMap<>();
+        for (Map.Entry<LocalDate, Integer> day : byDay.entrySet()) {
+            byWeek.merge(weekOf(day.getKey()), day.getValue(), Integer::sum);
+        }
+        return byWeek;
+    }
+
+}
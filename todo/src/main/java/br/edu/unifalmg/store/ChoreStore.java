@@ -0,0 +1,874 @@
+package br.edu.unifalmg.store;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.domain.ChoreObserver;
+import br.edu.unifalmg.repository.ChoreChangeSet;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * In-memory store of chores.
+ * <p>
+ * Behaves as the ordered list of chores (insertion order) used by the service, and keeps
+ * a hash index on (description, deadline) and another on the id, so lookups and duplicate
+ * checks are O(1). Removing a chore by reference only leaves a tombstone in the list, so it is
+ * O(1) as well; the list is compacted on the next access by position, or once half of it is
+ * tombstones, so the compaction is paid once for any number of removals. Secondary indexes partition the chores by completion status and sort
+ * them by deadline, so status and deadline queries cost proportionally to their result.
+ * An inverted index over the words of the descriptions answers text searches. Queries
+ * ({@link #query(ChoreQuery)}) read the most selective of those indexes and check the other
+ * predicates on the chores read.
+ * The store observes the chores it holds, so the indexes follow changes made through the
+ * chores' setters.
+ * <p>
+ * Once {@link #trackChanges()} is called, the store also records the chores added, changed and
+ * removed since then, so only those need to be saved.
+ */
+public class ChoreStore extends AbstractList<Chore> implements ChoreObserver {
+
+    /**
+     * The chores in list order. Removed chores leave a NULL tombstone until the next compaction.
+     */
+    private final ArrayList<Chore> chores = new ArrayList<>();
+
+    /**
+     * Number of tombstones in {@link #chores}.
+     */
+    private int tombstones;
+
+    private final Map<Chore, Entry> entries = new IdentityHashMap<>();
+
+    private final Map<ChoreKey, Chore> byKey = new HashMap<>();
+
+    private final Map<Long, Chore> byId = new HashMap<>();
+
+    private final Partition completed = new Partition();
+
+    private final Partition uncompleted = new Partition();
+
+    private final ChoreTextIndex text = new ChoreTextIndex();
+
+    /**
+     * Chores whose key is already taken by another chore of the store, by key and insertion sequence.
+     * Those chores are not in the key index until the first one leaves.
+     */
+    private final Map<ChoreKey, TreeMap<Long, Chore>> shadowed = new HashMap<>();
+
+    /**
+     * Insertion sequence, used to keep the secondary indexes in insertion order.
+     */
+    private long sequence;
+
+    private boolean tracking;
+
+    private final Set<Chore> added = new LinkedHashSet<>();
+
+    private final Set<Chore> updated = new LinkedHashSet<>();
+
+    private final Set<Chore> removed = new LinkedHashSet<>();
+
+    /**
+     * Find the chore with the given description and deadline.
+     *
+     * @return Chore The chore or NULL when it does not exist
+     */
+    public Chore find(String description, LocalDate deadline) {
+        return byKey.get(ChoreKey.of(description, deadline));
+    }
+
+    /**
+     * Find the chore with the given key.
+     *
+     * @return Chore The chore or NULL when it does not exist
+     */
+    public Chore find(ChoreKey key) {
+        return byKey.get(key);
+    }
+
+    /**
+     * Find the chore with the given id.
+     *
+     * @return Chore The chore or NULL when it does not exist
+     */
+    public Chore findById(Long id) {
+        return Objects.isNull(id) ? null : byId.get(id);
+    }
+
+    public boolean contains(String description, LocalDate deadline) {
+        return byKey.containsKey(ChoreKey.of(description, deadline));
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        return entries.containsKey(object);
+    }
+
+    /**
+     * Find the chores with the given completion status, in insertion order.
+     * Chores without a status are considered uncompleted.
+     */
+    public List<Chore> findByStatus(boolean isCompleted) {
+        return new ArrayList<>(partition(isCompleted).bySequence.values());
+    }
+
+    /**
+     * Count the chores with the given completion status.
+     */
+    public int countByStatus(boolean isCompleted) {
+        return partition(isCompleted).bySequence.size();
+    }
+
+    /**
+     * Count the chores by status and the overdue ones on the given day.
+     * The counters are kept by the indexes, so it is O(1) when called again on the same day;
+     * moving to a later day only visits the deadlines of the days in between.
+     */
+    public ChoreStatistics statistics(LocalDate today) {
+        return new ChoreStatistics(today, size(), completed.bySequence.size(), uncompleted.bySequence.size(),
+                uncompleted.countDueBefore(today));
+    }
+
+    /**
+     * Count the chores by deadline, for the days with chores in the given range.
+     *
+     * @param from The first day (inclusive). NULL for no lower bound.
+     * @param to The end of the range (exclusive). NULL for no upper bound.
+     * @param isCompleted The status of the chores. NULL for any status.
+     */
+    public SortedMap<LocalDate, Integer> countDueByDay(LocalDate from, LocalDate to, Boolean isCompleted) {
+        SortedMap<LocalDate, Integer> histogram = new TreeMap<>();
+        for (Partition partition : partitions(isCompleted)) {
+            for (Map.Entry<LocalDate, TreeMap<Long, Chore>> day : partition.range(from, to).entrySet()) {
+                histogram.merge(day.getKey(), day.getValue().size(), Integer::sum);
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Count the chores by the week of their deadline, keyed by the first day (Monday) of the week,
+     * for the weeks starting from the week of the first day until the end of the range.
+     *
+     * @param from A day of the first week (inclusive). NULL for no lower bound.
+     * @param to The end of the range (exclusive). NULL for no upper bound.
+     * @param isCompleted The status of the chores. NULL for any status.
+     */
+    public SortedMap<LocalDate, Integer> countDueByWeek(LocalDate from, LocalDate to, Boolean isCompleted) {
+        LocalDate firstWeek = Objects.isNull(from) ? null : ChoreStatistics.weekOf(from);
+        SortedMap<LocalDate, Integer> histogram = new TreeMap<>();
+        for (Partition partition : partitions(isCompleted)) {
+            SortedMap<LocalDate, Integer> weeks = partition.byWeek;
+            if (Objects.nonNull(firstWeek)) {
+                weeks = weeks.tailMap(firstWeek);
+            }
+            if (Objects.nonNull(to)) {
+                weeks = weeks.headMap(to);
+            }
+            weeks.forEach((week, count) -> histogram.merge(week, count, Integer::sum));
+        }
+        return histogram;
+    }
+
+    /**
+     * Find the chores with a deadline before the given date, ordered by deadline.
+     */
+    public List<Chore> findDueBefore(LocalDate date) {
+        return findDueBetween(null, date, null);
+    }
+
+    /**
+     * Find the chores with the given status and a deadline before the given date, ordered by deadline.
+     */
+    public List<Chore> findDueBefore(LocalDate date, boolean isCompleted) {
+        return findDueBetween(null, date, isCompleted);
+    }
+
+    /**
+     * Find the chores with a deadline in the given range, ordered by deadline and then by insertion.
+     * Chores without a deadline are never returned.
+     *
+     * @param from The first deadline of the range (inclusive). NULL for no lower bound.
+     * @param to The end of the range (exclusive). NULL for no upper bound.
+     * @param isCompleted The status of the chores. NULL for any status.
+     */
+    public List<Chore> findDueBetween(LocalDate from, LocalDate to, Boolean isCompleted) {
+        if (Objects.nonNull(isCompleted)) {
+            List<Chore> found = new ArrayList<>();
+            for (TreeMap<Long, Chore> day : partition(isCompleted).range(from, to).values()) {
+                found.addAll(day.values());
+            }
+            return found;
+        }
+        return merge(completed.range(from, to), uncompleted.range(from, to));
+    }
+
+    /**
+     * Find the first chores with the given status and a deadline on or after the given date,
+     * ordered by deadline and then by insertion. Only the returned chores are visited, so it
+     * costs O(log n + limit).
+     *
+     * @throws IllegalArgumentException When the limit is negative
+     */
+    public List<Chore> findNextDue(LocalDate from, boolean isCompleted, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("The limit cannot be negative");
+        }
+        List<Chore> found = new ArrayList<>(Math.min(limit, 64));
+        for (TreeMap<Long, Chore> day : partition(isCompleted).range(from, null).values()) {
+            for (Chore chore : day.values()) {
+                if (found.size() == limit) {
+                    return found;
+                }
+                found.add(chore);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Find the chores whose description has every word of the query, in insertion order.
+     * Words are compared in lower case and without accents, and a word ending with '*'
+     * matches every word starting with it, e.g. "limp* caixa" finds "Limpar a caixa de areia".
+     *
+     * @return List<Chore> The chores found. Empty when the query has no words.
+     */
+    public List<Chore> search(String query) {
+        return text.search(query);
+    }
+
+    /**
+     * Run the query on the index chosen by {@link #explain(ChoreQuery)}.
+     * The chores are only sorted when the index does not read them in the order of the query;
+     * otherwise the reading stops as soon as the page is complete.
+     *
+     * @return List<Chore> The page of matching chores, in the order of the query
+     */
+    public List<Chore> query(ChoreQuery query) {
+        QueryPlan plan = explain(query);
+        Stream<Chore> matching = read(plan, query).filter(query::matches);
+        if (readOrder(plan, query) != query.getOrderBy()) {
+            matching = matching.sorted(comparator(query));
+        }
+        matching = matching.skip(query.getOffset());
+        if (Objects.nonNull(query.getLimit())) {
+            matching = matching.limit(query.getLimit());
+        }
+        return matching.collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+    }
+
+    /**
+     * Count the chores matching the predicates of the query, ignoring its order and page.
+     * Queries on the status alone are answered from the size of the index.
+     */
+    public int count(ChoreQuery query) {
+        QueryPlan plan = explain(query);
+        if (plan == QueryPlan.FULL_SCAN) {
+            return size();
+        }
+        if (plan == QueryPlan.STATUS_INDEX) {
+            return countByStatus(query.getIsCompleted());
+        }
+        return (int) read(plan, query).filter(query::matches).count();
+    }
+
+    /**
+     * Choose the index read by the query: the words of the text, then the deadline range, then
+     * the status. Without those predicates, every chore is read.
+     */
+    public QueryPlan explain(ChoreQuery query) {
+        if (query.hasText()) {
+            return QueryPlan.TEXT_INDEX;
+        }
+        if (query.hasDeadlineRange()) {
+            return QueryPlan.DEADLINE_INDEX;
+        }
+        if (Objects.nonNull(query.getIsCompleted())) {
+            return QueryPlan.STATUS_INDEX;
+        }
+        return QueryPlan.FULL_SCAN;
+    }
+
+    /**
+     * Replace the content of the store.
+     * Stops tracking changes, since the new content is not known to be saved.
+     *
+     * @param loaded The new chores. NULL leaves the store empty.
+     */
+    public void reset(Collection<Chore> loaded) {
+        stopTrackingChanges();
+        clear();
+        if (Objects.nonNull(loaded)) {
+            chores.ensureCapacity(loaded.size());
+            for (Chore chore : loaded) {
+                add(chore);
+            }
+        }
+    }
+
+    /**
+     * Start recording the changes, taking the current content as saved.
+     */
+    public void trackChanges() {
+        clearChanges();
+        tracking = true;
+    }
+
+    public void stopTrackingChanges() {
+        clearChanges();
+        tracking = false;
+    }
+
+    public boolean isTrackingChanges() {
+        return tracking;
+    }
+
+    /**
+     * Get the chores added, changed and removed since the changes were last cleared.
+     */
+    public ChoreChangeSet changes() {
+        return new ChoreChangeSet(added, updated, removed);
+    }
+
+    /**
+     * Take every change as saved.
+     */
+    public void clearChanges() {
+        added.clear();
+        updated.clear();
+        removed.clear();
+    }
+
+    /**
+     * Take the changes of a single chore as saved, e.g. after saving it on its own.
+     */
+    public void clearChanges(Chore chore) {
+        added.remove(chore);
+        updated.remove(chore);
+        removed.remove(chore);
+    }
+
+    @Override
+    public Chore get(int index) {
+        compact();
+        return chores.get(index);
+    }
+
+    @Override
+    public int size() {
+        return chores.size() - tombstones;
+    }
+
+    @Override
+    public boolean add(Chore chore) {
+        index(chore);
+        entries.get(chore).slot = chores.size();
+        chores.add(chore);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void add(int index, Chore chore) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        if (index == size()) {
+            add(chore);
+            return;
+        }
+        compact();
+        index(chore);
+        chores.add(index, chore);
+        renumber(index);
+        modCount++;
+    }
+
+    @Override
+    public Chore set(int index, Chore chore) {
+        compact();
+        Chore previous = chores.get(index);
+        if (previous == chore) {
+            return previous;
+        }
+        index(chore);
+        unindex(previous);
+        chores.set(index, chore);
+        entries.get(chore).slot = index;
+        return previous;
+    }
+
+    @Override
+    public Chore remove(int index) {
+        compact();
+        Chore chore = chores.get(index);
+        remove(chore);
+        return chore;
+    }
+
+    /**
+     * Remove the chore, leaving a tombstone at its place in the list.
+     */
+    @Override
+    public boolean remove(Object object) {
+        Entry entry = entries.get(object);
+        if (Objects.isNull(entry)) {
+            return false;
+        }
+        chores.set(entry.slot, null);
+        tombstones++;
+        unindex((Chore) object);
+        modCount++;
+        if (tombstones > chores.size() / 2) {
+            compact();
+        }
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        for (Chore chore : chores) {
+            if (Objects.nonNull(chore)) {
+                chore.detach(this);
+                recordRemoved(chore);
+            }
+        }
+        chores.clear();
+        tombstones = 0;
+        entries.clear();
+        byKey.clear();
+        byId.clear();
+        completed.clear();
+        uncompleted.clear();
+        text.clear();
+        shadowed.clear();
+        modCount++;
+    }
+
+    @Override
+    public void sort(Comparator<? super Chore> comparator) {
+        compact();
+        chores.sort(comparator);
+        renumber(0);
+        modCount++;
+    }
+
+    /**
+     * Drop the tombstones, moving the chores back to consecutive positions.
+     */
+    private void compact() {
+        if (tombstones == 0) {
+            return;
+        }
+        int size = 0;
+        for (Chore chore : chores) {
+            if (Objects.nonNull(chore)) {
+                entries.get(chore).slot = size;
+                chores.set(size++, chore);
+            }
+        }
+        chores.subList(size, chores.size()).clear();
+        tombstones = 0;
+    }
+
+    /**
+     * Update the position kept by the entries of the chores from the given index on.
+     * Only called when the list has no tombstones.
+     */
+    private void renumber(int from) {
+        for (int i = from; i < chores.size(); i++) {
+            entries.get(chores.get(i)).slot = i;
+        }
+    }
+
+    @Override
+    public void keyChanged(Chore chore, String previousDescription, LocalDate previousDeadline) {
+        Entry entry = entries.get(chore);
+        if (Objects.isNull(entry)) {
+            chore.detach(this);
+            return;
+        }
+        releaseKey(entry);
+        if (!Objects.equals(entry.key.getDescription(), chore.getDescription())) {
+            text.remove(entry.sequence, entry.key.getDescription());
+            text.add(chore, entry.sequence, chore.getDescription());
+        }
+        entry.key = ChoreKey.of(chore);
+        claimKey(chore, entry);
+        recordUpdated(chore);
+        if (!Objects.equals(entry.deadline, chore.getDeadline())) {
+            partition(entry.isCompleted).remove(entry);
+            entry.deadline = chore.getDeadline();
+            partition(entry.isCompleted).add(chore, entry);
+        }
+    }
+
+    @Override
+    public void idChanged(Chore chore, Long previousId) {
+        if (!entries.containsKey(chore)) {
+            chore.detach(this);
+            return;
+        }
+        if (Objects.nonNull(previousId)) {
+            byId.remove(previousId, chore);
+        }
+        if (Objects.nonNull(chore.getId())) {
+            byId.putIfAbsent(chore.getId(), chore);
+        }
+        // The ids are assigned by the repositories when the chores are saved, so they are not recorded as changes
+    }
+
+    @Override
+    public void statusChanged(Chore chore, Boolean previousStatus) {
+        Entry entry = entries.get(chore);
+        if (Objects.isNull(entry)) {
+            chore.detach(this);
+            return;
+        }
+        boolean isCompleted = Boolean.TRUE.equals(chore.getIsCompleted());
+        if (entry.isCompleted != isCompleted) {
+            partition(entry.isCompleted).remove(entry);
+            entry.isCompleted = isCompleted;
+            partition(entry.isCompleted).add(chore, entry);
+        }
+        recordUpdated(chore);
+    }
+
+    private void index(Chore chore) {
+        Objects.requireNonNull(chore, "The chore cannot be null");
+        if (entries.containsKey(chore)) {
+            throw new IllegalArgumentException("The chore is already in the store");
+        }
+        Entry entry = new Entry(ChoreKey.of(chore), sequence++);
+        entry.isCompleted = Boolean.TRUE.equals(chore.getIsCompleted());
+        entry.deadline = chore.getDeadline();
+        entries.put(chore, entry);
+        claimKey(chore, entry);
+        if (Objects.nonNull(chore.getId())) {
+            byId.putIfAbsent(chore.getId(), chore);
+        }
+        partition(entry.isCompleted).add(chore, entry);
+        text.add(chore, entry.sequence, chore.getDescription());
+        chore.attach(this);
+        recordAdded(chore);
+    }
+
+    private void unindex(Chore chore) {
+        Entry entry = entries.remove(chore);
+        releaseKey(entry);
+        if (Objects.nonNull(chore.getId())) {
+            byId.remove(chore.getId(), chore);
+        }
+        partition(entry.isCompleted).remove(entry);
+        text.remove(entry.sequence, entry.key.getDescription());
+        chore.detach(this);
+        recordRemoved(chore);
+    }
+
+    private void recordAdded(Chore chore) {
+        if (!tracking) {
+            return;
+        }
+        // A chore removed and added back only has to be rewritten
+        if (removed.remove(chore)) {
+            updated.add(chore);
+        } else {
+            added.add(chore);
+        }
+    }
+
+    private void recordUpdated(Chore chore) {
+        if (tracking && !added.contains(chore)) {
+            updated.add(chore);
+        }
+    }
+
+    private void recordRemoved(Chore chore) {
+        if (!tracking) {
+            return;
+        }
+        // A chore added since the last save was never stored
+        if (!added.remove(chore)) {
+            updated.remove(chore);
+            removed.add(chore);
+        }
+    }
+
+    private void claimKey(Chore chore, Entry entry) {
+        if (Objects.isNull(byKey.putIfAbsent(entry.key, chore))) {
+            entry.indexed = true;
+        } else {
+            shadowed.computeIfAbsent(entry.key, key -> new TreeMap<>()).put(entry.sequence, chore);
+        }
+    }
+
+    /**
+     * Take the chore out of the key index. When other chores have the same key (only happens when
+     * they were added straight to the list), the first one added takes its place in the index.
+     */
+    private void releaseKey(Entry entry) {
+        if (!entry.indexed) {
+            TreeMap<Long, Chore> sameKey = shadowed.get(entry.key);
+            sameKey.remove(entry.sequence);
+            if (sameKey.isEmpty()) {
+                shadowed.remove(entry.key);
+            }
+            return;
+        }
+        byKey.remove(entry.key);
+        entry.indexed = false;
+        TreeMap<Long, Chore> sameKey = shadowed.get(entry.key);
+        if (Objects.nonNull(sameKey)) {
+            Chore promoted = sameKey.pollFirstEntry().getValue();
+            if (sameKey.isEmpty()) {
+                shadowed.remove(entry.key);
+            }
+            byKey.put(entry.key, promoted);
+            entries.get(promoted).indexed = true;
+        }
+    }
+
+    private Stream<Chore> read(QueryPlan plan, ChoreQuery query) {
+        Boolean isCompleted = query.getIsCompleted();
+        switch (plan) {
+            case TEXT_INDEX:
+                return text.search(query.getTerms()).stream();
+            case DEADLINE_INDEX:
+                if (Objects.isNull(isCompleted)) {
+                    return merge(completed.range(query.getDueFrom(), query.getDueBefore()),
+                            uncompleted.range(query.getDueFrom(), query.getDueBefore())).stream();
+                }
+                NavigableMap<LocalDate, TreeMap<Long, Chore>> range = partition(isCompleted).range(query.getDueFrom(), query.getDueBefore());
+                if (query.getOrderBy() == ChoreQuery.Order.DEADLINE_DESCENDING) {
+                    range = range.descendingMap();
+                }
+                return range.values().stream().flatMap(day -> day.values().stream());
+            case STATUS_INDEX:
+                return partition(isCompleted).bySequence.values().stream();
+            case FULL_SCAN:
+            default:
+                Iterator<Chore> chores = new SequenceMerge(completed.bySequence, uncompleted.bySequence);
+                return StreamSupport.stream(Spliterators.spliteratorUnknownSize(chores, Spliterator.ORDERED), false);
+        }
+    }
+
+    /**
+     * The order the index of the plan reads the chores.
+     */
+    private static ChoreQuery.Order readOrder(QueryPlan plan, ChoreQuery query) {
+        if (plan != QueryPlan.DEADLINE_INDEX) {
+            return ChoreQuery.Order.INSERTION;
+        }
+        return Objects.nonNull(query.getIsCompleted()) && query.getOrderBy() == ChoreQuery.Order.DEADLINE_DESCENDING
+                ? ChoreQuery.Order.DEADLINE_DESCENDING
+                : ChoreQuery.Order.DEADLINE;
+    }
+
+    private Comparator<Chore> comparator(ChoreQuery query) {
+        Comparator<Chore> bySequence = Comparator.comparingLong(chore -> entries.get(chore).sequence);
+        return query.getOrderBy() == ChoreQuery.Order.INSERTION
+                ? bySequence
+                : query.deadlineComparator().thenComparing(bySequence);
+    }
+
+    private Partition partition(boolean isCompleted) {
+        return isCompleted ? completed : uncompleted;
+    }
+
+    private List<Partition> partitions(Boolean isCompleted) {
+        return Objects.isNull(isCompleted) ? List.of(completed, uncompleted) : List.of(partition(isCompleted));
+    }
+
+    /**
+     * Merge two deadline ranges into one list ordered by deadline and then by insertion.
+     */
+    private static List<Chore> merge(NavigableMap<LocalDate, TreeMap<Long, Chore>> first,
+                                     NavigableMap<LocalDate, TreeMap<Long, Chore>> second) {
+        List<Chore> merged = new ArrayList<>();
+        Iterator<Map.Entry<LocalDate, TreeMap<Long, Chore>>> left = first.entrySet().iterator();
+        Iterator<Map.Entry<LocalDate, TreeMap<Long, Chore>>> right = second.entrySet().iterator();
+        Map.Entry<LocalDate, TreeMap<Long, Chore>> leftDay = left.hasNext() ? left.next() : null;
+        Map.Entry<LocalDate, TreeMap<Long, Chore>> rightDay = right.hasNext() ? right.next() : null;
+        while (Objects.nonNull(leftDay) || Objects.nonNull(rightDay)) {
+            int comparison = Objects.isNull(leftDay) ? 1
+                    : Objects.isNull(rightDay) ? -1
+                    : leftDay.getKey().compareTo(rightDay.getKey());
+            if (comparison < 0) {
+                merged.addAll(leftDay.getValue().values());
+                leftDay = left.hasNext() ? left.next() : null;
+            } else if (comparison > 0) {
+                merged.addAll(rightDay.getValue().values());
+                rightDay = right.hasNext() ? right.next() : null;
+            } else {
+                TreeMap<Long, Chore> day = new TreeMap<>(leftDay.getValue());
+                day.putAll(rightDay.getValue());
+                merged.addAll(day.values());
+                leftDay = left.hasNext() ? left.next() : null;
+                rightDay = right.hasNext() ? right.next() : null;
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Reads the chores of both partitions in insertion order.
+     */
+    private static final class SequenceMerge implements Iterator<Chore> {
+
+        private final Iterator<Map.Entry<Long, Chore>> left;
+
+        private final Iterator<Map.Entry<Long, Chore>> right;
+
+        private Map.Entry<Long, Chore> nextLeft;
+
+        private Map.Entry<Long, Chore> nextRight;
+
+        private SequenceMerge(TreeMap<Long, Chore> first, TreeMap<Long, Chore> second) {
+            this.left = first.entrySet().iterator();
+            this.right = second.entrySet().iterator();
+            this.nextLeft = left.hasNext() ? left.next() : null;
+            this.nextRight = right.hasNext() ? right.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return Objects.nonNull(nextLeft) || Objects.nonNull(nextRight);
+        }
+
+        @Override
+        public Chore next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Chore chore;
+            if (Objects.isNull(nextRight) || (Objects.nonNull(nextLeft) && nextLeft.getKey() < nextRight.getKey())) {
+                chore = nextLeft.getValue();
+                nextLeft = left.hasNext() ? left.next() : null;
+            } else {
+                chore = nextRight.getValue();
+                nextRight = right.hasNext() ? right.next() : null;
+            }
+            return chore;
+        }
+    }
+
+    private static final class Entry {
+
+        private ChoreKey key;
+
+        private boolean indexed;
+
+        /**
+         * Position of the chore in {@link #chores}.
+         */
+        private int slot;
+
+        private final long sequence;
+
+        private boolean isCompleted;
+
+        private LocalDate deadline;
+
+        private Entry(ChoreKey key, long sequence) {
+            this.key = key;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * Chores with the same completion status, by insertion sequence and by deadline.
+     */
+    private static final class Partition {
+
+        private final TreeMap<Long, Chore> bySequence = new TreeMap<>();
+
+        private final TreeMap<LocalDate, TreeMap<Long, Chore>> byDeadline = new TreeMap<>();
+
+        /**
+         * Number of chores by the first day of the week of their deadline.
+         */
+        private final TreeMap<LocalDate, Integer> byWeek = new TreeMap<>();
+
+        /**
+         * Day of the last {@link #countDueBefore(LocalDate)}, NULL before the first one.
+         */
+        private LocalDate countedBefore;
+
+        /**
+         * Number of chores with a deadline before {@link #countedBefore}, kept up to date by add and remove.
+         */
+        private int dueBefore;
+
+        private void add(Chore chore, Entry entry) {
+            bySequence.put(entry.sequence, chore);
+            if (Objects.nonNull(entry.deadline)) {
+                byDeadline.computeIfAbsent(entry.deadline, deadline -> new TreeMap<>()).put(entry.sequence, chore);
+                byWeek.merge(ChoreStatistics.weekOf(entry.deadline), 1, Integer::sum);
+                if (Objects.nonNull(countedBefore) && entry.deadline.isBefore(countedBefore)) {
+                    dueBefore++;
+                }
+            }
+        }
+
+        private void remove(Entry entry) {
+            bySequence.remove(entry.sequence);
+            if (Objects.nonNull(entry.deadline)) {
+                TreeMap<Long, Chore> day = byDeadline.get(entry.deadline);
+                day.remove(entry.sequence);
+                if (day.isEmpty()) {
+                    byDeadline.remove(entry.deadline);
+                }
+                byWeek.computeIfPresent(ChoreStatistics.weekOf(entry.deadline), (week, count) -> count == 1 ? null : count - 1);
+                if (Objects.nonNull(countedBefore) && entry.deadline.isBefore(countedBefore)) {
+                    dueBefore--;
+                }
+            }
+        }
+
+        /**
+         * Count the chores with a deadline before the date. The count is moved forward by the days
+         * in between when the date is later than the previous one, and counted again when it is earlier.
+         */
+        private int countDueBefore(LocalDate date) {
+            if (Objects.isNull(countedBefore) || date.isBefore(countedBefore)) {
+                dueBefore = count(byDeadline.headMap(date, false));
+            } else if (date.isAfter(countedBefore)) {
+                dueBefore += count(byDeadline.subMap(countedBefore, true, date, false));
+            }
+            countedBefore = date;
+            return dueBefore;
+        }
+
+        private static int count(Map<LocalDate, TreeMap<Long, Chore>> days) {
+            int count = 0;
+            for (TreeMap<Long, Chore> day : days.values()) {
+                count += day.size();
+            }
+            return count;
+        }
+
+        private NavigableMap<LocalDate, TreeMap<Long, Chore>> range(LocalDate from, LocalDate to) {
+            if (Objects.nonNull(from) && Objects.nonNull(to)) {
+                return from.isBefore(to) ? byDeadline.subMap(from, true, to, false) : Collections.emptyNavigableMap();
+            }
+            if (Objects.nonNull(from)) {
+                return byDeadline.tailMap(from, true);
+            }
+            if (Objects.nonNull(to)) {
+                return byDeadline.headMap(to, false);
+            }
+            return byDeadline;
+        }
+
+        private void clear() {
+            bySequence.clear();
+            byDeadline.clear();
+            byWeek.clear();
+            countedBefore = null;
+            dueBefore = 0;
+        }
+    }
+
+}
@@ -0,0 +1,299 @@
+package br.edu.unifalmg.store;
+
+import br.edu.unifalmg.domain.Chore;
+
+import java.text.Normalizer;
+import java.util.*;
+
+/**
+ * Inverted index over the words of the chores' descriptions, used by {@link ChoreStore#search(String)}.
+ * <p>
+ * Words are folded before being indexed and searched: lower case and without accents, so
+ * "Área" matches "area". Each word maps to its chores by insertion sequence, and the words are
+ * sorted, so a prefix query reads a single range of the dictionary. A query only visits the
+ * chores of its rarest word, checking them against the postings of the other words.
+ */
+final class ChoreTextIndex {
+
+    private static final char PREFIX = '*';
+
+    private final TreeMap<String, TreeMap<Long, Chore>> postings = new TreeMap<>();
+
+    void add(Chore chore, long sequence, String description) {
+        for (String word : words(description)) {
+            postings.computeIfAbsent(word, key -> new TreeMap<>()).put(sequence, chore);
+        }
+    }
+
+    void remove(long sequence, String description) {
+        for (String word : words(description)) {
+            TreeMap<Long, Chore> posting = postings.get(word);
+            if (Objects.isNull(posting)) {
+                continue;
+            }
+            posting.remove(sequence);
+            if (posting.isEmpty()) {
+                postings.remove(word);
+            }
+        }
+    }
+
+    void clear() {
+        postings.clear();
+    }
+
+    /**
+     * Find the chores having every word of the query, in insertion order.
+     * A word ending with '*' matches every word starting with it.
+     *
+     * @return List<Chore> The chores found. Empty when the query has no words.
+     */
+    List<Chore> search(String query) {
+        return search(terms(query));
+    }
+
+    /**
+     * Find the chores having every term, in insertion order.
+     *
+     * @param terms Terms split by {@link #terms(String)}
+     */
+    List<Chore> search(List<String> terms) {
+        List<Postings> matches = new ArrayList<>();
+        for (String term : terms) {
+            Postings match = isPrefix(term)
+                    ? matchPrefix(term.substring(0, term.length() - 1))
+                    : matchWord(term);
+            if (Objects.isNull(match)) {
+                return new ArrayList<>();
+            }
+            matches.add(match);
+        }
+        if (matches.isEmpty()) {
+            return new ArrayList<>();
+        }
+        matches.sort(Comparator.comparingInt(Postings::size));
+        List<Chore> found = new ArrayList<>();
+        for (Iterator<Map.Entry<Long, Chore>> candidates = matches.get(0).iterator(); candidates.hasNext(); ) {
+            Map.Entry<Long, Chore> candidate = candidates.next();
+            if (matchesAll(candidate.getKey(), matches)) {
+                found.add(candidate.getValue());
+            }
+        }
+        return found;
+    }
+
+    private Postings matchWord(String word) {
+        TreeMap<Long, Chore> posting = postings.get(word);
+        return Objects.isNull(posting) ? null : new Postings(List.of(posting));
+    }
+
+    /**
+     * The postings of the words starting with the prefix, read in place: nothing is merged
+     * unless the prefix is the rarest term, and then only while its chores are visited.
+     */
+    private Postings matchPrefix(String prefix) {
+        if (prefix.isEmpty()) {
+            return null;
+        }
+        Collection<TreeMap<Long, Chore>> range = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+        return range.isEmpty() ? null : new Postings(range);
+    }
+
+    private static boolean matchesAll(Long sequence, List<Postings> matches) {
+        for (int i = 1; i < matches.size(); i++) {
+            if (!matches.get(i).contains(sequence)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Split the query in folded words, keeping the '*' that ends a prefix.
+     * "caixa-d*" gives "caixa" and the prefix "d*".
+     */
+    static List<String> terms(String query) {
+        List<String> terms = new ArrayList<>();
+        if (Objects.isNull(query)) {
+            return terms;
+        }
+        for (String token : query.trim().split("\\s+")) {
+            boolean prefix = token.length() > 1 && token.charAt(token.length() - 1) == PREFIX;
+            List<String> words = new ArrayList<>(words(token));
+            if (words.isEmpty()) {
+                continue;
+            }
+            if (prefix) {
+                words.set(words.size() - 1, words.get(words.size() - 1) + PREFIX);
+            }
+            terms.addAll(words);
+        }
+        return terms;
+    }
+
+    static boolean isPrefix(String term) {
+        return term.charAt(term.length() - 1) == PREFIX;
+    }
+
+    /**
+     * Split the text in distinct folded words: runs of letters and digits, in lower case and
+     * without diacritics.
+     */
+    static Set<String> words(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        if (Objects.isNull(text) || text.isEmpty()) {
+            return words;
+        }
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static String fold(String text) {
+        if (isPlainAscii(text)) {
+            return text.toLowerCase(Locale.ROOT);
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                folded.append(c);
+            }
+        }
+        return folded.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The chores of a term: the posting of a word, or the postings of every word of a prefix.
+     */
+    private static final class Postings {
+
+        private final Collection<TreeMap<Long, Chore>> maps;
+
+        /**
+         * Number of postings; a chore with several words of a prefix is counted once per word.
+         */
+        private final int size;
+
+        private Postings(Collection<TreeMap<Long, Chore>> maps) {
+            this.maps = maps;
+            int size = 0;
+            for (TreeMap<Long, Chore> map : maps) {
+                size += map.size();
+            }
+            this.size = size;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean contains(Long sequence) {
+            for (TreeMap<Long, Chore> map : maps) {
+                if (map.containsKey(sequence)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Iterate over the chores once each, in insertion order, merging the postings as it goes.
+         */
+        Iterator<Map.Entry<Long, Chore>> iterator() {
+            if (maps.size() == 1) {
+                return maps.iterator().next().entrySet().iterator();
+            }
+            PriorityQueue<PeekingIterator> heads = new PriorityQueue<>(maps.size(),
+                    Comparator.comparingLong(head -> head.peek().getKey()));
+            for (TreeMap<Long, Chore> map : maps) {
+                heads.add(new PeekingIterator(map.entrySet().iterator()));
+            }
+            return new Iterator<>() {
+
+                private Long last;
+
+                private Map.Entry<Long, Chore> next = advance();
+
+                private Map.Entry<Long, Chore> advance() {
+                    while (!heads.isEmpty()) {
+                        PeekingIterator head = heads.poll();
+                        Map.Entry<Long, Chore> entry = head.next();
+                        if (head.hasNext()) {
+                            heads.add(head);
+                        }
+                        if (!entry.getKey().equals(last)) {
+                            last = entry.getKey();
+                            return entry;
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return Objects.nonNull(next);
+                }
+
+                @Override
+                public Map.Entry<Long, Chore> next() {
+                    if (Objects.isNull(next)) {
+                        throw new NoSuchElementException();
+                    }
+                    Map.Entry<Long, Chore> current = next;
+                    next = advance();
+                    return current;
+                }
+
+            };
+        }
+
+    }
+
+    private static final class PeekingIterator {
+
+        private final Iterator<Map.Entry<Long, Chore>> iterator;
+
+        private Map.Entry<Long, Chore> head;
+
+        private PeekingIterator(Iterator<Map.Entry<Long, Chore>> iterator) {
+            this.iterator = iterator;
+            this.head = iterator.next();
+        }
+
+        Map.Entry<Long, Chore> peek() {
+            return head;
+        }
+
+        boolean hasNext() {
+            return Objects.nonNull(head);
+        }
+
+        Map.Entry<Long, Chore> next() {
+            Map.Entry<Long, Chore> current = head;
+            head = iterator.hasNext() ? iterator.next() : null;
+            return current;
+        }
+
+    }
+
+    private static boolean isPlainAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
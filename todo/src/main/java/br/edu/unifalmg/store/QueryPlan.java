@@ -0,0 +1,29 @@
+package br.edu.unifalmg.store;
+
+/**
+ * Index chosen by the store to answer a {@link ChoreQuery}, see {@link ChoreStore#explain(ChoreQuery)}.
+ * The other predicates are checked on the chores read from the index.
+ */
+public enum QueryPlan {
+
+    /**
+     * Reads the chores having the words of the text, in insertion order.
+     */
+    TEXT_INDEX,
+
+    /**
+     * Reads the range of deadlines, in deadline order.
+     */
+    DEADLINE_INDEX,
+
+    /**
+     * Reads the chores with the completion status, in insertion order.
+     */
+    STATUS_INDEX,
+
+    /**
+     * Reads every chore, in insertion order.
+     */
+    FULL_SCAN
+
+}
@@ -0,0 +1,142 @@
+package br.edu.unifalmg.domain;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChoreTableTest {
+
+    @Test
+    @DisplayName("#add > When chores are added > Read the same values through the views")
+    void addWhenChoresAreAddedReadTheSameValuesThroughTheViews() {
+        ChoreTable table = new ChoreTable(1);
+        table.add(new Chore(1L, "Chore #01", Boolean.TRUE, LocalDate.now()));
+        table.add(new Chore(null, null, null, null));
+        table.add(new Chore(3L, "Chore #01", Boolean.FALSE, LocalDate.now().plusDays(1)));
+
+        Chore first = table.get(0);
+        Chore empty = table.get(1);
+        assertAll(
+                () -> assertEquals(3, table.size()),
+                () -> assertEquals(1, table.dictionarySize()),
+                () -> assertEquals(1L, first.getId()),
+                () -> assertEquals("Chore #01", first.getDescription()),
+                () -> assertEquals(Boolean.TRUE, first.getIsCompleted()),
+                () -> assertEquals(LocalDate.now(), first.getDeadline()),
+                () -> assertNull(empty.getId()),
+                () -> assertNull(empty.getDescription()),
+                () -> assertNull(empty.getIsCompleted()),
+                () -> assertNull(empty.getDeadline()),
+                () -> assertEquals(table.get(2), table.asList().get(2))
+        );
+    }
+
+    @Test
+    @DisplayName("#setIsCompleted > When a view is changed > Write the column and notify the observer")
+    void setIsCompletedWhenAViewIsChangedWriteTheColumnAndNotifyTheObserver() {
+        ChoreTable table = new ChoreTable();
+        Chore view = table.add(new Chore(1L, "Chore #01", Boolean.FALSE, LocalDate.now()));
+        Boolean[] previous = new Boolean[1];
+        view.attach(new ChoreObserver() {
+            @Override
+            public void keyChanged(Chore chore, String previousDescription, LocalDate previousDeadline) {
+            }
+
+            @Override
+            public void idChanged(Chore chore, Long previousId) {
+            }
+
+            @Override
+            public void statusChanged(Chore chore, Boolean previousStatus) {
+                previous[0] = previousStatus;
+            }
+        });
+
+        view.setIsCompleted(Boolean.TRUE);
+
+        assertAll(
+                () -> assertEquals(Boolean.TRUE, table.get(0).getIsCompleted()),
+                () -> assertEquals(Boolean.FALSE, previous[0]),
+                () -> assertEquals(1, table.countByStatus(true))
+        );
+    }
+
+    @Test
+    @DisplayName("#findDueBefore > When the table has chores > Return the rows before the date with the status")
+    void findDueBeforeWhenTheTableHasChoresReturnTheRowsBeforeTheDateWithTheStatus() {
+        ChoreTable table = new ChoreTable();
+        for (int i = 0; i < 10; i++) {
+            table.add(new Chore((long) i, "Chore #" + i, i % 2 == 0, LocalDate.now().plusDays(i)));
+        }
+
+        List<Chore> uncompleted = table.findDueBefore(LocalDate.now().plusDays(5), Boolean.FALSE);
+        List<Chore> completed = table.findByStatus(true);
+
+        assertAll(
+                () -> assertEquals(2, uncompleted.size()),
+                () -> assertEquals("Chore #1", uncompleted.get(0).getDescription()),
+                () -> assertEquals("Chore #3", uncompleted.get(1).getDescription()),
+                () -> assertEquals(5, completed.size()),
+                () -> assertEquals(5, table.findDueBefore(LocalDate.now().plusDays(5)).size())
+        );
+    }
+
+    @Test
+    @DisplayName("#remove > When a row is removed > Reuse it for the next chore")
+    void removeWhenARowIsRemovedReuseItForTheNextChore() {
+        ChoreTable table = new ChoreTable();
+        table.add(new Chore(1L, "Chore #01", Boolean.FALSE, LocalDate.now()));
+        Chore second = table.add(new Chore(2L, "Chore #02", Boolean.TRUE, LocalDate.now()));
+        table.add(new Chore(3L, "Chore #03", Boolean.FALSE, LocalDate.now()));
+
+        assertTrue(table.remove(second));
+        assertFalse(table.remove(second));
+        List<Chore> rows = table.asList();
+        Chore added = table.add(new Chore(4L, "Chore #04", Boolean.FALSE, LocalDate.now()));
+
+        assertAll(
+                () -> assertEquals(2, rows.size()),
+                () -> assertEquals("Chore #03", rows.get(1).getDescription()),
+                () -> assertEquals(3, table.size()),
+                () -> assertEquals(table.get(1), added),
+                () -> assertEquals(3, table.findByStatus(false).size()),
+                () -> assertEquals(0, table.countByStatus(true)),
+                () -> assertNull(table.find("Chore #02", LocalDate.now())),
+                () -> assertEquals(added, table.find("Chore #04", LocalDate.now()))
+        );
+    }
+
+    @Test
+    @DisplayName("#find > When rows are added, changed and removed > Find each remaining row by its key")
+    void findWhenRowsAreAddedChangedAndRemovedFindEachRemainingRowByItsKey() {
+        ChoreTable table = new ChoreTable();
+        List<Chore> views = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            views.add(table.add(new Chore((long) i, "Chore #" + i % 100, Boolean.FALSE, LocalDate.now().plusDays(i / 100))));
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            table.remove(views.get(i));
+        }
+        for (int i = 1; i < 1000; i += 4) {
+            views.get(i).setDeadline(LocalDate.now().minusDays(i));
+        }
+        Chore duplicate = table.add(new Chore(1000L, "Chore #3", Boolean.FALSE, LocalDate.now()));
+
+        for (int i = 1; i < 1000; i += 2) {
+            LocalDate deadline = i % 4 == 1 ? LocalDate.now().minusDays(i) : LocalDate.now().plusDays(i / 100);
+            assertEquals(views.get(i), table.find("Chore #" + i % 100, deadline));
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            assertNull(table.find("Chore #" + i % 100, LocalDate.now().plusDays(i / 100)));
+        }
+        assertEquals(views.get(3), table.find("Chore #3", LocalDate.now()));
+        table.remove(views.get(3));
+        assertEquals(duplicate, table.find("Chore #3", LocalDate.now()));
+    }
+
+}
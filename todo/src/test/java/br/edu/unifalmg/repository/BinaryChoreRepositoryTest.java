@@ -0,0 +1,149 @@
+package br.edu.unifalmg.repository;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.repository.impl.BinaryChoreRepository;
+import br.edu.unifalmg.repository.impl.ChoreFileConverter;
+import br.edu.unifalmg.repository.impl.FileChoreRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryChoreRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private File file(String name) {
+        return directory.resolve(name).toFile();
+    }
+
+    private static List<Chore> sample() {
+        List<Chore> chores = new ArrayList<>();
+        chores.add(new Chore(1L, "Wash the dishes", Boolean.TRUE, LocalDate.now()));
+        chores.add(new Chore(2L, "Wash the dishes", Boolean.FALSE, LocalDate.now().plusDays(1)));
+        chores.add(new Chore(null, "Lavar a louça", null, null));
+        for (int i = 0; i < 100; i++) {
+            chores.add(new Chore(100L + i, "Chore #" + i, i % 3 == 0, LocalDate.now().plusDays(i)));
+        }
+        return chores;
+    }
+
+    private static void assertSameChores(List<Chore> expected, List<Chore> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+            assertEquals(expected.get(i).getDescription(), actual.get(i).getDescription());
+            assertEquals(expected.get(i).getIsCompleted(), actual.get(i).getIsCompleted());
+            assertEquals(expected.get(i).getDeadline(), actual.get(i).getDeadline());
+        }
+    }
+
+    @Test
+    @DisplayName("#saveAll > When the chores are saved > Load the same chores back")
+    void saveAllWhenTheChoresAreSavedLoadTheSameChoresBack() {
+        BinaryChoreRepository repository = new BinaryChoreRepository(file("chores.bin"));
+        List<Chore> chores = sample();
+
+        assertTrue(repository.saveAll(chores));
+
+        assertSameChores(chores, repository.load());
+    }
+
+    @Test
+    @DisplayName("#load > When the file is not found > Return an empty list")
+    void loadWhenTheFileIsNotFoundReturnAnEmptyList() {
+        assertTrue(new BinaryChoreRepository(file("missing.bin")).load().isEmpty());
+    }
+
+    @Test
+    @DisplayName("#load > When the file is corrupted > Return an empty list")
+    void loadWhenTheFileIsCorruptedReturnAnEmptyList() throws IOException {
+        BinaryChoreRepository repository = new BinaryChoreRepository(file("chores.bin"));
+        repository.saveAll(sample());
+        try (RandomAccessFile raf = new RandomAccessFile(file("chores.bin"), "rw")) {
+            raf.seek(20);
+            raf.write(raf.read() ^ 0xFF);
+        }
+
+        assertTrue(repository.load().isEmpty());
+    }
+
+    @Test
+    @DisplayName("#update > When the chore exists > Replace it in the file")
+    void updateWhenTheChoreExistsReplaceItInTheFile() {
+        BinaryChoreRepository repository = new BinaryChoreRepository(file("chores.bin"));
+        repository.saveAll(sample());
+
+        assertTrue(repository.update(new Chore(2L, "Dry the dishes", Boolean.TRUE, LocalDate.now())));
+        assertFalse(repository.update(new Chore(999L, "Unknown", Boolean.TRUE, LocalDate.now())));
+
+        Chore updated = repository.load().get(1);
+        assertAll(
+                () -> assertEquals("Dry the dishes", updated.getDescription()),
+                () -> assertEquals(Boolean.TRUE, updated.getIsCompleted())
+        );
+    }
+
+    @Test
+    @DisplayName("#save > When the chore has no id > Give it the next id so it can be updated")
+    void saveWhenTheChoreHasNoIdGiveItTheNextIdSoItCanBeUpdated() {
+        BinaryChoreRepository repository = new BinaryChoreRepository(file("chores.bin"));
+        repository.saveAll(sample());
+        Chore chore = new Chore("Dry the dishes", Boolean.FALSE, LocalDate.now());
+
+        assertTrue(repository.save(chore));
+        chore.setIsCompleted(Boolean.TRUE);
+        assertTrue(repository.update(chore));
+        assertTrue(repository.save(chore));
+
+        List<Chore> chores = repository.load();
+        assertAll(
+                () -> assertEquals(201L, chore.getId()),
+                () -> assertEquals(sample().size() + 1, chores.size()),
+                () -> assertEquals(Boolean.TRUE, chores.get(chores.size() - 1).getIsCompleted())
+        );
+    }
+
+    @Test
+    @DisplayName("#apply > When a chore is deleted > Remove it without duplicating the others")
+    void applyWhenAChoreIsDeletedRemoveItWithoutDuplicatingTheOthers() {
+        BinaryChoreRepository repository = new BinaryChoreRepository(file("chores.bin"));
+        repository.saveAll(sample());
+        Chore added = new Chore("Dry the dishes", Boolean.FALSE, LocalDate.now());
+        Chore deleted = new Chore(1L, "Wash the dishes", Boolean.TRUE, LocalDate.now());
+
+        assertTrue(repository.apply(new ChoreChangeSet(List.of(added), List.of(), List.of(deleted))));
+        assertTrue(repository.apply(new ChoreChangeSet(List.of(added), List.of(), List.of())));
+
+        List<Chore> chores = repository.load();
+        assertAll(
+                () -> assertEquals(sample().size(), chores.size()),
+                () -> assertEquals(2L, chores.get(0).getId()),
+                () -> assertEquals(added.getId(), chores.get(chores.size() - 1).getId())
+        );
+    }
+
+    @Test
+    @DisplayName("#jsonToBinary > When the JSON file is converted back and forth > Keep the same chores")
+    void jsonToBinaryWhenTheJsonFileIsConvertedBackAndForthKeepTheSameChores() {
+        List<Chore> chores = sample();
+        FileChoreRepository.streaming(file("chores.json")).saveAll(chores);
+
+        assertTrue(ChoreFileConverter.jsonToBinary(file("chores.json"), file("chores.bin")));
+        assertTrue(ChoreFileConverter.binaryToJson(file("chores.bin"), file("copy.json")));
+
+        assertSameChores(chores, FileChoreRepository.streaming(file("copy.json")).load());
+        assertTrue(file("chores.bin").length() < file("chores.json").length());
+    }
+
+}
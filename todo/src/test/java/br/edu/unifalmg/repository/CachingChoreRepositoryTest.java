@@ -0,0 +1,257 @@
+package br.edu.unifalmg.repository;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.repository.impl.CacheStats;
+import br.edu.unifalmg.repository.impl.CachingChoreRepository;
+import br.edu.unifalmg.store.ChoreQuery;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CachingChoreRepositoryTest {
+
+    private final CountingRepository backend = new CountingRepository();
+
+    @Test
+    @DisplayName("#load > When the chores were loaded before > Serve them from memory")
+    void loadWhenTheChoresWereLoadedBeforeServeThemFromMemory() {
+        CachingChoreRepository repository = new CachingChoreRepository(backend);
+        backend.chores.add(new Chore(1L, "Chore #01", Boolean.FALSE, LocalDate.now()));
+
+        repository.load();
+        repository.load();
+        List<Chore> chores = repository.load();
+
+        CacheStats stats = repository.stats();
+        assertAll(
+                () -> assertEquals(1, backend.loads),
+                () -> assertEquals(1, chores.size()),
+                () -> assertEquals(2L, stats.getHits()),
+                () -> assertEquals(1L, stats.getMisses())
+        );
+    }
+
+    @Test
+    @DisplayName("#load > When a loaded chore is changed > Do not change the cached chore")
+    void loadWhenALoadedChoreIsChangedDoNotChangeTheCachedChore() {
+        CachingChoreRepository repository = new CachingChoreRepository(backend);
+        backend.chores.add(new Chore(1L, "Chore #01", Boolean.FALSE, LocalDate.now()));
+
+        repository.load().get(0).setIsCompleted(Boolean.TRUE);
+
+        assertEquals(Boolean.FALSE, repository.load().get(0).getIsCompleted());
+    }
+
+    @Test
+    @DisplayName("#save > When the chore is saved > Write it through and add it to the cached chores")
+    void saveWhenTheChoreIsSavedWriteItThroughAndAddItToTheCachedChores() {
+        CachingChoreRepository repository = new CachingChoreRepository(backend);
+        repository.load();
+
+        assertTrue(repository.save(new Chore("Chore #01", Boolean.FALSE, LocalDate.now())));
+        List<Chore> chores = repository.load();
+
+        assertAll(
+                () -> assertEquals(1, backend.chores.size()),
+                () -> assertEquals(1, backend.loads),
+                () -> assertEquals(1, chores.size()),
+                () -> assertEquals("Chore #01", chores.get(0).getDescription())
+        );
+    }
+
+    @Test
+    @DisplayName("#save > When the chore is already stored > Replace the cached chore")
+    void saveWhenTheChoreIsAlreadyStoredReplaceTheCachedChore() {
+        CachingChoreRepository repository = new CachingChoreRepository(backend);
+        backend.chores.add(new Chore(1L, "Chore #01", Boolean.FALSE, LocalDate.now()));
+        repository.load();
+
+        assertTrue(repository.save(new Chore(1L, "Chore #01", Boolean.TRUE, LocalDate.now())));
+
+        List<Chore> chores = repository.load();
+        assertAll(
+                () -> assertEquals(1, chores.size()),
+                () -> assertEquals(Boolean.TRUE, chores.get(0).getIsCompleted()),
+                () -> assertEquals(1, backend.loads)
+        );
+    }
+
+    @Test
+    @DisplayName("#update > When a cached load was handed out > Leave the handed out chores unchanged")
+    void updateWhenACachedLoadWasHandedOutLeaveTheHandedOutChoresUnchanged() {
+        CachingChoreRepository repository = new CachingChoreRepository(backend);
+        for (long id = 1; id <= 3; id++) {
+            backend.chores.add(new Chore(id, "Chore #0" + id, Boolean.FALSE, LocalDate.now()));
+        }
+        repository.load();
+        List<Chore> before = repository.load();
+
+        repository.update(new Chore(3L, "Chore #03", Boolean.TRUE, LocalDate.now()));
+
+        List<Chore> after = repository.load();
+        assertAll(
+                () -> assertEquals(Boolean.FALSE, before.get(2).getIsCompleted()),
+                () -> assertEquals(Boolean.TRUE, after.get(2).getIsCompleted()),
+                () -> assertSame(after.get(0), after.get(0)),
+                () -> assertNotSame(before.get(0), after.get(0)),
+                () -> assertThrows(UnsupportedOperationException.class, () -> after.remove(0)),
+                () -> assertEquals(1, backend.loads)
+        );
+    }
+
+    @Test
+    @DisplayName("#update > When the chore is updated > Write it through and replace the cached chore")
+    void updateWhenTheChoreIsUpdatedWriteItThroughAndReplaceTheCachedChore() {
+        CachingChoreRepository repository = new CachingChoreRepository(backend);
+        backend.chores.add(new Chore(1L, "Chore #01", Boolean.FALSE, LocalDate.now()));
+        Chore chore = repository.load().get(0);
+
+        chore.setIsCompleted(Boolean.TRUE);
+        assertTrue(repository.update(chore));
+
+        assertAll(
+                () -> assertEquals(1, backend.updates),
+                () -> assertEquals(Boolean.TRUE, repository.load().get(0).getIsCompleted()),
+                () -> assertEquals(1, backend.loads)
+        );
+    }
+
+    @Test
+    @DisplayName("#load > When the cached chores outlived the time to live > Load them again")
+    void loadWhenTheCachedChoresOutlivedTheTimeToLiveLoadThemAgain() {
+        CachingChoreRepository repository = new CachingChoreRepository(backend, 10, Duration.ZERO);
+
+        repository.load();
+        repository.load();
+
+        assertAll(
+                () -> assertEquals(2, backend.loads),
+                () -> assertEquals(1L, repository.stats().getEvictions())
+        );
+    }
+
+    @Test
+    @DisplayName("#load > When the cache is full > Evict the least recently used result")
+    void loadWhenTheCacheIsFullEvictTheLeastRecentlyUsedResult() {
+        CachingChoreRepository repository = new CachingChoreRepository(backend, 1, Duration.ofMinutes(1));
+
+        repository.load(null, 10);
+        repository.load(5L, 10);
+        repository.load(null, 10);
+
+        assertAll(
+                () -> assertEquals(3, backend.loads),
+                () -> assertEquals(2L, repository.stats().getEvictions()),
+                () -> assertEquals(1, repository.stats().getSize())
+        );
+    }
+
+    @Test
+    @DisplayName("#saveAll > When the chores are saved > Drop the cached results")
+    void saveAllWhenTheChoresAreSavedDropTheCachedResults() {
+        CachingChoreRepository repository = new CachingChoreRepository(backend);
+        repository.load();
+
+        repository.saveAll(List.of(new Chore(1L, "Chore #01", Boolean.FALSE, LocalDate.now())));
+
+        assertAll(
+                () -> assertEquals(1, repository.load().size()),
+                () -> assertEquals(2, backend.loads)
+        );
+    }
+
+    @Test
+    @DisplayName("#load > When the chores are loaded with several threads > Let the repository split the load and cache it")
+    void loadWhenTheChoresAreLoadedWithSeveralThreadsLetTheRepositorySplitTheLoadAndCacheIt() {
+        CachingChoreRepository repository = new CachingChoreRepository(backend);
+        backend.chores.add(new Chore(1L, "Chore #01", Boolean.FALSE, LocalDate.now()));
+
+        List<Chore> chores = repository.load(ForkJoinPool.commonPool());
+        repository.load();
+
+        assertAll(
+                () -> assertEquals(1, backend.parallelLoads),
+                () -> assertEquals(1, backend.loads),
+                () -> assertEquals(1, chores.size())
+        );
+    }
+
+    @Test
+    @DisplayName("#find > When the chores are queried > Let the repository answer the query")
+    void findWhenTheChoresAreQueriedLetTheRepositoryAnswerTheQuery() {
+        CachingChoreRepository repository = new CachingChoreRepository(backend);
+        backend.chores.add(new Chore(1L, "Chore #01", Boolean.FALSE, LocalDate.now()));
+        backend.chores.add(new Chore(2L, "Chore #02", Boolean.TRUE, LocalDate.now()));
+        ChoreQuery query = ChoreQuery.builder().isCompleted(true).build();
+
+        List<Chore> found = repository.find(query);
+
+        assertAll(
+                () -> assertEquals(1, backend.finds),
+                () -> assertEquals(1, found.size()),
+                () -> assertEquals(2L, found.get(0).getId()),
+                () -> assertEquals(1L, repository.count(query))
+        );
+    }
+
+    /**
+     * In-memory repository counting the calls it receives.
+     */
+    private static class CountingRepository implements ChoreRepository {
+
+        private final List<Chore> chores = new ArrayList<>();
+
+        private int loads;
+
+        private int updates;
+
+        private int finds;
+
+        private int parallelLoads;
+
+        @Override
+        public List<Chore> load() {
+            loads++;
+            return new ArrayList<>(chores);
+        }
+
+        @Override
+        public boolean save(Chore chore) {
+            return chores.add(chore);
+        }
+
+        @Override
+        public boolean saveAll(List<Chore> chores) {
+            this.chores.clear();
+            this.chores.addAll(chores);
+            return true;
+        }
+
+        @Override
+        public boolean update(Chore chore) {
+            updates++;
+            return true;
+        }
+
+        @Override
+        public List<Chore> load(ForkJoinPool workers) {
+            parallelLoads++;
+            return ChoreRepository.super.load(workers);
+        }
+
+        @Override
+        public List<Chore> find(ChoreQuery query) {
+            finds++;
+            return ChoreRepository.super.find(query);
+        }
+
+    }
+
+}
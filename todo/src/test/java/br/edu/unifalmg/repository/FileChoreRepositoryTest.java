@@ -8,6 +8,7 @@ import com.fasterxml.jackson.databind.exc.MismatchedInputException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -17,7 +18,13 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.time.LocalDate;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -28,6 +35,9 @@ public class FileChoreRepositoryTest {
     @Mock
     private ObjectMapper mapper;
 
+    @TempDir
+    Path directory;
+
     @BeforeEach
     public void setup() {
         MockitoAnnotations.openMocks(this);
@@ -130,4 +140,149 @@ public class FileChoreRepositoryTest {
         assertFalse(service.saveChores());
     }
 
+    @Test
+    @DisplayName("#stream > When the chores are saved in streaming mode > Read the chores back one by one")
+    void streamWhenTheChoresAreSavedInStreamingModeReadTheChoresBack() {
+        FileChoreRepository streaming = FileChoreRepository.streaming(directory.resolve("chores.json").toFile());
+        assertTrue(streaming.saveAll(List.of(
+                new Chore(1L, "Chore #01", Boolean.FALSE, LocalDate.now()),
+                new Chore(2L, "Chore #02", Boolean.TRUE, LocalDate.now().minusDays(5))
+        )));
+
+        List<Chore> chores;
+        try (Stream<Chore> stream = streaming.stream()) {
+            chores = stream.collect(Collectors.toList());
+        }
+
+        assertAll(
+                () -> assertEquals(2, chores.size()),
+                () -> assertEquals(1L, chores.get(0).getId()),
+                () -> assertEquals("Chore #02", chores.get(1).getDescription()),
+                () -> assertEquals(Boolean.TRUE, chores.get(1).getIsCompleted()),
+                () -> assertEquals(LocalDate.now().minusDays(5), chores.get(1).getDeadline())
+        );
+    }
+
+    @Test
+    @DisplayName("#load > When the file is empty in streaming mode > Return an empty list")
+    void loadWhenTheFileIsEmptyInStreamingModeReturnAnEmptyList() throws IOException {
+        File file = Files.createFile(directory.resolve("chores.json")).toFile();
+
+        assertAll(
+                () -> assertTrue(FileChoreRepository.streaming(file).load().isEmpty()),
+                () -> assertTrue(FileChoreRepository.streaming(new File(directory.toFile(), "missing.json")).load().isEmpty())
+        );
+    }
+
+    @Test
+    @DisplayName("#apply > When the file has chores > Rewrite the file with the changes")
+    void applyWhenTheFileHasChoresRewriteTheFileWithTheChanges() {
+        FileChoreRepository file = FileChoreRepository.of(directory.resolve("chores.json").toFile());
+        Chore first = new Chore(1L, "Chore #01", Boolean.FALSE, LocalDate.now());
+        Chore second = new Chore(2L, "Chore #02", Boolean.FALSE, LocalDate.now());
+        Chore third = new Chore(7L, "Chore #03", Boolean.FALSE, LocalDate.now());
+        assertTrue(file.saveAll(List.of(first, second, third)));
+        Chore added = new Chore("Chore #04", Boolean.FALSE, LocalDate.now().plusDays(1));
+        Chore updated = new Chore(2L, "Chore #02", Boolean.TRUE, LocalDate.now());
+
+        boolean applied = file.apply(new ChoreChangeSet(List.of(added), List.of(updated), List.of(first)));
+        List<Chore> chores = file.load();
+
+        assertAll(
+                () -> assertTrue(applied),
+                () -> assertEquals(8L, added.getId()),
+                () -> assertEquals(3, chores.size()),
+                () -> assertEquals(List.of(2L, 7L, 8L), chores.stream().map(Chore::getId).collect(Collectors.toList())),
+                () -> assertEquals(Boolean.TRUE, chores.get(0).getIsCompleted()),
+                () -> assertEquals("Chore #04", chores.get(2).getDescription())
+        );
+    }
+
+    @Test
+    @DisplayName("#apply > When the chores were saved without id > Match them by the ids given by saveAll")
+    void applyWhenTheChoresWereSavedWithoutIdMatchThemByTheIdsGivenBySaveAll() {
+        FileChoreRepository file = FileChoreRepository.of(directory.resolve("chores.json").toFile());
+        Chore first = new Chore("Chore #01", Boolean.FALSE, LocalDate.now());
+        Chore second = new Chore("Chore #02", Boolean.FALSE, LocalDate.now());
+        assertTrue(file.saveAll(List.of(first, second)));
+
+        second.setIsCompleted(Boolean.TRUE);
+        boolean applied = file.apply(new ChoreChangeSet(List.of(), List.of(second), List.of()));
+        List<Chore> chores = file.load();
+
+        assertAll(
+                () -> assertTrue(applied),
+                () -> assertEquals(List.of(1L, 2L), chores.stream().map(Chore::getId).collect(Collectors.toList())),
+                () -> assertEquals(Boolean.TRUE, chores.get(1).getIsCompleted())
+        );
+    }
+
+    @Test
+    @DisplayName("#saveChores > When the loaded file has chores without id > Save the toggled chore")
+    void saveChoresWhenTheLoadedFileHasChoresWithoutIdSaveTheToggledChore() {
+        File json = directory.resolve("chores.json").toFile();
+        FileChoreRepository file = FileChoreRepository.of(json);
+        // Written as an older version did, without ids
+        assertTrue(file.saveAll(Stream.of(
+                new Chore("Chore #01", Boolean.FALSE, LocalDate.now()),
+                new Chore("Chore #02", Boolean.FALSE, LocalDate.now())
+        )));
+        ChoreService service = new ChoreService(file);
+        service.loadChores();
+
+        service.toggleChore("Chore #02", LocalDate.now());
+        boolean saved = service.saveChores();
+        service.toggleChore("Chore #01", LocalDate.now());
+        boolean savedAgain = service.saveChores();
+
+        List<Chore> chores = FileChoreRepository.of(json).load();
+        assertAll(
+                () -> assertTrue(saved),
+                () -> assertTrue(savedAgain),
+                () -> assertEquals(List.of(1L, 2L), chores.stream().map(Chore::getId).collect(Collectors.toList())),
+                () -> assertEquals(Boolean.TRUE, chores.get(0).getIsCompleted()),
+                () -> assertEquals(Boolean.TRUE, chores.get(1).getIsCompleted())
+        );
+    }
+
+    @Test
+    @DisplayName("#load > When the file is loaded with several threads > Return the chores in the order of the file")
+    void loadWhenTheFileIsLoadedWithSeveralThreadsReturnTheChoresInTheOrderOfTheFile() {
+        FileChoreRepository file = FileChoreRepository.of(directory.resolve("chores.json").toFile());
+        List<Chore> saved = new ArrayList<>();
+        for (int i = 0; i < 5_500; i++) {
+            // Braces, brackets and quotes inside the descriptions must not split the chores
+            saved.add(new Chore((long) i, "Chore {#" + i + "} [\"" + i + "\\\"]", i % 3 == 0, LocalDate.now().plusDays(i % 7)));
+        }
+        assertTrue(file.saveAll(saved));
+        ForkJoinPool workers = new ForkJoinPool(4);
+
+        List<Chore> chores = file.load(workers);
+        workers.shutdown();
+
+        assertAll(
+                () -> assertEquals(saved.size(), chores.size()),
+                () -> assertEquals(
+                        saved.stream().map(Chore::toString).collect(Collectors.toList()),
+                        chores.stream().map(Chore::toString).collect(Collectors.toList())),
+                () -> assertEquals(
+                        saved.stream().map(Chore::getId).collect(Collectors.toList()),
+                        chores.stream().map(Chore::getId).collect(Collectors.toList()))
+        );
+    }
+
+    @Test
+    @DisplayName("#load > When the file is not a list of chores and is loaded with several threads > Return an empty list")
+    void loadWhenTheFileIsNotAListOfChoresAndIsLoadedWithSeveralThreadsReturnAnEmptyList() throws IOException {
+        File file = directory.resolve("chores.json").toFile();
+        Files.writeString(file.toPath(), "[{\"description\": \"Chore #01\"}, 42]");
+        ForkJoinPool workers = new ForkJoinPool(2);
+
+        assertAll(
+                () -> assertTrue(FileChoreRepository.of(file).load(workers).isEmpty()),
+                () -> assertTrue(FileChoreRepository.of(new File(directory.toFile(), "missing.json")).load(workers).isEmpty())
+        );
+        workers.shutdown();
+    }
+
 }
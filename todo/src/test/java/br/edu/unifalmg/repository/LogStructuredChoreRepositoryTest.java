@@ -0,0 +1,200 @@
+package br.edu.unifalmg.repository;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.repository.impl.LogStructuredChoreRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LogStructuredChoreRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private LogStructuredChoreRepository open(int compactionThreshold) {
+        return new LogStructuredChoreRepository(snapshot(), log(), compactionThreshold);
+    }
+
+    private File snapshot() {
+        return directory.resolve("chores.json").toFile();
+    }
+
+    private File log() {
+        return directory.resolve("chores.log").toFile();
+    }
+
+    @Test
+    @DisplayName("#save > When the repository is reopened > Replay the log")
+    void saveWhenTheRepositoryIsReopenedReplayTheLog() {
+        LogStructuredChoreRepository repository = open(100);
+        Chore first = new Chore("Chore #01", Boolean.FALSE, LocalDate.now());
+        Chore second = new Chore("Chore #02", Boolean.FALSE, LocalDate.now().plusDays(1));
+        assertTrue(repository.save(first));
+        assertTrue(repository.save(second));
+        first.setIsCompleted(Boolean.TRUE);
+        assertTrue(repository.update(first));
+        assertTrue(repository.delete(second));
+        repository.close();
+
+        List<Chore> chores = open(100).load();
+
+        assertAll(
+                () -> assertEquals(1L, first.getId()),
+                () -> assertEquals(2L, second.getId()),
+                () -> assertEquals(1, chores.size()),
+                () -> assertEquals("Chore #01", chores.get(0).getDescription()),
+                () -> assertEquals(Boolean.TRUE, chores.get(0).getIsCompleted()),
+                () -> assertEquals(LocalDate.now(), chores.get(0).getDeadline())
+        );
+    }
+
+    @Test
+    @DisplayName("#update > When the chore was never saved > Return false")
+    void updateWhenTheChoreWasNeverSavedReturnFalse() {
+        LogStructuredChoreRepository repository = open(100);
+
+        assertAll(
+                () -> assertFalse(repository.update(new Chore("Chore #01", Boolean.FALSE, LocalDate.now()))),
+                () -> assertFalse(repository.update(new Chore(9L, "Chore #01", Boolean.FALSE, LocalDate.now()))),
+                () -> assertFalse(repository.delete(new Chore(9L, "Chore #01", Boolean.FALSE, LocalDate.now())))
+        );
+    }
+
+    @Test
+    @DisplayName("#save > When the log reaches the compaction threshold > Fold the log into the snapshot")
+    void saveWhenTheLogReachesTheCompactionThresholdFoldTheLogIntoTheSnapshot() {
+        LogStructuredChoreRepository repository = open(3);
+        for (int i = 0; i < 3; i++) {
+            repository.save(new Chore("Chore #" + i, Boolean.FALSE, LocalDate.now()));
+        }
+        repository.close();
+
+        assertAll(
+                () -> assertEquals(0, log().length()),
+                () -> assertTrue(snapshot().length() > 0),
+                () -> assertEquals(3, open(3).load().size())
+        );
+    }
+
+    @Test
+    @DisplayName("#load > When the last record of the log is torn > Discard the torn record")
+    void loadWhenTheLastRecordOfTheLogIsTornDiscardTheTornRecord() throws IOException {
+        LogStructuredChoreRepository repository = open(100);
+        repository.save(new Chore("Chore #01", Boolean.FALSE, LocalDate.now()));
+        repository.save(new Chore("Chore #02", Boolean.FALSE, LocalDate.now()));
+        repository.close();
+        try (RandomAccessFile file = new RandomAccessFile(log(), "rw")) {
+            file.setLength(file.length() - 3);
+        }
+
+        LogStructuredChoreRepository reopened = open(100);
+        assertTrue(reopened.save(new Chore("Chore #03", Boolean.FALSE, LocalDate.now())));
+        reopened.close();
+
+        List<Chore> chores = open(100).load();
+        assertAll(
+                () -> assertEquals(2, chores.size()),
+                () -> assertEquals("Chore #01", chores.get(0).getDescription()),
+                () -> assertEquals("Chore #03", chores.get(1).getDescription())
+        );
+    }
+
+    @Test
+    @DisplayName("#save > When many threads save at the same time > Persist every chore")
+    void saveWhenManyThreadsSaveAtTheSameTimePersistEveryChore() throws Exception {
+        LogStructuredChoreRepository repository = open(1_000);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            Chore chore = new Chore("Chore #" + i, Boolean.FALSE, LocalDate.now());
+            results.add(executor.submit(() -> repository.save(chore)));
+        }
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get());
+        }
+        executor.shutdown();
+        repository.close();
+
+        assertEquals(400, open(1_000).load().size());
+    }
+
+    @Test
+    @DisplayName("#saveAll > When the process stops before the log is truncated > Discard the stale log")
+    void saveAllWhenTheProcessStopsBeforeTheLogIsTruncatedDiscardTheStaleLog() throws IOException {
+        LogStructuredChoreRepository repository = open(100);
+        repository.save(new Chore("Chore #01", Boolean.FALSE, LocalDate.now()));
+        repository.save(new Chore("Chore #02", Boolean.FALSE, LocalDate.now()));
+        byte[] staleLog = Files.readAllBytes(log().toPath());
+
+        assertTrue(repository.saveAll(List.of(new Chore("Chore #03", Boolean.FALSE, LocalDate.now()))));
+        repository.close();
+        Files.write(log().toPath(), staleLog);
+
+        List<Chore> chores = open(100).load();
+        assertAll(
+                () -> assertEquals(1, chores.size()),
+                () -> assertEquals("Chore #03", chores.get(0).getDescription())
+        );
+    }
+
+    @Test
+    @DisplayName("#load > When a BASE record follows other records > Keep only the snapshot")
+    void loadWhenABaseRecordFollowsOtherRecordsKeepOnlyTheSnapshot() throws IOException {
+        LogStructuredChoreRepository repository = open(100);
+        repository.save(new Chore("Chore #01", Boolean.FALSE, LocalDate.now()));
+        repository.save(new Chore("Chore #02", Boolean.FALSE, LocalDate.now()));
+        repository.close();
+        byte[] log = Files.readAllBytes(log().toPath());
+        int base = ByteBuffer.wrap(log).getInt() + 8;
+        ByteBuffer moved = ByteBuffer.allocate(log.length);
+        moved.put(log, base, log.length - base).put(log, 0, base);
+        Files.write(log().toPath(), moved.array());
+
+        LogStructuredChoreRepository reopened = open(100);
+        List<Chore> recovered = reopened.load();
+        assertTrue(reopened.save(new Chore("Chore #03", Boolean.FALSE, LocalDate.now())));
+        reopened.close();
+
+        List<Chore> chores = open(100).load();
+        assertAll(
+                () -> assertTrue(recovered.isEmpty()),
+                () -> assertEquals(1, chores.size()),
+                () -> assertEquals("Chore #03", chores.get(0).getDescription())
+        );
+    }
+
+    @Test
+    @DisplayName("#saveAll > When the snapshot cannot be written > Keep the previous chores")
+    void saveAllWhenTheSnapshotCannotBeWrittenKeepThePreviousChores() throws IOException {
+        LogStructuredChoreRepository repository = open(100);
+        repository.save(new Chore("Chore #01", Boolean.FALSE, LocalDate.now()));
+        Files.createDirectory(directory.resolve("chores.json.tmp"));
+
+        assertFalse(repository.saveAll(List.of(new Chore("Chore #02", Boolean.FALSE, LocalDate.now()))));
+
+        List<Chore> chores = repository.load();
+        repository.close();
+        List<Chore> reopened = open(100).load();
+        assertAll(
+                () -> assertEquals(1, chores.size()),
+                () -> assertEquals("Chore #01", chores.get(0).getDescription()),
+                () -> assertEquals(1, reopened.size()),
+                () -> assertEquals("Chore #01", reopened.get(0).getDescription())
+        );
+    }
+}
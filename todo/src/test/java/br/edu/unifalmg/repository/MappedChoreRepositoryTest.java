@@ -0,0 +1,245 @@
+package br.edu.unifalmg.repository;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.repository.impl.MappedChoreRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MappedChoreRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    private File file() {
+        return directory.resolve("chores.map").toFile();
+    }
+
+    @Test
+    @DisplayName("#save > When the repository is reopened > Load the saved chores with their ids")
+    void saveWhenTheRepositoryIsReopenedLoadTheSavedChoresWithTheirIds() {
+        try (MappedChoreRepository repository = new MappedChoreRepository(file())) {
+            for (int i = 0; i < 2000; i++) {
+                assertTrue(repository.save(new Chore("Chore #" + i, i % 2 == 0, LocalDate.now().plusDays(i))));
+            }
+        }
+
+        try (MappedChoreRepository repository = new MappedChoreRepository(file())) {
+            List<Chore> chores = repository.load();
+            assertEquals(2000, chores.size());
+            assertAll(
+                    () -> assertEquals(1L, chores.get(0).getId()),
+                    () -> assertEquals("Chore #1999", chores.get(1999).getDescription()),
+                    () -> assertEquals(Boolean.FALSE, chores.get(1999).getIsCompleted()),
+                    () -> assertEquals(LocalDate.now().plusDays(1999), chores.get(1999).getDeadline())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("#update > When the chore exists > Write it in place")
+    void updateWhenTheChoreExistsWriteItInPlace() throws IOException {
+        try (MappedChoreRepository repository = new MappedChoreRepository(file())) {
+            Chore chore = new Chore("Chore #01", Boolean.FALSE, LocalDate.now());
+            repository.save(chore);
+            long size = Files.size(file().toPath());
+
+            chore.setIsCompleted(Boolean.TRUE);
+            chore.setDeadline(LocalDate.now().plusDays(3));
+            assertTrue(repository.update(chore));
+            assertFalse(repository.update(new Chore(42L, "Unknown", Boolean.FALSE, LocalDate.now())));
+
+            Chore updated = repository.load().get(0);
+            assertAll(
+                    () -> assertEquals(Boolean.TRUE, updated.getIsCompleted()),
+                    () -> assertEquals(LocalDate.now().plusDays(3), updated.getDeadline()),
+                    () -> assertEquals(size, Files.size(file().toPath()))
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("#setCompleted > When the chore exists > Toggle it and keep its description")
+    void setCompletedWhenTheChoreExistsToggleItAndKeepItsDescription() {
+        try (MappedChoreRepository repository = new MappedChoreRepository(file())) {
+            Chore chore = new Chore("Chore #01", Boolean.FALSE, LocalDate.now());
+            repository.save(chore);
+            chore.setDescription("Chore #01 edited");
+            repository.update(chore);
+
+            assertTrue(repository.setCompleted(chore.getId(), true));
+
+            Chore toggled = repository.load().get(0);
+            assertAll(
+                    () -> assertEquals(Boolean.TRUE, toggled.getIsCompleted()),
+                    () -> assertEquals("Chore #01 edited", toggled.getDescription())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("#apply > When a chore is deleted > Remove only that chore")
+    void applyWhenAChoreIsDeletedRemoveOnlyThatChore() {
+        try (MappedChoreRepository repository = new MappedChoreRepository(file())) {
+            Chore first = new Chore("Chore #01", Boolean.FALSE, LocalDate.now());
+            Chore second = new Chore("Chore #02", Boolean.FALSE, LocalDate.now());
+            repository.save(first);
+            repository.save(second);
+            Chore added = new Chore("Chore #03", Boolean.FALSE, LocalDate.now());
+
+            assertTrue(repository.apply(new ChoreChangeSet(List.of(added), List.of(), List.of(first))));
+
+            List<Chore> chores = repository.load();
+            assertAll(
+                    () -> assertEquals(2, chores.size()),
+                    () -> assertEquals("Chore #02", chores.get(0).getDescription()),
+                    () -> assertEquals(added.getId(), chores.get(1).getId()),
+                    () -> assertFalse(repository.delete(first))
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("#load > When the chores change after loading > Read them as they are now")
+    void loadWhenTheChoresChangeAfterLoadingReadThemAsTheyAreNow() {
+        try (MappedChoreRepository repository = new MappedChoreRepository(file())) {
+            Chore first = new Chore("Chore #01", Boolean.FALSE, LocalDate.now());
+            repository.save(first);
+            repository.save(new Chore("Chore #02", Boolean.FALSE, LocalDate.now()));
+            List<Chore> view = repository.load();
+
+            first.setDescription("Chore #01, renamed");
+            repository.update(first);
+            assertEquals("Chore #01, renamed", view.get(0).getDescription());
+
+            repository.delete(first);
+            assertAll(
+                    () -> assertThrows(ConcurrentModificationException.class, () -> view.get(0)),
+                    () -> assertEquals("Chore #02", view.get(1).getDescription()),
+                    () -> assertEquals(1, repository.load().size())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("#delete > When the repository is reopened > Skip the deleted chore without rewriting the files")
+    void deleteWhenTheRepositoryIsReopenedSkipTheDeletedChoreWithoutRewritingTheFiles() {
+        Chore first = new Chore("Chore #01", Boolean.FALSE, LocalDate.now());
+        Chore second = new Chore("Chore #02", Boolean.FALSE, LocalDate.now());
+        try (MappedChoreRepository repository = new MappedChoreRepository(file())) {
+            repository.save(first);
+            repository.save(second);
+            assertTrue(repository.delete(second));
+        }
+
+        try (MappedChoreRepository repository = new MappedChoreRepository(file())) {
+            Chore third = new Chore("Chore #03", Boolean.FALSE, LocalDate.now());
+            assertTrue(repository.save(third));
+            List<Chore> chores = repository.load();
+            assertAll(
+                    () -> assertTrue(directory.resolve("chores.map.0.text").toFile().exists()),
+                    () -> assertEquals(2, chores.size()),
+                    () -> assertEquals("Chore #01", chores.get(0).getDescription()),
+                    () -> assertEquals(3L, third.getId()),
+                    () -> assertFalse(repository.update(second)),
+                    () -> assertFalse(repository.delete(second))
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("#delete > When most chores are deleted > Compact the files")
+    void deleteWhenMostChoresAreDeletedCompactTheFiles() {
+        try (MappedChoreRepository repository = new MappedChoreRepository(file())) {
+            List<Chore> saved = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                Chore chore = new Chore("Chore #" + i, Boolean.FALSE, LocalDate.now());
+                repository.save(chore);
+                saved.add(chore);
+            }
+            for (int i = 0; i < 150; i++) {
+                assertTrue(repository.delete(saved.get(i)));
+            }
+
+            List<Chore> chores = repository.load();
+            assertAll(
+                    () -> assertFalse(directory.resolve("chores.map.0.text").toFile().exists()),
+                    () -> assertEquals(50, chores.size()),
+                    () -> assertEquals("Chore #150", chores.get(0).getDescription()),
+                    () -> assertEquals(151L, chores.get(0).getId()),
+                    () -> assertTrue(repository.update(saved.get(199)))
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("#saveAll > When the repository is reopened > Load only the new chores")
+    void saveAllWhenTheRepositoryIsReopenedLoadOnlyTheNewChores() {
+        List<Chore> chores = new ArrayList<>();
+        chores.add(new Chore(10L, "Chore #10", Boolean.TRUE, LocalDate.now()));
+        chores.add(new Chore("Chore #11", Boolean.FALSE, LocalDate.now()));
+        try (MappedChoreRepository repository = new MappedChoreRepository(file())) {
+            repository.save(new Chore("Old chore", Boolean.FALSE, LocalDate.now()));
+            assertTrue(repository.saveAll(chores));
+            chores.get(0).setIsCompleted(Boolean.FALSE);
+            assertTrue(repository.update(chores.get(0)));
+        }
+
+        try (MappedChoreRepository repository = new MappedChoreRepository(file())) {
+            List<Chore> loaded = repository.load();
+            assertAll(
+                    () -> assertEquals(2, loaded.size()),
+                    () -> assertEquals(Boolean.FALSE, loaded.get(0).getIsCompleted()),
+                    () -> assertEquals(11L, loaded.get(1).getId()),
+                    () -> assertEquals("Chore #11", loaded.get(1).getDescription())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("#open > When the newest header is torn > Fall back to the previous header")
+    void openWhenTheNewestHeaderIsTornFallBackToThePreviousHeader() throws IOException {
+        MappedChoreRepository crashed = new MappedChoreRepository(file());
+        crashed.save(new Chore("Chore #01", Boolean.FALSE, LocalDate.now()));
+        crashed.save(new Chore("Chore #02", Boolean.FALSE, LocalDate.now()));
+
+        try (RandomAccessFile raf = new RandomAccessFile(file(), "rw")) {
+            raf.seek(8);
+            long first = raf.readLong();
+            raf.seek(64 + 8);
+            long second = raf.readLong();
+            raf.seek((first > second ? 0 : 64) + 16);
+            raf.writeLong(99);
+        }
+
+        try (MappedChoreRepository repository = new MappedChoreRepository(file())) {
+            List<Chore> chores = repository.load();
+            assertAll(
+                    () -> assertEquals(1, chores.size()),
+                    () -> assertEquals("Chore #01", chores.get(0).getDescription())
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("#open > When the file is not a chores file > Throw an exception")
+    void openWhenTheFileIsNotAChoresFileThrowAnException() throws IOException {
+        Files.write(file().toPath(), new byte[256]);
+
+        assertThrows(UncheckedIOException.class, () -> new MappedChoreRepository(file()));
+    }
+
+}
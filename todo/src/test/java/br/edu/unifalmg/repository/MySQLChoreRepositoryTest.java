@@ -0,0 +1,317 @@
+package br.edu.unifalmg.repository;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.repository.impl.MySQLChoreRepository;
+import br.edu.unifalmg.repository.pool.ConnectionPool;
+import br.edu.unifalmg.repository.pool.PoolMetrics;
+import br.edu.unifalmg.store.ChoreQuery;
+import br.edu.unifalmg.store.ChoreStatistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the repository against an in-memory H2 database in MySQL mode.
+ */
+public class MySQLChoreRepositoryTest {
+
+    private ConnectionPool pool;
+
+    private MySQLChoreRepository repository;
+
+    @BeforeEach
+    public void setup() throws SQLException {
+        String url = "jdbc:h2:mem:" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1";
+        try (Connection connection = DriverManager.getConnection(url);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SCHEMA lifecycle");
+            statement.execute("CREATE TABLE lifecycle.chores (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                    + "description VARCHAR(255) NOT NULL, isCompleted BOOLEAN NOT NULL, deadline DATE NOT NULL)");
+        }
+        pool = new ConnectionPool(() -> DriverManager.getConnection(url), 4);
+        repository = new MySQLChoreRepository(pool);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    @DisplayName("#save > When the chore is saved > Load the chore back")
+    void saveWhenTheChoreIsSavedLoadTheChoreBack() {
+        assertTrue(repository.save(new Chore("Chore #01", Boolean.FALSE, LocalDate.now())));
+
+        List<Chore> chores = repository.load();
+
+        assertAll(
+                () -> assertEquals(1, chores.size()),
+                () -> assertEquals("Chore #01", chores.get(0).getDescription()),
+                () -> assertEquals(Boolean.FALSE, chores.get(0).getIsCompleted()),
+                () -> assertEquals(LocalDate.now(), chores.get(0).getDeadline())
+        );
+    }
+
+    @Test
+    @DisplayName("#update > When the chore was loaded > Update the chore")
+    void updateWhenTheChoreWasLoadedUpdateTheChore() {
+        repository.save(new Chore("Chore #01", Boolean.FALSE, LocalDate.now()));
+        Chore chore = repository.load().get(0);
+        chore.setIsCompleted(Boolean.TRUE);
+        chore.setDeadline(LocalDate.now().plusDays(1));
+
+        assertTrue(repository.update(chore));
+
+        Chore updated = repository.load().get(0);
+        assertAll(
+                () -> assertEquals(Boolean.TRUE, updated.getIsCompleted()),
+                () -> assertEquals(LocalDate.now().plusDays(1), updated.getDeadline())
+        );
+    }
+
+    @Test
+    @DisplayName("#load > When several operations run one after the other > Reuse a single pooled connection")
+    void loadWhenSeveralOperationsRunOneAfterTheOtherReuseASinglePooledConnection() {
+        for (int i = 0; i < 5; i++) {
+            repository.save(new Chore("Chore #" + i, Boolean.FALSE, LocalDate.now()));
+            repository.load();
+        }
+
+        PoolMetrics metrics = repository.poolMetrics();
+        assertAll(
+                () -> assertEquals(1L, metrics.getCreated()),
+                () -> assertEquals(10L, metrics.getBorrowed()),
+                () -> assertEquals(0, metrics.getActive()),
+                () -> assertEquals(1, metrics.getIdle())
+        );
+    }
+
+    @Test
+    @DisplayName("#save > When many threads use the repository at the same time > Do not leak or mix connections")
+    void saveWhenManyThreadsUseTheRepositoryAtTheSameTimeDoNotLeakOrMixConnections() throws Exception {
+        int tasks = 200;
+        ExecutorService executor = newExecutor();
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < tasks; i++) {
+            int number = i;
+            results.add(executor.submit(() -> {
+                boolean saved = repository.save(new Chore("Chore #" + number, number % 2 == 0, LocalDate.now().plusDays(number)));
+                return saved && repository.load() != null;
+            }));
+        }
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get());
+        }
+        executor.shutdown();
+
+        Map<String, Chore> chores = repository.load().stream()
+                .collect(Collectors.toMap(Chore::getDescription, Function.identity()));
+        PoolMetrics metrics = repository.poolMetrics();
+        assertEquals(tasks, chores.size());
+        for (int i = 0; i < tasks; i++) {
+            Chore chore = chores.get("Chore #" + i);
+            assertEquals(LocalDate.now().plusDays(i), chore.getDeadline());
+            assertEquals(i % 2 == 0, chore.getIsCompleted());
+        }
+        assertAll(
+                () -> assertEquals(0, metrics.getActive()),
+                () -> assertTrue(metrics.getIdle() <= 4),
+                () -> assertEquals(2L * tasks + 1, metrics.getBorrowed())
+        );
+    }
+
+    @Test
+    @DisplayName("#saveAll > When the chores have no id > Insert them in batches and write the generated ids back")
+    void saveAllWhenTheChoresHaveNoIdInsertThemInBatchesAndWriteTheGeneratedIdsBack() {
+        repository = new MySQLChoreRepository(pool, 2);
+        List<Chore> chores = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            chores.add(new Chore("Chore #" + i, Boolean.FALSE, LocalDate.now().plusDays(i)));
+        }
+
+        assertTrue(repository.saveAll(chores));
+
+        List<Chore> loaded = repository.load();
+        assertEquals(5, loaded.size());
+        for (Chore chore : chores) {
+            assertNotNull(chore.getId());
+            assertTrue(loaded.stream().anyMatch(row -> row.getId().equals(chore.getId())
+                    && row.getDescription().equals(chore.getDescription())));
+        }
+    }
+
+    @Test
+    @DisplayName("#saveAll > When the chores have an id > Update the existing rows")
+    void saveAllWhenTheChoresHaveAnIdUpdateTheExistingRows() {
+        repository.save(new Chore("Chore #01", Boolean.FALSE, LocalDate.now()));
+        Chore existing = repository.load().get(0);
+        existing.setIsCompleted(Boolean.TRUE);
+        Chore created = new Chore("Chore #02", Boolean.FALSE, LocalDate.now());
+
+        assertTrue(repository.saveAll(List.of(existing, created)));
+
+        List<Chore> loaded = repository.load();
+        assertAll(
+                () -> assertEquals(2, loaded.size()),
+                () -> assertTrue(loaded.stream().anyMatch(row -> row.getId().equals(existing.getId())
+                        && row.getIsCompleted())),
+                () -> assertNotNull(created.getId())
+        );
+    }
+
+    @Test
+    @DisplayName("#saveAll > When a chore cannot be saved > Roll back the whole transaction")
+    void saveAllWhenAChoreCannotBeSavedRollBackTheWholeTransaction() {
+        repository = new MySQLChoreRepository(pool, 1);
+        Chore valid = new Chore("Chore #01", Boolean.FALSE, LocalDate.now());
+        Chore invalid = new Chore(null, Boolean.FALSE, LocalDate.now());
+
+        assertFalse(repository.saveAll(List.of(valid, invalid)));
+
+        assertAll(
+                () -> assertTrue(repository.load().isEmpty()),
+                () -> assertNull(valid.getId())
+        );
+    }
+
+    @Test
+    @DisplayName("#load > When a page is requested after an id > Return the next chores ordered by id")
+    void loadWhenAPageIsRequestedAfterAnIdReturnTheNextChoresOrderedById() {
+        for (int i = 0; i < 5; i++) {
+            repository.save(new Chore("Chore #" + i, Boolean.FALSE, LocalDate.now()));
+        }
+
+        List<Chore> first = repository.load(null, 2);
+        List<Chore> second = repository.load(first.get(1).getId(), 2);
+        List<Chore> last = repository.load(second.get(1).getId(), 2);
+
+        assertAll(
+                () -> assertEquals(List.of("Chore #0", "Chore #1"), first.stream().map(Chore::getDescription).collect(Collectors.toList())),
+                () -> assertEquals(List.of("Chore #2", "Chore #3"), second.stream().map(Chore::getDescription).collect(Collectors.toList())),
+                () -> assertEquals(List.of("Chore #4"), last.stream().map(Chore::getDescription).collect(Collectors.toList()))
+        );
+    }
+
+    @Test
+    @DisplayName("#stream > When the table spans several pages > Return every chore once, ordered by id")
+    void streamWhenTheTableSpansSeveralPagesReturnEveryChoreOnceOrderedById() {
+        repository = new MySQLChoreRepository(pool, 100, 2);
+        for (int i = 0; i < 7; i++) {
+            repository.save(new Chore("Chore #" + i, Boolean.FALSE, LocalDate.now()));
+        }
+
+        List<String> descriptions;
+        try (Stream<Chore> chores = repository.stream()) {
+            descriptions = chores.map(Chore::getDescription).collect(Collectors.toList());
+        }
+
+        assertEquals(List.of("Chore #0", "Chore #1", "Chore #2", "Chore #3", "Chore #4", "Chore #5", "Chore #6"), descriptions);
+        assertEquals(0, repository.poolMetrics().getActive());
+    }
+
+    /**
+     * Virtual threads when the JVM has them, a large platform thread pool otherwise.
+     */
+    private static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException exception) {
+            return Executors.newFixedThreadPool(32);
+        }
+    }
+
+    @Test
+    @DisplayName("#load > When the chores are loaded with several threads > Return every chore once, ordered by id")
+    void loadWhenTheChoresAreLoadedWithSeveralThreadsReturnEveryChoreOnceOrderedById() {
+        ForkJoinPool workers = new ForkJoinPool(3);
+        List<Chore> empty = repository.load(workers);
+        List<Chore> saved = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            saved.add(new Chore("Chore #" + i, i % 2 == 0, LocalDate.now()));
+        }
+        assertTrue(repository.saveAll(saved));
+
+        List<Chore> chores = repository.load(workers);
+        workers.shutdown();
+
+        assertAll(
+                () -> assertEquals(
+                        repository.load().stream().map(Chore::getId).collect(Collectors.toList()),
+                        chores.stream().map(Chore::getId).collect(Collectors.toList())),
+                () -> assertEquals("Chore #999", chores.get(999).getDescription()),
+                () -> assertTrue(empty.isEmpty())
+        );
+    }
+
+    @Test
+    @DisplayName("#find > When the query is pushed to the database > Return the page of matching chores in the order of the query")
+    void findWhenTheQueryIsPushedToTheDatabaseReturnThePageOfMatchingChoresInTheOrderOfTheQuery() {
+        LocalDate today = LocalDate.now();
+        List<Chore> chores = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            chores.add(new Chore((i % 2 == 0 ? "limpar item " : "lavar item ") + i, i % 4 == 0, today.plusDays(i % 5)));
+        }
+        repository.saveAll(chores);
+
+        ChoreQuery page = ChoreQuery.builder().isCompleted(false).dueBefore(today.plusDays(2))
+                .orderBy(ChoreQuery.Order.DEADLINE_DESCENDING).offset(1).limit(3).build();
+        ChoreQuery text = ChoreQuery.builder().text("limp* item").isCompleted(false).limit(2).build();
+        List<Chore> expected = chores.stream().filter(page::matches)
+                .sorted(page.deadlineComparator()).skip(1).limit(3).collect(Collectors.toList());
+
+        List<Chore> found = repository.find(page);
+        List<Chore> matched = repository.find(text);
+        assertAll(
+                () -> assertEquals(expected.stream().map(Chore::getId).collect(Collectors.toList()),
+                        found.stream().map(Chore::getId).collect(Collectors.toList())),
+                () -> assertEquals(List.of(chores.get(2).getId(), chores.get(6).getId()),
+                        matched.stream().map(Chore::getId).collect(Collectors.toList())),
+                () -> assertEquals(chores.stream().filter(page::matches).count(), repository.count(page)),
+                () -> assertEquals(5, repository.count(ChoreQuery.builder().text("limpar").isCompleted(false).build()))
+        );
+    }
+
+    @Test
+    @DisplayName("#statistics > When the chores are counted on the database > Group them by status and deadline")
+    void statisticsWhenTheChoresAreCountedOnTheDatabaseGroupThemByStatusAndDeadline() {
+        LocalDate monday = LocalDate.of(2024, 1, 1);
+        repository.saveAll(List.of(
+                new Chore("Chore #01", Boolean.FALSE, monday),
+                new Chore("Chore #02", Boolean.TRUE, monday),
+                new Chore("Chore #03", Boolean.FALSE, monday.plusDays(3)),
+                new Chore("Chore #04", Boolean.FALSE, monday.plusDays(9))
+        ));
+
+        ChoreStatistics statistics = repository.statistics(monday.plusDays(4));
+        assertAll(
+                () -> assertEquals(4, statistics.getTotal()),
+                () -> assertEquals(1, statistics.getCompleted()),
+                () -> assertEquals(3, statistics.getUncompleted()),
+                () -> assertEquals(2, statistics.getOverdue()),
+                () -> assertEquals(Map.of(monday, 2, monday.plusDays(3), 1), repository.countDueByDay(monday, monday.plusDays(7), null)),
+                () -> assertEquals(Map.of(monday, 1), repository.countDueByDay(monday, monday.plusDays(7), Boolean.TRUE)),
+                () -> assertEquals(Map.of(monday, 2, monday.plusWeeks(1), 1), repository.countDueByWeek(monday.plusDays(1), monday.plusDays(8), Boolean.FALSE))
+        );
+    }
+}
@@ -0,0 +1,338 @@
+package br.edu.unifalmg.repository;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.repository.impl.WriteBehindChoreRepository;
+import br.edu.unifalmg.store.ChoreQuery;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WriteBehindChoreRepositoryTest {
+
+    private static final Duration NEVER = Duration.ofHours(1);
+
+    private final RecordingRepository backend = new RecordingRepository();
+
+    private WriteBehindChoreRepository repository;
+
+    @AfterEach
+    public void tearDown() {
+        if (repository != null) {
+            repository.close();
+        }
+    }
+
+    @Test
+    @DisplayName("#save > When the chore is saved > Acknowledge it before writing it")
+    void saveWhenTheChoreIsSavedAcknowledgeItBeforeWritingIt() {
+        repository = new WriteBehindChoreRepository(backend, NEVER, 10, 10);
+
+        assertTrue(repository.save(new Chore("Chore #01", Boolean.FALSE, LocalDate.now())));
+        assertEquals(0, backend.saves.get());
+
+        assertTrue(repository.flush());
+        assertAll(
+                () -> assertEquals(1, backend.saves.get()),
+                () -> assertEquals(0, repository.getPending())
+        );
+    }
+
+    @Test
+    @DisplayName("#update > When the chore is changed several times before the flush > Write it once")
+    void updateWhenTheChoreIsChangedSeveralTimesBeforeTheFlushWriteItOnce() {
+        repository = new WriteBehindChoreRepository(backend, NEVER, 10, 10);
+        Chore chore = new Chore("Chore #01", Boolean.FALSE, LocalDate.now());
+
+        repository.save(chore);
+        chore.setIsCompleted(Boolean.TRUE);
+        repository.update(chore);
+        chore.setIsCompleted(Boolean.FALSE);
+        repository.update(chore);
+        repository.flush();
+
+        assertAll(
+                () -> assertEquals(1, backend.saves.get()),
+                () -> assertEquals(0, backend.updates.get()),
+                () -> assertEquals(2L, repository.getCoalesced()),
+                () -> assertEquals(Boolean.FALSE, backend.chores.get(0).getIsCompleted())
+        );
+    }
+
+    @Test
+    @DisplayName("#save > When chores wait longer than the flush interval > Write them in the background")
+    void saveWhenChoresWaitLongerThanTheFlushIntervalWriteThemInTheBackground() throws InterruptedException {
+        repository = new WriteBehindChoreRepository(backend, Duration.ofMillis(10), 10, 10);
+
+        repository.save(new Chore("Chore #01", Boolean.FALSE, LocalDate.now()));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (backend.saves.get() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, backend.saves.get());
+    }
+
+    @Test
+    @DisplayName("#save > When the queue is full > Block until the pending chores are written")
+    void saveWhenTheQueueIsFullBlockUntilThePendingChoresAreWritten() throws Exception {
+        repository = new WriteBehindChoreRepository(backend, NEVER, 2, 10);
+        repository.save(new Chore("Chore #01", Boolean.FALSE, LocalDate.now()));
+        repository.save(new Chore("Chore #02", Boolean.FALSE, LocalDate.now()));
+
+        CompletableFuture<Boolean> third = CompletableFuture.supplyAsync(
+                () -> repository.save(new Chore("Chore #03", Boolean.FALSE, LocalDate.now())));
+
+        assertThrows(TimeoutException.class, () -> third.get(100, TimeUnit.MILLISECONDS));
+        repository.flush();
+        assertTrue(third.get(5, TimeUnit.SECONDS));
+        repository.flush();
+        assertEquals(3, backend.saves.get());
+    }
+
+    @Test
+    @DisplayName("#flush > When a write fails > Keep the chore pending and retry it")
+    void flushWhenAWriteFailsKeepTheChorePendingAndRetryIt() {
+        repository = new WriteBehindChoreRepository(backend, NEVER, 10, 10);
+        backend.failures.set(1);
+
+        repository.save(new Chore("Chore #01", Boolean.FALSE, LocalDate.now()));
+
+        assertFalse(repository.flush());
+        assertEquals(1, repository.getPending());
+        assertTrue(repository.flush());
+        assertAll(
+                () -> assertEquals(1, backend.saves.get()),
+                () -> assertEquals(1L, repository.getFailed())
+        );
+    }
+
+    @Test
+    @DisplayName("#flush > When the repository keeps failing > Wait before retrying in the background")
+    void flushWhenTheRepositoryKeepsFailingWaitBeforeRetryingInTheBackground() throws InterruptedException {
+        repository = new WriteBehindChoreRepository(backend, Duration.ofMillis(50), 10, 1);
+        backend.failures.set(Integer.MAX_VALUE);
+
+        repository.save(new Chore("Chore #01", Boolean.FALSE, LocalDate.now()));
+        Thread.sleep(500);
+
+        // 50, 100 and 200 ms between the attempts
+        assertTrue(backend.attempts.get() <= 5);
+        backend.failures.set(0);
+    }
+
+    @Test
+    @DisplayName("#flush > When a failed batch is put back > Keep the queue within its capacity")
+    void flushWhenAFailedBatchIsPutBackKeepTheQueueWithinItsCapacity() throws Exception {
+        repository = new WriteBehindChoreRepository(backend, NEVER, 1, 1);
+        backend.failures.set(Integer.MAX_VALUE);
+        repository.save(new Chore("Chore #01", Boolean.FALSE, LocalDate.now()));
+
+        CompletableFuture<Boolean> second = CompletableFuture.supplyAsync(
+                () -> repository.save(new Chore("Chore #02", Boolean.FALSE, LocalDate.now())));
+        assertFalse(repository.flush());
+
+        assertThrows(TimeoutException.class, () -> second.get(100, TimeUnit.MILLISECONDS));
+        assertEquals(1, repository.getPending());
+        backend.failures.set(0);
+        assertTrue(repository.flush());
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("#flush > When the repository throws > Keep the chores pending and retry them")
+    void flushWhenTheRepositoryThrowsKeepTheChoresPendingAndRetryThem() {
+        repository = new WriteBehindChoreRepository(backend, NEVER, 10, 10);
+        backend.exceptions.set(1);
+
+        repository.save(new Chore("Chore #01", Boolean.FALSE, LocalDate.now()));
+
+        assertFalse(repository.flush());
+        assertEquals(1, repository.getPending());
+        assertTrue(repository.flush());
+        assertAll(
+                () -> assertEquals(1, backend.saves.get()),
+                () -> assertEquals(1L, repository.getFailed())
+        );
+    }
+
+    @Test
+    @DisplayName("#flush > When chores are pending > Write copies of them in a single change set")
+    void flushWhenChoresArePendingWriteCopiesOfThemInASingleChangeSet() {
+        repository = new WriteBehindChoreRepository(backend, NEVER, 10, 10);
+        Chore first = new Chore("Chore #01", Boolean.FALSE, LocalDate.now());
+        Chore second = new Chore("Chore #02", Boolean.FALSE, LocalDate.now());
+
+        repository.save(first);
+        repository.save(second);
+        first.setDescription("Changed without update");
+        repository.flush();
+
+        assertAll(
+                () -> assertEquals(1, backend.applies.get()),
+                () -> assertEquals(2, backend.saves.get()),
+                () -> assertNotSame(first, backend.chores.get(0)),
+                () -> assertEquals("Chore #01", backend.chores.get(0).getDescription())
+        );
+    }
+
+    @Test
+    @DisplayName("#flush > When the repository generates ids > Give them back to the chores")
+    void flushWhenTheRepositoryGeneratesIdsGiveThemBackToTheChores() {
+        repository = new WriteBehindChoreRepository(backend, NEVER, 10, 10);
+        Chore chore = new Chore("Chore #01", Boolean.FALSE, LocalDate.now());
+
+        repository.save(chore);
+        repository.flush();
+        chore.setIsCompleted(Boolean.TRUE);
+        repository.update(chore);
+        repository.flush();
+
+        assertAll(
+                () -> assertEquals(1L, chore.getId()),
+                () -> assertEquals(1, backend.updates.get()),
+                () -> assertEquals(Boolean.TRUE, backend.chores.get(0).getIsCompleted())
+        );
+    }
+
+    @Test
+    @DisplayName("#load > When chores are pending > Write them and let the repository load with several threads")
+    void loadWhenChoresArePendingWriteThemAndLetTheRepositoryLoadWithSeveralThreads() {
+        repository = new WriteBehindChoreRepository(backend, NEVER, 10, 10);
+        repository.save(new Chore("Chore #01", Boolean.FALSE, LocalDate.now()));
+
+        List<Chore> chores = repository.load(ForkJoinPool.commonPool());
+
+        assertAll(
+                () -> assertEquals(1, backend.parallelLoads.get()),
+                () -> assertEquals(1, chores.size())
+        );
+    }
+
+    @Test
+    @DisplayName("#find > When chores are pending > Write them and let the repository answer the query")
+    void findWhenChoresArePendingWriteThemAndLetTheRepositoryAnswerTheQuery() {
+        repository = new WriteBehindChoreRepository(backend, NEVER, 10, 10);
+        repository.save(new Chore("Chore #01", Boolean.FALSE, LocalDate.now()));
+        repository.save(new Chore("Chore #02", Boolean.TRUE, LocalDate.now()));
+        ChoreQuery query = ChoreQuery.builder().isCompleted(true).build();
+
+        List<Chore> found = repository.find(query);
+
+        assertAll(
+                () -> assertEquals(1, backend.finds.get()),
+                () -> assertEquals(1, found.size()),
+                () -> assertEquals("Chore #02", found.get(0).getDescription()),
+                () -> assertEquals(1L, repository.count(query))
+        );
+    }
+
+    @Test
+    @DisplayName("#close > When chores are pending > Write them and refuse new ones")
+    void closeWhenChoresArePendingWriteThemAndRefuseNewOnes() {
+        repository = new WriteBehindChoreRepository(backend, NEVER, 10, 10);
+        repository.save(new Chore("Chore #01", Boolean.FALSE, LocalDate.now()));
+
+        repository.close();
+
+        assertEquals(1, backend.saves.get());
+        assertThrows(IllegalStateException.class,
+                () -> repository.save(new Chore("Chore #02", Boolean.FALSE, LocalDate.now())));
+    }
+
+    /**
+     * In-memory repository counting the writes it receives.
+     */
+    private static class RecordingRepository implements ChoreRepository {
+
+        private final List<Chore> chores = new ArrayList<>();
+
+        private final AtomicInteger saves = new AtomicInteger();
+
+        private final AtomicInteger updates = new AtomicInteger();
+
+        private final AtomicInteger failures = new AtomicInteger();
+
+        private final AtomicInteger exceptions = new AtomicInteger();
+
+        private final AtomicInteger applies = new AtomicInteger();
+
+        private final AtomicInteger finds = new AtomicInteger();
+
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        private final AtomicInteger parallelLoads = new AtomicInteger();
+
+        @Override
+        public synchronized List<Chore> load() {
+            return new ArrayList<>(chores);
+        }
+
+        @Override
+        public synchronized boolean save(Chore chore) {
+            if (chore.getId() == null) {
+                chore.setId((long) chores.size() + 1);
+            }
+            chores.add(chore);
+            saves.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public synchronized boolean saveAll(List<Chore> chores) {
+            this.chores.clear();
+            this.chores.addAll(chores);
+            return true;
+        }
+
+        @Override
+        public synchronized boolean update(Chore chore) {
+            for (int i = 0; i < chores.size(); i++) {
+                if (chore.getId() != null && chore.getId().equals(chores.get(i).getId())) {
+                    chores.set(i, chore);
+                    updates.incrementAndGet();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public List<Chore> load(ForkJoinPool workers) {
+            parallelLoads.incrementAndGet();
+            return ChoreRepository.super.load(workers);
+        }
+
+        @Override
+        public synchronized List<Chore> find(ChoreQuery query) {
+            finds.incrementAndGet();
+            return ChoreRepository.super.find(query);
+        }
+
+        @Override
+        public synchronized boolean apply(ChoreChangeSet changes) {
+            if (exceptions.getAndDecrement() > 0) {
+                throw new IllegalStateException("Storage unavailable");
+            }
+            attempts.incrementAndGet();
+            if (failures.getAndDecrement() > 0) {
+                return false;
+            }
+            applies.incrementAndGet();
+            return ChoreRepository.super.apply(changes);
+        }
+
+    }
+
+}
@@ -0,0 +1,119 @@
+package br.edu.unifalmg.repository.pool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConnectionPoolTest {
+
+    private String url;
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    public void setup() {
+        url = "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    @DisplayName("#borrow > When the pool is exhausted > Time out")
+    void borrowWhenThePoolIsExhaustedTimeOut() throws SQLException {
+        pool = new ConnectionPool(() -> DriverManager.getConnection(url), 1, Duration.ofMillis(50),
+                ConnectionPool.DEFAULT_IDLE_TIMEOUT, ConnectionPool.DEFAULT_VALIDATION_INTERVAL, 4);
+
+        try (PooledConnection ignored = pool.borrow()) {
+            assertThrows(SQLTimeoutException.class, pool::borrow);
+            assertAll(
+                    () -> assertEquals(1, pool.metrics().getActive()),
+                    () -> assertEquals(0, pool.metrics().getIdle())
+            );
+        }
+        assertEquals(1, pool.metrics().getIdle());
+    }
+
+    @Test
+    @DisplayName("#prepare > When the same SQL is prepared twice on a connection > Reuse the cached statement")
+    void prepareWhenTheSameSqlIsPreparedTwiceReuseTheCachedStatement() throws SQLException {
+        pool = new ConnectionPool(() -> DriverManager.getConnection(url), 1);
+
+        PreparedStatement first;
+        try (PooledConnection connection = pool.borrow()) {
+            first = connection.prepare("SELECT ?");
+        }
+        try (PooledConnection connection = pool.borrow()) {
+            assertSame(first, connection.prepare("SELECT ?"));
+        }
+    }
+
+    @Test
+    @DisplayName("#borrow > When the idle connection expired > Evict it and open a new one")
+    void borrowWhenTheIdleConnectionExpiredEvictItAndOpenANewOne() throws SQLException {
+        pool = new ConnectionPool(() -> DriverManager.getConnection(url), 2, Duration.ofSeconds(1),
+                Duration.ZERO, ConnectionPool.DEFAULT_VALIDATION_INTERVAL, 4);
+
+        pool.borrow().close();
+        pool.borrow().close();
+
+        assertAll(
+                () -> assertEquals(2L, pool.metrics().getCreated()),
+                () -> assertEquals(1L, pool.metrics().getEvicted())
+        );
+    }
+
+    @Test
+    @DisplayName("#borrow > When the idle connection is broken > Discard it and open a new one")
+    void borrowWhenTheIdleConnectionIsBrokenDiscardItAndOpenANewOne() throws SQLException {
+        pool = new ConnectionPool(() -> DriverManager.getConnection(url), 1);
+
+        PooledConnection broken = pool.borrow();
+        broken.close();
+        broken.getConnection().close();
+        broken.requireValidation();
+
+        try (PooledConnection connection = pool.borrow()) {
+            assertFalse(connection.getConnection().isClosed());
+        }
+        assertAll(
+                () -> assertEquals(2L, pool.metrics().getCreated()),
+                () -> assertEquals(1L, pool.metrics().getInvalidated())
+        );
+    }
+
+    @Test
+    @DisplayName("#close > When the connection is closed twice > Give it back to the pool only once")
+    void closeWhenTheConnectionIsClosedTwiceGiveItBackToThePoolOnlyOnce() throws SQLException {
+        pool = new ConnectionPool(() -> DriverManager.getConnection(url), 2);
+
+        PooledConnection connection = pool.borrow();
+        connection.close();
+        connection.close();
+
+        assertAll(
+                () -> assertEquals(0, pool.metrics().getActive()),
+                () -> assertEquals(1, pool.metrics().getIdle())
+        );
+
+        try (PooledConnection first = pool.borrow(); PooledConnection second = pool.borrow()) {
+            assertNotSame(first.getConnection(), second.getConnection());
+            assertEquals(2, pool.metrics().getActive());
+        }
+        assertEquals(2, pool.metrics().getIdle());
+    }
+}
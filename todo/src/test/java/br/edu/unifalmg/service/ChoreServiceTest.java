@@ -1,9 +1,14 @@
 package br.edu.unifalmg.service;
 
 import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.domain.ChoreTable;
 import br.edu.unifalmg.enumerator.ChoreFilter;
 import br.edu.unifalmg.exception.*;
+import br.edu.unifalmg.repository.ChoreChangeSet;
 import br.edu.unifalmg.repository.ChoreRepository;
+import br.edu.unifalmg.store.ChoreKey;
+import br.edu.unifalmg.store.ChoreQuery;
+import br.edu.unifalmg.store.ChoreStatistics;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,10 +19,18 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -165,6 +178,233 @@ public class ChoreServiceTest {
         assertFalse(service.getChores().get(0).getIsCompleted());
     }
 
+    @Test
+    @DisplayName("#addChores > When some chores are invalid > Add the valid ones and report the others")
+    void addChoresWhenSomeChoresAreInvalidAddTheValidOnesAndReportTheOthers() {
+        service.getChores().add(new Chore("Chore #01", Boolean.FALSE, LocalDate.now()));
+
+        ChoreBatchReport report = service.addChores(List.of(
+                ChoreKey.of("Chore #01", LocalDate.now()),
+                ChoreKey.of("Chore #02", LocalDate.now()),
+                ChoreKey.of("", LocalDate.now()),
+                ChoreKey.of("Chore #03", LocalDate.now().minusDays(1)),
+                ChoreKey.of("Chore #02", LocalDate.now()),
+                ChoreKey.of("Chore #04", LocalDate.now().plusDays(1))
+        ));
+
+        assertAll(
+                () -> assertEquals(6, report.getItems().size()),
+                () -> assertInstanceOf(DuplicatedChoreException.class, report.getItems().get(0).getError()),
+                () -> assertInstanceOf(InvalidDescriptionException.class, report.getItems().get(2).getError()),
+                () -> assertInstanceOf(InvalidDeadlineException.class, report.getItems().get(3).getError()),
+                () -> assertInstanceOf(DuplicatedChoreException.class, report.getItems().get(4).getError()),
+                () -> assertEquals(List.of("Chore #02", "Chore #04"),
+                        report.getSucceeded().stream().map(Chore::getDescription).collect(Collectors.toList())),
+                () -> assertEquals(4, report.getFailed().size()),
+                () -> assertFalse(report.isSuccessful()),
+                () -> assertEquals(3, service.getChores().size())
+        );
+    }
+
+    @Test
+    @DisplayName("#toggleChores > When the chores exist > Toggle them and persist them in one call")
+    void toggleChoresWhenTheChoresExistToggleThemAndPersistThemInOneCall() {
+        List<ChoreChangeSet> applied = new ArrayList<>();
+        ChoreService service = new ChoreService(new ChoreRepository() {
+            public List<Chore> load() {
+                return null;
+            }
+            public boolean save(Chore chore) {
+                return false;
+            }
+            public boolean saveAll(List<Chore> chores) {
+                return false;
+            }
+            public boolean update(Chore chore) {
+                throw new AssertionError("The chores were updated one by one");
+            }
+            public boolean apply(ChoreChangeSet changes) {
+                applied.add(changes);
+                return true;
+            }
+        });
+        service.getChores().add(new Chore("Chore #01", Boolean.FALSE, LocalDate.now()));
+        service.getChores().add(new Chore("Chore #02", Boolean.TRUE, LocalDate.now()));
+
+        ChoreBatchReport toggled = service.toggleChores(List.of(
+                ChoreKey.of("Chore #01", LocalDate.now()),
+                ChoreKey.of("Chore #02", LocalDate.now()),
+                ChoreKey.of("Chore #03", LocalDate.now())
+        ));
+        ChoreBatchReport deleted = service.deleteChores(List.of(
+                ChoreKey.of("Chore #01", LocalDate.now()),
+                ChoreKey.of("Chore #01", LocalDate.now())
+        ));
+
+        assertAll(
+                () -> assertTrue(toggled.isPersisted()),
+                () -> assertEquals(2, toggled.getSucceeded().size()),
+                () -> assertInstanceOf(ChoreNotFoundException.class, toggled.getItems().get(2).getError()),
+                () -> assertTrue(toggled.getSucceeded().get(0).getIsCompleted()),
+                () -> assertEquals(2, applied.size()),
+                () -> assertEquals(toggled.getSucceeded(), applied.get(0).getUpdated()),
+                () -> assertEquals(1, deleted.getSucceeded().size()),
+                () -> assertInstanceOf(ChoreNotFoundException.class, deleted.getItems().get(1).getError()),
+                () -> assertEquals(deleted.getSucceeded(), applied.get(1).getDeleted()),
+                () -> assertEquals(1, service.getChores().size())
+        );
+    }
+
+    @Test
+    @DisplayName("#deleteChores > When the repository cannot delete a single chore > Write every chore again")
+    void deleteChoresWhenTheRepositoryCannotDeleteASingleChoreWriteEveryChoreAgain() {
+        List<Chore> stored = new ArrayList<>(List.of(
+                new Chore(1L, "Chore #01", Boolean.FALSE, LocalDate.now()),
+                new Chore(2L, "Chore #02", Boolean.FALSE, LocalDate.now())
+        ));
+        ChoreService service = new ChoreService(new ChoreRepository() {
+            public List<Chore> load() {
+                return new ArrayList<>(stored);
+            }
+            public boolean save(Chore chore) {
+                throw new AssertionError("The chore was saved one by one");
+            }
+            public boolean saveAll(List<Chore> chores) {
+                stored.clear();
+                stored.addAll(chores);
+                return true;
+            }
+            public boolean update(Chore chore) {
+                return false;
+            }
+        });
+        service.loadChores();
+
+        ChoreBatchReport deleted = service.deleteChores(List.of(ChoreKey.of("Chore #01", LocalDate.now())));
+        ChoreBatchReport retried = service.deleteChores(List.of(ChoreKey.of("Chore #01", LocalDate.now())));
+
+        assertAll(
+                () -> assertTrue(deleted.isPersisted()),
+                () -> assertFalse(retried.isPersisted()),
+                () -> assertEquals(1, stored.size()),
+                () -> assertEquals(2L, stored.get(0).getId())
+        );
+    }
+
+    @Test
+    @DisplayName("#toggleChore > When the chore is changed > Return the chore to be updated")
+    void toggleChoreWhenTheChoreIsChangedReturnTheChoreToBeUpdated() {
+        Chore chore = service.addChore("Chore #01", LocalDate.now().plusDays(1));
+        List<Chore> chores = service.getChores();
+
+        Chore edited = service.editChore("Chore #01", LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+        Chore toggled = service.toggleChore("Chore #01", LocalDate.now().plusDays(2));
+        Mockito.when(repository.update(chore)).thenReturn(Boolean.TRUE);
+
+        assertAll(
+                () -> assertSame(chore, toggled),
+                () -> assertSame(chore, edited),
+                () -> assertSame(chores, service.getChores()),
+                () -> assertSame(chore, service.getChores().get(0)),
+                () -> assertTrue(service.updateChore(edited))
+        );
+    }
+
+    @Test
+    @DisplayName("#addChore > When the service has a clock > Validate the deadlines against the day of the clock")
+    void addChoreWhenTheServiceHasAClockValidateTheDeadlinesAgainstTheDayOfTheClock() {
+        ZoneId zone = ZoneId.of("America/Sao_Paulo");
+        Instant[] now = {LocalDate.of(2020, 2, 28).atTime(23, 59).atZone(zone).toInstant()};
+        Clock clock = new Clock() {
+            public ZoneId getZone() {
+                return zone;
+            }
+            public Clock withZone(ZoneId zoneId) {
+                throw new UnsupportedOperationException();
+            }
+            public Instant instant() {
+                return now[0];
+            }
+        };
+        ChoreService service = new ChoreService(repository, clock);
+
+        service.addChore("Chore #01", LocalDate.of(2020, 2, 28));
+        now[0] = now[0].plus(Duration.ofMinutes(1));
+
+        assertAll(
+                () -> assertThrows(InvalidDeadlineException.class, () -> service.addChore("Chore #02", LocalDate.of(2020, 2, 28))),
+                () -> assertDoesNotThrow(() -> service.addChore("Chore #02", LocalDate.of(2020, 2, 29))),
+                () -> assertEquals(1, service.filterChores(ChoreFilter.OVERDUE).size()),
+                () -> assertEquals(LocalDate.of(2020, 2, 29), service.deadlineScheduler().currentDay())
+        );
+        service.toggleChore("Chore #01", LocalDate.of(2020, 2, 28));
+        now[0] = now[0].minus(Duration.ofDays(1));
+        assertDoesNotThrow(() -> service.toggleChore("Chore #01", LocalDate.of(2020, 2, 28)));
+    }
+
+    @Test
+    @DisplayName("#searchChores > When the chores are edited or deleted > Search the current descriptions")
+    void searchChoresWhenTheChoresAreEditedOrDeletedSearchTheCurrentDescriptions() {
+        Chore litter = service.addChore("Limpar a caixa de areia", LocalDate.now());
+        Chore dishes = service.addChore("Lavar a louça", LocalDate.now());
+
+        assertAll(
+                () -> assertEquals(List.of(litter), service.searchChores("Caixa")),
+                () -> assertEquals(List.of(litter, dishes), service.searchChores("l* a"))
+        );
+
+        service.editChore("Limpar a caixa de areia", LocalDate.now(), "Trocar a areia");
+        service.deleteChore("Lavar a louça", LocalDate.now());
+
+        assertAll(
+                () -> assertEquals(List.of(), service.searchChores("caixa")),
+                () -> assertEquals(List.of(litter), service.searchChores("areia")),
+                () -> assertEquals(List.of(), service.searchChores("louca"))
+        );
+    }
+
+    @Test
+    @DisplayName("#queryChores > When the query combines predicates > Return the page of matching chores")
+    void queryChoresWhenTheQueryCombinesPredicatesReturnThePageOfMatchingChores() {
+        Chore litter = service.addChore("Limpar a caixa de areia", LocalDate.now().plusDays(2));
+        service.addChore("Lavar a louça", LocalDate.now());
+        Chore room = service.addChore("Limpar o quarto", LocalDate.now().plusDays(1));
+        service.addChore("Limpar a garagem", LocalDate.now().plusDays(5));
+
+        ChoreQuery query = ChoreQuery.builder()
+                .text("limpar")
+                .dueBefore(LocalDate.now().plusDays(5))
+                .orderBy(ChoreQuery.Order.DEADLINE)
+                .build();
+
+        assertAll(
+                () -> assertEquals(List.of(room, litter), service.queryChores(query)),
+                () -> assertEquals(2, service.countChores(query)),
+                () -> assertEquals(List.of(room), service.queryChores(ChoreQuery.builder().text("limpar").offset(1).limit(1).build()))
+        );
+    }
+
+    @Test
+    @DisplayName("#statistics > When the chores are toggled and deleted > Update the counters")
+    void statisticsWhenTheChoresAreToggledAndDeletedUpdateTheCounters() {
+        service.addChore("Chore #01", LocalDate.now());
+        service.addChore("Chore #02", LocalDate.now().plusDays(1));
+        service.addChore("Chore #03", LocalDate.now().plusDays(1));
+
+        service.toggleChore("Chore #01", LocalDate.now());
+        service.deleteChore("Chore #03", LocalDate.now().plusDays(1));
+
+        ChoreStatistics statistics = service.statistics();
+        assertAll(
+                () -> assertEquals(2, statistics.getTotal()),
+                () -> assertEquals(1, statistics.getCompleted()),
+                () -> assertEquals(1, statistics.getUncompleted()),
+                () -> assertEquals(0, statistics.getOverdue()),
+                () -> assertEquals(Map.of(LocalDate.now().plusDays(1), 1),
+                        service.countChoresByDay(LocalDate.now(), null, Boolean.FALSE))
+        );
+    }
+
     @Test
     @DisplayName("#toggleChore > When the chore does not exist > Throw an exception")
     void toggleChoreWhenTheChoreDoesNotExistThrowAnException() {
@@ -262,6 +502,35 @@ public class ChoreServiceTest {
         );
     }
     @Test
+    @DisplayName("#filterChores > When the filter is OVERDUE > Return the uncompleted chores with a past deadline")
+    void filterChoresWhenTheFilterIsOverdueReturnTheUncompletedChoresWithAPastDeadline() {
+        ChoreService service = new ChoreService();
+        service.getChores().add(new Chore("Chore #01", Boolean.FALSE, LocalDate.now().minusDays(1)));
+        service.getChores().add(new Chore("Chore #02", Boolean.TRUE, LocalDate.now().minusDays(2)));
+        service.getChores().add(new Chore("Chore #03", Boolean.FALSE, LocalDate.now()));
+        service.getChores().add(new Chore("Chore #04", Boolean.FALSE, LocalDate.now().minusDays(3)));
+        List<Chore> response = service.filterChores(ChoreFilter.OVERDUE);
+        assertAll(
+                () -> assertEquals(2, response.size()),
+                () -> assertEquals("Chore #04", response.get(0).getDescription()),
+                () -> assertEquals("Chore #01", response.get(1).getDescription())
+        );
+    }
+
+    @Test
+    @DisplayName("#filterChoresDueBefore > When the date is valid > Return the chores due before the date")
+    void filterChoresDueBeforeWhenTheDateIsValidReturnTheChoresDueBeforeTheDate() {
+        ChoreService service = new ChoreService();
+        service.getChores().add(new Chore("Chore #01", Boolean.FALSE, LocalDate.now().plusDays(5)));
+        service.getChores().add(new Chore("Chore #02", Boolean.TRUE, LocalDate.now().plusDays(1)));
+        List<Chore> response = service.filterChoresDueBefore(LocalDate.now().plusDays(2));
+        assertAll(
+                () -> assertEquals(1, response.size()),
+                () -> assertEquals("Chore #02", response.get(0).getDescription()),
+                () -> assertThrows(InvalidDeadlineException.class, () -> service.filterChoresDueBefore(null))
+        );
+    }
+    @Test
     @DisplayName("#displayAllChores > When the list is not empty > Display all chores")
      void printChoresWhenTheListIsNotEmptyPrintAllChores() {
         ChoreService service = new ChoreService();
@@ -277,6 +546,28 @@ public class ChoreServiceTest {
         assertEquals(expectedOutput, obtainedOutput);
     }
     @Test
+    @DisplayName("#writeChores > When the list is not empty > Write the same text printChores returns")
+    void writeChoresWhenTheListIsNotEmptyWriteTheSameTextPrintChoresReturns() throws IOException {
+        ChoreService service = new ChoreService();
+        service.getChores().add(new Chore("Chore #01", Boolean.TRUE, LocalDate.now().plusDays(1)));
+        service.getChores().add(new Chore("Chore #02", Boolean.FALSE, LocalDate.of(12345, 1, 2)));
+        service.getChores().add(new Chore("Chore #03", Boolean.FALSE, LocalDate.of(7, 8, 9)));
+        StringWriter writer = new StringWriter();
+
+        service.writeChores(writer);
+
+        String expectedOutput = service.getChores().stream()
+                .map(chore -> "Description: " + chore.getDescription() + " Deadline: "
+                        + chore.getDeadline().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"))
+                        + " Status: " + (chore.getIsCompleted() ? "Completed" : "Not completed"))
+                .collect(Collectors.joining("\n"));
+        assertAll(
+                () -> assertEquals(expectedOutput, writer.toString()),
+                () -> assertEquals(expectedOutput, service.printChores()),
+                () -> assertEquals(expectedOutput, service.choreLines().collect(Collectors.joining("\n")))
+        );
+    }
+    @Test
     @DisplayName("#displayAllChores > When the list is empty > throw EmptyChoreListException")
     void printChoresWhenTheListIsEmptyThrowAnException() {
         ChoreService service = new ChoreService();
@@ -425,6 +716,87 @@ public class ChoreServiceTest {
         Mockito.when(repository.saveAll(service.getChores())).thenReturn(Boolean.TRUE);
         assertTrue(service.saveChores());
     }
+    @Test
+    @DisplayName("#saveAllChores > When the chores were loaded > Save only the changes")
+    void saveAllChoresWhenTheChoresWereLoadedSaveOnlyTheChanges() {
+        List<ChoreChangeSet> applied = new ArrayList<>();
+        ChoreService service = new ChoreService(new ChoreRepository() {
+            public List<Chore> load() {
+                return new ArrayList<>(List.of(
+                        new Chore(1L, "Chore #01", Boolean.FALSE, LocalDate.now()),
+                        new Chore(2L, "Chore #02", Boolean.FALSE, LocalDate.now()),
+                        new Chore(3L, "Chore #03", Boolean.FALSE, LocalDate.now())
+                ));
+            }
+            public boolean save(Chore chore) {
+                return false;
+            }
+            public boolean saveAll(List<Chore> chores) {
+                throw new AssertionError("Every chore was saved");
+            }
+            public boolean update(Chore chore) {
+                return false;
+            }
+            public boolean apply(ChoreChangeSet changes) {
+                applied.add(changes);
+                return true;
+            }
+        });
+        service.loadChores();
+
+        Chore added = service.addChore("Chore #04", LocalDate.now());
+        Chore toggled = service.toggleChore("Chore #01", LocalDate.now());
+        Chore deleted = service.getChores().get(1);
+        service.deleteChore("Chore #02", LocalDate.now());
+
+        assertTrue(service.saveChores());
+        assertTrue(service.saveChores());
+        assertAll(
+                () -> assertEquals(1, applied.size()),
+                () -> assertEquals(List.of(added), applied.get(0).getAdded()),
+                () -> assertEquals(List.of(toggled), applied.get(0).getUpdated()),
+                () -> assertEquals(List.of(deleted), applied.get(0).getDeleted())
+        );
+    }
+
+    @Test
+    @DisplayName("#importChores > When the repository has invalid and duplicated chores > Add the others in order")
+    void importChoresWhenTheRepositoryHasInvalidAndDuplicatedChoresAddTheOthersInOrder() {
+        List<Chore> stored = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            stored.add(new Chore((long) i, i % 100 == 0 ? "" : "Chore #" + i, Boolean.FALSE, LocalDate.now()));
+        }
+        stored.add(new Chore(1_000L, "Chore #1", Boolean.TRUE, LocalDate.now()));
+        stored.add(new Chore(1_001L, "Chore #1001", Boolean.TRUE, null));
+        // A repository without parallel loading, so the chores are only validated in parallel
+        ChoreService service = new ChoreService(new ChoreRepository() {
+            public List<Chore> load() {
+                return stored;
+            }
+            public boolean save(Chore chore) {
+                return false;
+            }
+            public boolean saveAll(List<Chore> chores) {
+                return false;
+            }
+            public boolean update(Chore chore) {
+                return false;
+            }
+        });
+        service.getChores().add(new Chore("Chore #5", Boolean.FALSE, LocalDate.now()));
+
+        ChoreImportReport report = service.importChores(new ChoreImporter(4));
+
+        assertAll(
+                () -> assertEquals(11, report.getRejected().size()),
+                () -> assertEquals(List.of(stored.get(5), stored.get(1_000)), report.getDuplicated()),
+                () -> assertEquals(989, report.getImported().size()),
+                () -> assertEquals(990, service.getChores().size()),
+                () -> assertSame(stored.get(1), service.getChores().get(1)),
+                () -> assertSame(stored.get(999), service.getChores().get(989))
+        );
+    }
+
     @Test
     @DisplayName("#saveAllChores > When chores are not saved > Return false")
     void saveAllChoresWhenTheChoresWhenTheChoresAreNotSavedReturnFalse() {
@@ -458,7 +830,47 @@ public class ChoreServiceTest {
         assertFalse(service.updateChore(null));
     }
 
-}
+    @Test
+    @DisplayName("#compactChores > When the chores are compacted > Keep filtering and toggling them")
+    void compactChoresWhenTheChoresAreCompactedKeepFilteringAndTogglingThem() {
+        ChoreService service = new ChoreService();
+        service.getChores().add(new Chore("Chore #01", Boolean.FALSE, LocalDate.now()));
+        service.getChores().add(new Chore("Chore #02", Boolean.TRUE, LocalDate.now().plusDays(1)));
+
+        ChoreTable table = service.compactChores();
+        service.toggleChore("Chore #01", LocalDate.now());
+
+        assertAll(
+                () -> assertEquals(2, table.size()),
+                () -> assertEquals(2, service.filterChores(ChoreFilter.COMPLETED).size()),
+                () -> assertEquals(Boolean.TRUE, table.get(0).getIsCompleted()),
+                () -> assertTrue(service.filterChores(ChoreFilter.UNCOMPLETED).isEmpty())
+        );
+    }
 
+    @Test
+    @DisplayName("#compactChores > When a compacted chore is deleted > Reuse its row for the next chore")
+    void compactChoresWhenACompactedChoreIsDeletedReuseItsRowForTheNextChore() {
+        service.getChores().add(new Chore("Chore #01", Boolean.FALSE, LocalDate.now()));
+        service.getChores().add(new Chore("Chore #02", Boolean.FALSE, LocalDate.now().plusDays(1)));
+        ChoreTable table = service.compactChores();
 
+        service.deleteChore("Chore #01", LocalDate.now());
+        Chore added = service.addChore("Chore #03", LocalDate.now().plusDays(2));
+        service.editChore("Chore #02", LocalDate.now().plusDays(1), "Chore #02, renamed");
 
+        assertAll(
+                () -> assertEquals(2, table.size()),
+                () -> assertEquals(table.get(0), added),
+                () -> assertEquals("Chore #03", service.getChores().get(0).getDescription()),
+                () -> assertEquals(2, service.statistics().getUncompleted()),
+                () -> assertEquals(2, service.filterChores(ChoreFilter.UNCOMPLETED).size()),
+                () -> assertEquals(1, service.searchChores("renamed").size()),
+                () -> assertThrows(DuplicatedChoreException.class,
+                        () -> service.addChore("Chore #02, renamed", LocalDate.now().plusDays(1))),
+                () -> assertThrows(ChoreNotFoundException.class,
+                        () -> service.toggleChore("Chore #01", LocalDate.now()))
+        );
+    }
+
+}
@@ -0,0 +1,216 @@
+package br.edu.unifalmg.service;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.enumerator.ChoreFilter;
+import br.edu.unifalmg.exception.DuplicatedChoreException;
+import br.edu.unifalmg.repository.impl.LogStructuredChoreRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentChoreServiceTest {
+
+    private static final int THREADS = 8;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("#addChore > When many threads add the same chores > Add each chore once")
+    void addChoreWhenManyThreadsAddTheSameChoresAddEachChoreOnce() throws Exception {
+        ConcurrentChoreService service = new ConcurrentChoreService();
+        AtomicInteger added = new AtomicInteger();
+        AtomicInteger duplicated = new AtomicInteger();
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < 1000; i++) {
+                try {
+                    service.addChore("Chore #" + i, LocalDate.now());
+                    added.incrementAndGet();
+                } catch (DuplicatedChoreException exception) {
+                    duplicated.incrementAndGet();
+                }
+            }
+        });
+
+        assertAll(
+                () -> assertEquals(1000, added.get()),
+                () -> assertEquals(1000 * (THREADS - 1), duplicated.get()),
+                () -> assertEquals(1000, service.getChores().size())
+        );
+    }
+
+    @Test
+    @DisplayName("#toggleChore > When many threads toggle the same chore > Do not lose any toggle")
+    void toggleChoreWhenManyThreadsToggleTheSameChoreDoNotLoseAnyToggle() throws Exception {
+        ConcurrentChoreService service = new ConcurrentChoreService();
+        service.addChore("Chore #01", LocalDate.now());
+
+        // An odd number of toggles per thread and an even number of threads
+        runConcurrently(thread -> {
+            for (int i = 0; i < 10001; i++) {
+                service.toggleChore("Chore #01", LocalDate.now());
+            }
+        });
+
+        assertFalse(service.getChores().get(0).getIsCompleted());
+    }
+
+    @Test
+    @DisplayName("#editChore > When the chore is edited > Publish an edited copy and leave the read chores unchanged")
+    void editChoreWhenTheChoreIsEditedPublishAnEditedCopyAndLeaveTheReadChoresUnchanged() {
+        ConcurrentChoreService service = new ConcurrentChoreService();
+        Chore added = service.addChore("Chore #01", LocalDate.now());
+
+        Chore edited = service.editChore("Chore #01", LocalDate.now(), LocalDate.now().plusDays(1));
+        Chore toggled = service.toggleChore("Chore #01", LocalDate.now().plusDays(1));
+
+        assertAll(
+                () -> assertEquals(LocalDate.now(), added.getDeadline()),
+                () -> assertEquals(LocalDate.now().plusDays(1), edited.getDeadline()),
+                () -> assertFalse(edited.getIsCompleted()),
+                () -> assertTrue(toggled.getIsCompleted()),
+                () -> assertSame(toggled, service.getChores().get(0)),
+                () -> assertEquals(List.of(toggled), service.filterChores(ChoreFilter.COMPLETED))
+        );
+    }
+
+    @Test
+    @DisplayName("#editChore > When many threads edit to the same description > Keep the descriptions unique")
+    void editChoreWhenManyThreadsEditToTheSameDescriptionKeepTheDescriptionsUnique() throws Exception {
+        ConcurrentChoreService service = new ConcurrentChoreService(null, 4);
+        for (int i = 0; i < THREADS; i++) {
+            service.addChore("Chore #" + i, LocalDate.now());
+        }
+        AtomicInteger edited = new AtomicInteger();
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < 100; i++) {
+                try {
+                    // Every thread moves its chore back and forth while the others try the same target
+                    service.editChore("Chore #" + thread, LocalDate.now(), "Target #" + i);
+                    service.editChore("Target #" + i, LocalDate.now(), "Chore #" + thread);
+                    edited.incrementAndGet();
+                } catch (DuplicatedChoreException exception) {
+                    // Another thread holds the target
+                }
+            }
+        });
+
+        Set<String> descriptions = new HashSet<>();
+        for (Chore chore : service.getChores()) {
+            descriptions.add(chore.getDescription());
+        }
+        assertAll(
+                () -> assertTrue(edited.get() > 0),
+                () -> assertEquals(THREADS, service.getChores().size()),
+                () -> assertEquals(THREADS, descriptions.size())
+        );
+        for (int i = 0; i < THREADS; i++) {
+            assertTrue(descriptions.contains("Chore #" + i));
+        }
+    }
+
+    @Test
+    @DisplayName("#deleteChore > When threads add, toggle and delete > Keep the chores and the filters consistent")
+    void deleteChoreWhenThreadsAddToggleAndDeleteKeepTheChoresAndTheFiltersConsistent() throws Exception {
+        ConcurrentChoreService service = new ConcurrentChoreService();
+        int perThread = 20_000;
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < perThread; i++) {
+                String description = "Chore #" + thread + "-" + i;
+                service.addChore(description, LocalDate.now());
+                service.toggleChore(description, LocalDate.now());
+                if (i % 2 == 0) {
+                    service.deleteChore(description, LocalDate.now());
+                }
+            }
+        });
+
+        List<Chore> chores = service.getChores();
+        assertAll(
+                () -> assertEquals(THREADS * perThread / 2, chores.size()),
+                () -> assertEquals(chores.size(), service.filterChores(ChoreFilter.COMPLETED).size()),
+                () -> assertTrue(service.filterChores(ChoreFilter.UNCOMPLETED).isEmpty())
+        );
+    }
+
+    @Test
+    @DisplayName("#toggleChore > When a repository is given > Write every change through to it")
+    void toggleChoreWhenARepositoryIsGivenWriteEveryChangeThroughToIt() throws Exception {
+        File snapshot = directory.resolve("chores.json").toFile();
+        File log = directory.resolve("chores.log").toFile();
+        LogStructuredChoreRepository repository = new LogStructuredChoreRepository(snapshot, log, 1_000);
+        ConcurrentChoreService service = new ConcurrentChoreService(repository);
+        int perThread = 200;
+
+        runConcurrently(thread -> {
+            for (int i = 0; i < perThread; i++) {
+                String description = "Chore #" + thread + "-" + i;
+                service.addChore(description, LocalDate.now());
+                service.toggleChore(description, LocalDate.now());
+                if (i % 3 == 0) {
+                    service.deleteChore(description, LocalDate.now());
+                } else if (i % 3 == 1) {
+                    service.toggleChore(description, LocalDate.now());
+                    service.editChore(description, LocalDate.now(), description + ", edited");
+                }
+            }
+        });
+        repository.close();
+
+        List<Chore> saved = new LogStructuredChoreRepository(snapshot, log, 1_000).load();
+        Map<Long, Chore> chores = service.getChores().stream().collect(Collectors.toMap(Chore::getId, chore -> chore));
+        assertEquals(chores.size(), saved.size());
+        for (Chore chore : saved) {
+            assertEquals(chores.get(chore.getId()).getDescription(), chore.getDescription());
+            assertEquals(chores.get(chore.getId()).getIsCompleted(), chore.getIsCompleted());
+        }
+    }
+
+    private interface Task {
+        void run(int thread) throws Exception;
+    }
+
+    private static void runConcurrently(Task task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int thread = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(thread);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
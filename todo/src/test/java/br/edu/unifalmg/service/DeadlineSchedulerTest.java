@@ -0,0 +1,77 @@
+package br.edu.unifalmg.service;
+
+import br.edu.unifalmg.domain.Chore;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DeadlineSchedulerTest {
+
+    @Test
+    @DisplayName("#advanceTo > When the days roll over > Notify the chores that became due and overdue")
+    void advanceToWhenTheDaysRollOverNotifyTheChoresThatBecameDueAndOverdue() {
+        LocalDate today = LocalDate.now();
+        ChoreService service = new ChoreService();
+        Chore late = new Chore("Chore #01", Boolean.FALSE, today.minusDays(2));
+        Chore completed = new Chore("Chore #02", Boolean.TRUE, today.minusDays(1));
+        Chore dueToday = new Chore("Chore #03", Boolean.FALSE, today);
+        Chore dueTomorrow = new Chore("Chore #04", Boolean.FALSE, today.plusDays(1));
+        service.getChores().addAll(List.of(dueTomorrow, late, completed, dueToday));
+        DeadlineScheduler scheduler = service.deadlineScheduler();
+        List<String> events = new ArrayList<>();
+        scheduler.addListener(new DeadlineListener() {
+            @Override
+            public void due(LocalDate day, List<Chore> chores) {
+                events.add("due " + day + " " + chores.size());
+            }
+
+            @Override
+            public void overdue(LocalDate day, List<Chore> chores) {
+                events.add("overdue " + day + " " + chores.get(0).getDescription() + " " + chores.size());
+            }
+        });
+
+        assertTrue(scheduler.advanceTo(today));
+        assertFalse(scheduler.advanceTo(today));
+        dueToday.setIsCompleted(Boolean.TRUE);
+        assertTrue(scheduler.advanceTo(today.plusDays(1)));
+        assertTrue(scheduler.advanceTo(today.plusDays(3)));
+
+        assertEquals(List.of(
+                "overdue " + today + " Chore #01 1",
+                "due " + today + " 1",
+                "due " + today.plusDays(1) + " 1",
+                "overdue " + today.plusDays(3) + " Chore #04 1"
+        ), events);
+    }
+
+    @Test
+    @DisplayName("#nextDue > When chores are changed after the scheduler was created > Return the next chores by deadline")
+    void nextDueWhenChoresAreChangedAfterTheSchedulerWasCreatedReturnTheNextChoresByDeadline() {
+        LocalDate today = LocalDate.now();
+        ChoreService service = new ChoreService();
+        DeadlineScheduler scheduler = service.deadlineScheduler();
+        for (int i = 10; i > 0; i--) {
+            service.getChores().add(new Chore("Chore #" + i, Boolean.FALSE, today.plusDays(i)));
+        }
+        service.getChores().add(new Chore("Chore #0", Boolean.FALSE, today.minusDays(1)));
+        service.toggleChore("Chore #1", today.plusDays(1));
+        service.editChore("Chore #10", today.plusDays(10), today);
+
+        List<Chore> next = scheduler.nextDue(3);
+
+        assertAll(
+                () -> assertEquals(List.of("Chore #10", "Chore #2", "Chore #3"),
+                        next.stream().map(Chore::getDescription).collect(Collectors.toList())),
+                () -> assertEquals(9, scheduler.nextDue(100).size()),
+                () -> assertEquals("Chore #0", scheduler.overdue().get(0).getDescription())
+        );
+    }
+
+}
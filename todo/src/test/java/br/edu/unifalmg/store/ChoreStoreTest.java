@@ -0,0 +1,356 @@
+package br.edu.unifalmg.store;
+
+import br.edu.unifalmg.domain.Chore;
+import br.edu.unifalmg.repository.ChoreChangeSet;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChoreStoreTest {
+
+    @Test
+    @DisplayName("#find > When the chore was added > Return the chore")
+    void findWhenTheChoreWasAddedReturnTheChore() {
+        ChoreStore store = new ChoreStore();
+        Chore chore = new Chore(1L, "Chore #01", Boolean.FALSE, LocalDate.now());
+        store.add(chore);
+
+        assertAll(
+                () -> assertSame(chore, store.find("Chore #01", LocalDate.now())),
+                () -> assertSame(chore, store.findById(1L)),
+                () -> assertNull(store.find("Chore #01", LocalDate.now().plusDays(1)))
+        );
+    }
+
+    @Test
+    @DisplayName("#find > When the chore is changed through its setters > Follow the new key")
+    void findWhenTheChoreIsChangedThroughItsSettersFollowTheNewKey() {
+        ChoreStore store = new ChoreStore();
+        Chore chore = new Chore("Chore #01", Boolean.FALSE, LocalDate.now());
+        store.add(chore);
+
+        chore.setDescription("Chore #02");
+        chore.setDeadline(LocalDate.now().plusDays(1));
+        chore.setId(7L);
+
+        assertAll(
+                () -> assertNull(store.find("Chore #01", LocalDate.now())),
+                () -> assertSame(chore, store.find("Chore #02", LocalDate.now().plusDays(1))),
+                () -> assertSame(chore, store.findById(7L))
+        );
+    }
+
+    @Test
+    @DisplayName("#remove > When the chore is removed > Stop following the chore")
+    void removeWhenTheChoreIsRemovedStopFollowingTheChore() {
+        ChoreStore store = new ChoreStore();
+        Chore chore = new Chore("Chore #01", Boolean.FALSE, LocalDate.now());
+        store.add(chore);
+
+        assertTrue(store.remove(chore));
+        chore.setDescription("Chore #02");
+
+        assertAll(
+                () -> assertTrue(store.isEmpty()),
+                () -> assertNull(store.find("Chore #01", LocalDate.now())),
+                () -> assertNull(store.find("Chore #02", LocalDate.now()))
+        );
+    }
+
+    @Test
+    @DisplayName("#remove > When two chores share the same key > Keep the remaining chore indexed")
+    void removeWhenTwoChoresShareTheSameKeyKeepTheRemainingChoreIndexed() {
+        ChoreStore store = new ChoreStore();
+        Chore first = new Chore("Chore #01", Boolean.FALSE, LocalDate.now());
+        Chore second = new Chore("Chore #01", Boolean.TRUE, LocalDate.now());
+        store.add(first);
+        store.add(second);
+
+        assertSame(first, store.find("Chore #01", LocalDate.now()));
+        store.remove(0);
+
+        assertAll(
+                () -> assertEquals(1, store.size()),
+                () -> assertSame(second, store.get(0)),
+                () -> assertSame(second, store.find("Chore #01", LocalDate.now()))
+        );
+    }
+
+    @Test
+    @DisplayName("#reset > When the loaded list is null > Leave the store empty")
+    void resetWhenTheLoadedListIsNullLeaveTheStoreEmpty() {
+        ChoreStore store = new ChoreStore();
+        store.add(new Chore("Chore #01", Boolean.FALSE, LocalDate.now()));
+
+        store.reset(null);
+
+        assertAll(
+                () -> assertTrue(store.isEmpty()),
+                () -> assertFalse(store.contains("Chore #01", LocalDate.now()))
+        );
+    }
+
+    @Test
+    @DisplayName("#findByStatus > When the chore is toggled > Move the chore to the other status")
+    void findByStatusWhenTheChoreIsToggledMoveTheChoreToTheOtherStatus() {
+        ChoreStore store = new ChoreStore();
+        Chore first = new Chore("Chore #01", Boolean.FALSE, LocalDate.now());
+        Chore second = new Chore("Chore #02", Boolean.FALSE, LocalDate.now());
+        Chore third = new Chore("Chore #03", Boolean.TRUE, LocalDate.now());
+        store.add(first);
+        store.add(second);
+        store.add(third);
+
+        first.setIsCompleted(Boolean.TRUE);
+
+        assertAll(
+                () -> assertEquals(List.of(first, third), store.findByStatus(true)),
+                () -> assertEquals(List.of(second), store.findByStatus(false)),
+                () -> assertEquals(2, store.countByStatus(true))
+        );
+    }
+
+    @Test
+    @DisplayName("#findDueBetween > When chores have several deadlines > Return the range ordered by deadline")
+    void findDueBetweenWhenChoresHaveSeveralDeadlinesReturnTheRangeOrderedByDeadline() {
+        ChoreStore store = new ChoreStore();
+        LocalDate today = LocalDate.now();
+        Chore late = new Chore("Chore #01", Boolean.FALSE, today.plusDays(3));
+        Chore early = new Chore("Chore #02", Boolean.TRUE, today.plusDays(1));
+        Chore sameDay = new Chore("Chore #03", Boolean.FALSE, today.plusDays(1));
+        Chore past = new Chore("Chore #04", Boolean.FALSE, today.minusDays(1));
+        store.add(late);
+        store.add(early);
+        store.add(sameDay);
+        store.add(past);
+
+        late.setDeadline(today.plusDays(2));
+
+        assertAll(
+                () -> assertEquals(List.of(past, early, sameDay, late), store.findDueBetween(null, null, null)),
+                () -> assertEquals(List.of(past, early, sameDay), store.findDueBefore(today.plusDays(2))),
+                () -> assertEquals(List.of(past), store.findDueBefore(today, false)),
+                () -> assertEquals(List.of(sameDay, late), store.findDueBetween(today, null, false))
+        );
+    }
+
+    @Test
+    @DisplayName("#changes > When changes are tracked > Record each chore once")
+    void changesWhenChangesAreTrackedRecordEachChoreOnce() {
+        ChoreStore store = new ChoreStore();
+        Chore loaded = new Chore(1L, "Chore #01", Boolean.FALSE, LocalDate.now());
+        Chore removed = new Chore(2L, "Chore #02", Boolean.FALSE, LocalDate.now());
+        store.reset(List.of(loaded, removed));
+        loaded.setIsCompleted(Boolean.TRUE);
+        assertTrue(store.changes().isEmpty());
+
+        store.trackChanges();
+        Chore added = new Chore("Chore #03", Boolean.FALSE, LocalDate.now());
+        Chore discarded = new Chore("Chore #04", Boolean.FALSE, LocalDate.now());
+        store.add(added);
+        store.add(discarded);
+        added.setDescription("Chore #05");
+        added.setId(5L);
+        loaded.setIsCompleted(Boolean.FALSE);
+        loaded.setDescription("Chore #06");
+        store.remove(removed);
+        store.remove(discarded);
+
+        ChoreChangeSet changes = store.changes();
+        assertAll(
+                () -> assertEquals(List.of(added), changes.getAdded()),
+                () -> assertEquals(List.of(loaded), changes.getUpdated()),
+                () -> assertEquals(List.of(removed), changes.getDeleted()),
+                () -> assertEquals(3, changes.size())
+        );
+
+        store.clearChanges();
+        store.reset(List.of(loaded));
+        loaded.setIsCompleted(Boolean.TRUE);
+
+        assertAll(
+                () -> assertTrue(store.changes().isEmpty()),
+                () -> assertFalse(store.isTrackingChanges())
+        );
+    }
+
+    @Test
+    @DisplayName("#findNextDue > When the limit is negative > Throw an exception")
+    void findNextDueWhenTheLimitIsNegativeThrowAnException() {
+        ChoreStore store = new ChoreStore();
+        store.add(new Chore(1L, "Chore #01", Boolean.FALSE, LocalDate.now()));
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> store.findNextDue(LocalDate.now(), false, -1));
+        assertAll(
+                () -> assertEquals("The limit cannot be negative", exception.getMessage()),
+                () -> assertTrue(store.findNextDue(LocalDate.now(), false, 0).isEmpty())
+        );
+    }
+
+    @Test
+    @DisplayName("#search > When the chores are changed > Follow the words of the descriptions")
+    void searchWhenTheChoresAreChangedFollowTheWordsOfTheDescriptions() {
+        ChoreStore store = new ChoreStore();
+        Chore litter = new Chore("Limpar a caixa de areia", Boolean.FALSE, LocalDate.now());
+        Chore kitchen = new Chore("Lavar a louça da cozinha", Boolean.FALSE, LocalDate.now());
+        Chore box = new Chore("Organizar a CAIXA de ferramentas", Boolean.FALSE, LocalDate.now());
+        store.add(litter);
+        store.add(kitchen);
+        store.add(box);
+
+        assertAll(
+                () -> assertEquals(List.of(litter, box), store.search("caixa")),
+                () -> assertEquals(List.of(kitchen), store.search("LOUCA")),
+                () -> assertEquals(List.of(litter, kitchen), store.search("l*")),
+                () -> assertEquals(List.of(litter), store.search("  limp*   Caixa ")),
+                () -> assertEquals(List.of(box), store.search("caixa-de ferr*")),
+                () -> assertEquals(List.of(), store.search("caixa louca")),
+                () -> assertEquals(List.of(), store.search("*")),
+                () -> assertEquals(List.of(), store.search(null))
+        );
+
+        litter.setDescription("Trocar a areia");
+        store.remove(box);
+
+        assertAll(
+                () -> assertEquals(List.of(), store.search("caixa")),
+                () -> assertEquals(List.of(litter), store.search("areia")),
+                () -> assertEquals(List.of(), store.search("ferramentas"))
+        );
+
+        store.clear();
+        assertEquals(List.of(), store.search("areia"));
+    }
+
+    @Test
+    @DisplayName("#search > When a prefix matches several words > Return each chore once in insertion order")
+    void searchWhenAPrefixMatchesSeveralWordsReturnEachChoreOnceInInsertionOrder() {
+        ChoreStore store = new ChoreStore();
+        Chore first = new Chore(1L, "Limpar o limpador", Boolean.FALSE, LocalDate.now());
+        Chore second = new Chore(2L, "Lavar a louça", Boolean.FALSE, LocalDate.now());
+        Chore third = new Chore(3L, "Limpeza da caixa", Boolean.FALSE, LocalDate.now());
+        store.add(first);
+        store.add(second);
+        store.add(third);
+
+        assertAll(
+                () -> assertEquals(List.of(first, third), store.search("limp*")),
+                () -> assertEquals(List.of(first, second, third), store.search("l*")),
+                () -> assertEquals(List.of(third), store.search("l* caixa")),
+                () -> assertEquals(List.of(second), store.search("lav* lo*")),
+                () -> assertTrue(store.search("x*").isEmpty())
+        );
+    }
+
+    @Test
+    @DisplayName("#query > When the query has several predicates > Read the most selective index and apply the order and page")
+    void queryWhenTheQueryHasSeveralPredicatesReadTheMostSelectiveIndexAndApplyTheOrderAndPage() {
+        ChoreStore store = new ChoreStore();
+        LocalDate today = LocalDate.now();
+        Chore first = new Chore("Limpar a caixa", Boolean.FALSE, today.plusDays(3));
+        Chore second = new Chore("Lavar a louça", Boolean.TRUE, today.minusDays(1));
+        Chore third = new Chore("Limpar o quarto", Boolean.FALSE, today.minusDays(2));
+        Chore fourth = new Chore("Regar as plantas", Boolean.FALSE, today);
+        store.addAll(List.of(first, second, third, fourth));
+
+        ChoreQuery overdue = ChoreQuery.builder().isCompleted(false).dueBefore(today.plusDays(1))
+                .orderBy(ChoreQuery.Order.DEADLINE_DESCENDING).build();
+        ChoreQuery cleaning = ChoreQuery.builder().text("limp*").orderBy(ChoreQuery.Order.DEADLINE).build();
+        ChoreQuery page = ChoreQuery.builder().offset(1).limit(2).build();
+        ChoreQuery uncompleted = ChoreQuery.builder().isCompleted(false).build();
+
+        assertAll(
+                () -> assertEquals(QueryPlan.DEADLINE_INDEX, store.explain(overdue)),
+                () -> assertEquals(List.of(fourth, third), store.query(overdue)),
+                () -> assertEquals(QueryPlan.TEXT_INDEX, store.explain(cleaning)),
+                () -> assertEquals(List.of(third, first), store.query(cleaning)),
+                () -> assertEquals(QueryPlan.FULL_SCAN, store.explain(page)),
+                () -> assertEquals(List.of(second, third), store.query(page)),
+                () -> assertEquals(QueryPlan.STATUS_INDEX, store.explain(uncompleted)),
+                () -> assertEquals(3, store.count(uncompleted)),
+                () -> assertEquals(2, store.count(cleaning)),
+                () -> assertEquals(List.of(), store.query(ChoreQuery.builder().dueFrom(today).dueBefore(today).build())),
+                () -> assertThrows(IllegalArgumentException.class, () -> ChoreQuery.builder().limit(-1).build())
+        );
+    }
+
+    @Test
+    @DisplayName("#statistics > When the chores change and the days go by > Keep the counters and histograms up to date")
+    void statisticsWhenTheChoresChangeAndTheDaysGoByKeepTheCountersAndHistogramsUpToDate() {
+        ChoreStore store = new ChoreStore();
+        LocalDate monday = LocalDate.of(2024, 1, 1);
+        Chore first = new Chore("Chore #01", Boolean.FALSE, monday);
+        Chore second = new Chore("Chore #02", Boolean.FALSE, monday.plusDays(2));
+        Chore third = new Chore("Chore #03", Boolean.TRUE, monday.plusDays(8));
+        store.addAll(List.of(first, second, third));
+
+        ChoreStatistics initial = store.statistics(monday.plusDays(1));
+        assertAll(
+                () -> assertEquals(3, initial.getTotal()),
+                () -> assertEquals(1, initial.getCompleted()),
+                () -> assertEquals(2, initial.getUncompleted()),
+                () -> assertEquals(1, initial.getOverdue())
+        );
+
+        first.setIsCompleted(Boolean.TRUE);
+        second.setDeadline(monday);
+        store.add(new Chore("Chore #04", Boolean.FALSE, monday.plusDays(3)));
+
+        assertAll(
+                () -> assertEquals(1, store.statistics(monday.plusDays(1)).getOverdue()),
+                () -> assertEquals(2, store.statistics(monday.plusDays(4)).getOverdue()),
+                () -> assertEquals(1, store.statistics(monday.plusDays(3)).getOverdue()),
+                () -> assertEquals(2, store.statistics(monday.plusDays(1)).getCompleted()),
+                () -> assertEquals(Map.of(monday, 2, monday.plusDays(3), 1), store.countDueByDay(monday, monday.plusDays(7), null)),
+                () -> assertEquals(Map.of(monday, 1), store.countDueByDay(null, null, Boolean.TRUE).headMap(monday.plusDays(7))),
+                () -> assertEquals(Map.of(monday, 3, monday.plusWeeks(1), 1), store.countDueByWeek(monday.plusDays(2), null, null)),
+                () -> assertEquals(Map.of(monday.plusWeeks(1), 1), store.countDueByWeek(monday.plusDays(7), monday.plusDays(9), Boolean.TRUE))
+        );
+
+        store.remove(third);
+        store.clear();
+        assertAll(
+                () -> assertEquals(0, store.statistics(monday.plusDays(4)).getOverdue()),
+                () -> assertTrue(store.countDueByWeek(null, null, null).isEmpty())
+        );
+    }
+
+    @Test
+    @DisplayName("#remove > When chores are removed by reference > Keep the list order and promote the chore with the same key")
+    void removeWhenChoresAreRemovedByReferenceKeepTheListOrderAndPromoteTheChoreWithTheSameKey() {
+        ChoreStore store = new ChoreStore();
+        List<Chore> chores = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            chores.add(new Chore("Chore #" + i, Boolean.FALSE, LocalDate.now()));
+        }
+        store.addAll(chores);
+        Chore sameKey = new Chore("Chore #3", Boolean.FALSE, LocalDate.now());
+        store.add(sameKey);
+
+        assertTrue(store.remove(chores.get(3)));
+        assertTrue(store.remove(chores.get(7)));
+        assertFalse(store.remove(chores.get(7)));
+        store.add(1, new Chore("Chore #10", Boolean.FALSE, LocalDate.now()));
+
+        assertAll(
+                () -> assertEquals(10, store.size()),
+                () -> assertSame(sameKey, store.find("Chore #3", LocalDate.now())),
+                () -> assertEquals("Chore #10", store.get(1).getDescription()),
+                () -> assertEquals(List.of("Chore #0", "Chore #10", "Chore #1", "Chore #2", "Chore #4", "Chore #5",
+                        "Chore #6", "Chore #8", "Chore #9", "Chore #3"),
+                        store.stream().map(Chore::getDescription).collect(Collectors.toList())),
+                () -> assertEquals(9, store.indexOf(sameKey))
+        );
+
+        store.remove(chores.get(0));
+        assertSame(chores.get(1), store.get(1));
+    }
+}